@@ -0,0 +1,81 @@
+package io.kestra.plugin.apify;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.apify.actor.ActorRunApiResponseWrapper;
+
+/**
+ * Deserialization of a full run response, parsed on every run start and every status poll
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActorRunDeserializationBenchmark {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson(false);
+
+    private static final String RUN = """
+        {
+          "data": {
+            "id": "HG7ML7M8z78YcAPEB",
+            "actId": "HDSasDasz78YcAPEB",
+            "userId": "7sT5jcggjjA9fNcxF",
+            "startedAt": "2019-11-30T07:34:24.202Z",
+            "finishedAt": "2019-12-12T09:30:12.202Z",
+            "status": "RUNNING",
+            "statusMessage": "Actor is running",
+            "meta": { "origin": "API", "userAgent": "kestra" },
+            "stats": {
+              "inputBodyLen": 240,
+              "restartCount": 0,
+              "resurrectCount": 2,
+              "memAvgBytes": 267874071.9,
+              "memMaxBytes": 404713472,
+              "memCurrentBytes": 0,
+              "cpuAvgUsage": 33.75321011075384,
+              "cpuMaxUsage": 169.65073245249283,
+              "cpuCurrentUsage": 0,
+              "netRxBytes": 103508042,
+              "netTxBytes": 4854600,
+              "durationMillis": 248472,
+              "runTimeSecs": 248.472,
+              "metamorph": 0,
+              "computeUnits": 0.13804
+            },
+            "options": { "build": "latest", "timeoutSecs": 300, "memoryMbytes": 1024, "diskMbytes": 2048 },
+            "buildId": "7sT5jcggjjA9fNcxF",
+            "exitCode": 0,
+            "defaultKeyValueStoreId": "eJNzqsbPiopwJcgGQ",
+            "defaultDatasetId": "wmKPijuyDnPZAPRMk",
+            "defaultRequestQueueId": "FL35cSF7jrxr3BY39",
+            "buildNumber": "0.0.36",
+            "containerUrl": "https://g8kd8kbc5ge8.runs.apify.net",
+            "isContainerServerReady": true,
+            "gitBranchName": "master",
+            "usage": { "ACTOR_COMPUTE_UNITS": 3, "DATASET_READS": 4, "DATASET_WRITES": 4, "REQUEST_QUEUE_READS": 5 },
+            "usageTotalUsd": 0.2654,
+            "usageUsd": { "ACTOR_COMPUTE_UNITS": 0.072, "DATASET_READS": 0.0004, "DATASET_WRITES": 0.0002 }
+          }
+        }
+        """;
+
+    @Benchmark
+    public ActorRunApiResponseWrapper deserializeRun() throws Exception {
+        return MAPPER.readValue(RUN, ActorRunApiResponseWrapper.class);
+    }
+}
@@ -0,0 +1,60 @@
+package io.kestra.plugin.apify;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request-building hot paths of {@link ApifyConnection} that run once per Apify call
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApifyConnectionBenchmark {
+    private final ApifyConnection connection = new ApifyConnection() {
+    };
+
+    private Map<String, Object> queryParams;
+    private URI itemsUri;
+
+    @Setup
+    public void setUp() {
+        queryParams = new LinkedHashMap<>();
+        queryParams.put("cleanValue", true);
+        queryParams.put("offset", 20000);
+        queryParams.put("limit", 10000);
+        queryParams.put("sortDirection", false);
+        queryParams.put("flatten", false);
+        queryParams.put("skipEmpty", true);
+        queryParams.put("simplified", false);
+        queryParams.put("skipFailedPages", false);
+        queryParams.put("skipHidden", false);
+        queryParams.put("fields", "url,title,meta.description,crawl.loadedTime");
+        itemsUri = URI.create("https://api.apify.com/v2/datasets/RNtYOZmecGriFjtDH/items?offset=20000&limit=10000");
+    }
+
+    @Benchmark
+    public String addQueryParams() {
+        return connection.addQueryParams("/datasets/RNtYOZmecGriFjtDH/items", queryParams);
+    }
+
+    @Benchmark
+    public String endpointTemplate() {
+        return ApifyConnection.endpointTemplate(itemsUri);
+    }
+}
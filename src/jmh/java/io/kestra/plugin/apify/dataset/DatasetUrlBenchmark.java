@@ -0,0 +1,67 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import io.micronaut.context.ApplicationContext;
+
+/**
+ * Rendering of the dataset items URL, repeated for every page range of a partitioned download
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatasetUrlBenchmark {
+    private ApplicationContext applicationContext;
+    private RunContext runContext;
+    private Get get;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        applicationContext = ApplicationContext.run();
+        runContext = applicationContext.getBean(RunContextFactory.class).of();
+        get = Get.builder()
+            .id("get")
+            .type(Get.class.getName())
+            .apiToken(Property.ofValue("API_KEY"))
+            .datasetId(Property.ofValue("RNtYOZmecGriFjtDH"))
+            .fields(Property.ofValue(List.of("url", "title", "meta.description")))
+            .omit(Property.ofValue(List.of("#debug")))
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public String buildUrl() throws Exception {
+        return get.buildURL(runContext);
+    }
+
+    @Benchmark
+    public String buildPageRangeUrl() throws Exception {
+        return get.buildURL(runContext, 20000, 10000);
+    }
+}
@@ -0,0 +1,177 @@
+package io.kestra.plugin.apify;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.runners.RunContext;
+
+/**
+ * HTTP call metrics of one task run, aggregated per endpoint template and status while the task runs.
+ * <p>
+ * Every call used to add several entries to the run context, which keeps them all and ships them with the task result, so a
+ * task polling for hours or sending thousands of pages would report thousands of rows. Calls are instead folded into sums,
+ * plus the slowest duration, and emitted once when the outermost {@link #scoped} body ends; a task started by another task
+ * on the same run context, as {@code RunBatch} does, shares the accumulator of its parent. Calls made outside of a scope
+ * are emitted right away.
+ */
+final class ApifyCallMetrics {
+    private static final Map<RunContext, ApifyCallMetrics> OPEN = new IdentityHashMap<>();
+
+    private final Map<List<String>, Calls> calls = new LinkedHashMap<>();
+    private final Map<String, Transfers> transfers = new LinkedHashMap<>();
+    private long rateLimitWaitNanos;
+    private long rateLimited;
+    private long poolHits;
+    private long poolMisses;
+    private long poolBypassed;
+    private int depth;
+
+    /**
+     * Runs a task body, emitting the call metrics gathered on its run context once it ends
+     */
+    static <T> T scoped(RunContext runContext, Callable<T> body) throws Exception {
+        ApifyCallMetrics metrics;
+        synchronized (OPEN) {
+            metrics = OPEN.computeIfAbsent(runContext, key -> new ApifyCallMetrics());
+            metrics.depth++;
+        }
+
+        try {
+            return body.call();
+        } finally {
+            boolean outermost;
+            synchronized (OPEN) {
+                outermost = --metrics.depth == 0;
+                if (outermost) {
+                    OPEN.remove(runContext);
+                }
+            }
+            if (outermost) {
+                metrics.emit(runContext);
+            }
+        }
+    }
+
+    /**
+     * Applies an update to the accumulator of the run context, or emits it at once when no task body is running
+     */
+    static void record(RunContext runContext, Consumer<ApifyCallMetrics> update) {
+        ApifyCallMetrics metrics;
+        synchronized (OPEN) {
+            metrics = OPEN.get(runContext);
+        }
+
+        if (metrics == null) {
+            ApifyCallMetrics single = new ApifyCallMetrics();
+            update.accept(single);
+            single.emit(runContext);
+            return;
+        }
+        synchronized (metrics) {
+            update.accept(metrics);
+        }
+    }
+
+    void call(String endpoint, String status, long durationNanos, long ttfbNanos, long bytes, long decodedBytes) {
+        Calls byStatus = calls.computeIfAbsent(List.of(endpoint, status), key -> new Calls());
+        byStatus.count++;
+        byStatus.totalNanos += durationNanos;
+        byStatus.maxNanos = Math.max(byStatus.maxNanos, durationNanos);
+
+        Transfers byEndpoint = transfers.computeIfAbsent(endpoint, key -> new Transfers());
+        if (ttfbNanos >= 0) {
+            byEndpoint.ttfbNanos += ttfbNanos;
+            byEndpoint.ttfbCount++;
+        }
+        if (bytes >= 0) {
+            byEndpoint.bytes += bytes;
+            byEndpoint.measured = true;
+            if (decodedBytes >= 0) {
+                byEndpoint.decodedBytes += decodedBytes;
+                byEndpoint.savedBytes += Math.max(0, decodedBytes - bytes);
+                byEndpoint.decoded = true;
+            }
+        }
+    }
+
+    void rateLimited(String endpoint) {
+        rateLimited++;
+        transfers.computeIfAbsent(endpoint, key -> new Transfers()).retries++;
+    }
+
+    void rateLimitWait(Duration waited) {
+        rateLimitWaitNanos += waited.toNanos();
+    }
+
+    void lease(ApifyHttpClientPool.LeaseKind kind) {
+        switch (kind) {
+            case HIT -> poolHits++;
+            case MISS -> poolMisses++;
+            case BYPASS -> poolBypassed++;
+        }
+    }
+
+    private synchronized void emit(RunContext runContext) {
+        calls.forEach((key, byStatus) ->
+        {
+            String[] tags = {"endpoint", key.get(0), "status", key.get(1)};
+            ApifyConnection.metric(runContext, Counter.of("http.requests", byStatus.count, tags));
+            ApifyConnection.metric(runContext, Timer.of("http.request.duration", Duration.ofNanos(byStatus.totalNanos), tags));
+            ApifyConnection.metric(runContext, Timer.of("http.request.duration.max", Duration.ofNanos(byStatus.maxNanos), tags));
+        });
+        transfers.forEach((endpoint, byEndpoint) ->
+        {
+            if (byEndpoint.ttfbCount > 0) {
+                ApifyConnection.metric(runContext, Timer.of("http.request.ttfb", Duration.ofNanos(byEndpoint.ttfbNanos), "endpoint", endpoint));
+            }
+            if (byEndpoint.measured) {
+                ApifyConnection.metric(runContext, Counter.of("http.response.bytes", byEndpoint.bytes, "endpoint", endpoint));
+            }
+            if (byEndpoint.decoded) {
+                ApifyConnection.metric(runContext, Counter.of("http.response.decoded.bytes", byEndpoint.decodedBytes, "endpoint", endpoint));
+                ApifyConnection.metric(runContext, Counter.of("http.compression.saved.bytes", byEndpoint.savedBytes, "endpoint", endpoint));
+            }
+            if (byEndpoint.retries > 0) {
+                ApifyConnection.metric(runContext, Counter.of("http.retries", byEndpoint.retries, "endpoint", endpoint));
+            }
+        });
+
+        if (rateLimitWaitNanos > 0) {
+            ApifyConnection.metric(runContext, Timer.of("ratelimit.wait", Duration.ofNanos(rateLimitWaitNanos)));
+        }
+        emitCount(runContext, "ratelimit.throttled", rateLimited);
+        emitCount(runContext, "http.pool.hits", poolHits);
+        emitCount(runContext, "http.pool.misses", poolMisses);
+        emitCount(runContext, "http.pool.bypassed", poolBypassed);
+    }
+
+    private static void emitCount(RunContext runContext, String name, long count) {
+        if (count > 0) {
+            ApifyConnection.metric(runContext, Counter.of(name, count));
+        }
+    }
+
+    private static final class Calls {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+    }
+
+    private static final class Transfers {
+        private long ttfbNanos;
+        private long ttfbCount;
+        private long bytes;
+        private long decodedBytes;
+        private long savedBytes;
+        private boolean measured;
+        private boolean decoded;
+        private long retries;
+    }
+}
@@ -0,0 +1,408 @@
+package io.kestra.plugin.apify;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.http.client.configurations.HttpConfiguration;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+
+/**
+ * Issues authenticated calls to the Apify API for one API token and set of HTTP client options, through the worker-wide
+ * rate limiter and client pool, recording the call metrics of the run context.
+ * <p>
+ * Tasks use it through {@link ApifyConnection}; components that are not tasks, such as triggers, use it directly.
+ */
+public final class ApifyClient {
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=UTF-8";
+    private static final int NOT_MODIFIED = 304;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int MAX_RATE_LIMITED_ATTEMPTS = 8;
+    private static final Duration RATE_LIMITED_BASE_DELAY = Duration.ofMillis(500);
+
+    private final Property<String> apiToken;
+    private final HttpConfiguration options;
+
+    public ApifyClient(Property<String> apiToken, HttpConfiguration options) {
+        this.apiToken = apiToken;
+        this.options = options;
+    }
+
+    /**
+     * Runs a task or trigger body so that the HTTP call metrics of its run are aggregated and recorded once, when it ends
+     */
+    public static <T> T withCallMetrics(RunContext runContext, Callable<T> body) throws Exception {
+        return ApifyCallMetrics.scoped(runContext, body);
+    }
+
+    /**
+     * Appends the query parameters to the path, sorted by name and URL-encoded
+     */
+    public static String addQueryParams(String basePath, Map<String, ?> queryParams) {
+        StringBuilder urlBuilder = new StringBuilder(basePath);
+        Map<String, ?> sortedQueryParams = new TreeMap<>(queryParams);
+        sortedQueryParams.forEach((key, value) ->
+        {
+            urlBuilder.append(urlBuilder.indexOf("?") == -1 ? "?" : "&");
+            urlBuilder.append(key).append("=").append(URLEncoder.encode(value.toString(), StandardCharsets.UTF_8));
+        });
+        return urlBuilder.toString();
+    }
+
+    /**
+     * Creates a request builder for a path of the Apify API, carrying the integration header
+     */
+    public static HttpRequest.HttpRequestBuilder request(String method, String url) {
+        return HttpRequest.builder()
+            .addHeader(ApifyConnection.INTEGRATION_HEADER, ApifyConnection.INTEGRATION_VALUE)
+            .uri(URI.create(ApifyConnection.getBaseUrl() + "/" + url))
+            .method(method);
+    }
+
+    /**
+     * Makes an HTTP call to the Apify API with proper error handling
+     */
+    public <T> T makeCall(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, Class<T> responseType) throws Exception {
+        var logger = runContext.logger();
+
+        try {
+            addAuthorizationHeader(runContext, requestBuilder);
+            return rateLimited(runContext, requestBuilder, stats ->
+            {
+                try (ApifyHttpClientPool.Lease lease = leaseClient(runContext)) {
+                    HttpResponse<T> response = lease.client().request(requestBuilder.build(), responseType);
+                    stats.status = response.getStatus().getCode();
+                    stats.bytes = contentLength(response);
+                    return response.getBody();
+                }
+            });
+        } catch (IllegalVariableEvaluationException illegalVariableEvaluationException) {
+            logger.error("Error getting API key for Apify: {}", illegalVariableEvaluationException.getMessage());
+            throw illegalVariableEvaluationException;
+        } catch (Exception e) {
+            logger.error("Error making request to Apify API: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Makes a conditional GET call, sending {@code If-None-Match} with the given entity tag so that an unchanged resource
+     * costs a bodiless 304 Not Modified response
+     */
+    public <T> ApifyConnection.ConditionalResponse<T> makeConditionalCall(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, String etag, Class<T> responseType) throws Exception {
+        if (etag != null) {
+            requestBuilder.addHeader("If-None-Match", etag);
+        }
+
+        try {
+            addAuthorizationHeader(runContext, requestBuilder);
+            return rateLimited(runContext, requestBuilder, stats ->
+            {
+                try (ApifyHttpClientPool.Lease lease = leaseClient(runContext)) {
+                    HttpResponse<String> response = lease.client().request(requestBuilder.build(), String.class);
+                    stats.status = response.getStatus().getCode();
+                    stats.bytes = response.getBody() == null ? 0 : response.getBody().getBytes(StandardCharsets.UTF_8).length;
+                    if (response.getStatus().getCode() == NOT_MODIFIED) {
+                        return new ApifyConnection.ConditionalResponse<T>(null, etag, true);
+                    }
+
+                    String responseEtag = response.getHeaders() == null ? null : response.getHeaders().firstValue("ETag").orElse(null);
+                    return new ApifyConnection.ConditionalResponse<>(ApifyConnection.mapper.readValue(response.getBody(), responseType), responseEtag, false);
+                }
+            });
+        } catch (Exception e) {
+            runContext.logger().error("Error making request to Apify API: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Makes an HTTP call to the Apify API and hands the response body to the given handler as received on the wire along with
+     * its content encoding, or decompressed on the fly when {@code decode} is set
+     */
+    public <T> T makeStreamingCall(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, boolean decode, ApifyConnection.EncodedResponseBodyHandler<T> bodyHandler) throws Exception {
+        var logger = runContext.logger();
+        addAuthorizationHeader(runContext, requestBuilder);
+        if (requestBuilder.build().getHeaders().firstValue("Accept-Encoding").isEmpty()) {
+            requestBuilder.addHeader("Accept-Encoding", ApifyConnection.ACCEPT_ENCODING);
+        }
+        return rateLimited(runContext, requestBuilder, stats ->
+        {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+            try (ApifyHttpClientPool.Lease lease = leaseClient(runContext)) {
+                lease.client().request(requestBuilder.build(), getStreamingResponseConsumer(bodyHandler, decode, completableFuture, stats));
+            } catch (IllegalVariableEvaluationException illegalVariableEvaluationException) {
+                logger.error("Error getting API key for Apify: {}", illegalVariableEvaluationException.getMessage());
+                completableFuture.completeExceptionally(illegalVariableEvaluationException);
+            } catch (Exception e) {
+                if (e.getClass().equals(ApifyTempFileRuntimeException.class)) {
+                    logger.error("Error saving Apify Response to local temp file: {}", e.getCause().getMessage());
+                } else if (rateLimitedRetryAfter(e, 1).isEmpty()) {
+                    logger.error("Error making request to Apify API: {}", e.getMessage());
+                }
+                completableFuture.completeExceptionally(e);
+            }
+            return completableFuture.get();
+        });
+    }
+
+    /**
+     * Sends the call through the worker-wide rate limiter of the request's API token and resource,
+     * retrying it after the server-provided delay when Apify answers with 429 Too Many Requests
+     */
+    private <T> T rateLimited(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, Attempt<T> call) throws Exception {
+        HttpRequest request = requestBuilder.build();
+        ApifyRateLimiter rateLimiter = ApifyRateLimiter.forResource(
+            request.getHeaders().firstValue("Authorization").orElse(""),
+            ApifyConnection.resource(request.getUri())
+        );
+        String endpoint = ApifyConnection.endpointTemplate(request.getUri());
+
+        for (int attempt = 1; ; attempt++) {
+            Duration waited = rateLimiter.acquire();
+            if (!waited.isZero()) {
+                ApifyCallMetrics.record(runContext, metrics -> metrics.rateLimitWait(waited));
+            }
+
+            CallStats stats = new CallStats();
+            long startNanos = System.nanoTime();
+            try {
+                T result = call.call(stats);
+                recordCall(runContext, endpoint, stats, startNanos, null);
+                rateLimiter.onSuccess();
+                return result;
+            } catch (Exception e) {
+                recordCall(runContext, endpoint, stats, startNanos, e);
+                Optional<Duration> retryAfter = rateLimitedRetryAfter(e, attempt);
+                if (retryAfter.isEmpty() || attempt >= MAX_RATE_LIMITED_ATTEMPTS) {
+                    throw e;
+                }
+
+                rateLimiter.onRateLimited(System.nanoTime(), retryAfter.get());
+                ApifyCallMetrics.record(runContext, metrics -> metrics.rateLimited(endpoint));
+                runContext.logger().warn("Apify API rate limit reached, retrying in {} ms.", retryAfter.get().toMillis());
+            }
+        }
+    }
+
+    /**
+     * Records the latency, status, time to first byte and response size of one HTTP exchange, tagged by endpoint template,
+     * into the call metrics of the task run
+     */
+    private static void recordCall(RunContext runContext, String endpoint, CallStats stats, long startNanos, Exception failure) {
+        String status = stats.status != null ? String.valueOf(stats.status) : statusOf(failure);
+        long durationNanos = System.nanoTime() - startNanos;
+        long ttfbNanos = stats.firstByteNanos > 0 ? stats.firstByteNanos - startNanos : -1;
+        ApifyCallMetrics.record(runContext, metrics -> metrics.call(endpoint, status, durationNanos, ttfbNanos, stats.bytes, stats.decodedBytes));
+    }
+
+    private static String statusOf(Throwable failure) {
+        Throwable cause = failure instanceof ExecutionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof ApifyRateLimitedException) {
+            return String.valueOf(TOO_MANY_REQUESTS);
+        }
+        if (cause instanceof HttpClientResponseException responseException && responseException.getResponse() != null) {
+            return String.valueOf(responseException.getResponse().getStatus().getCode());
+        }
+        return "error";
+    }
+
+    /**
+     * Content encoding of a response in lower case, {@code null} when the body is not encoded
+     */
+    private static String contentEncoding(HttpResponse<?> response) {
+        if (response.getHeaders() == null) {
+            return null;
+        }
+        return response.getHeaders().firstValue("Content-Encoding")
+            .map(value -> value.trim().toLowerCase(Locale.ROOT))
+            .filter(value -> !value.isEmpty() && !value.equals("identity"))
+            .orElse(null);
+    }
+
+    private static long contentLength(HttpResponse<?> response) {
+        if (response.getHeaders() == null) {
+            return -1;
+        }
+        return response.getHeaders().firstValueAsLong("Content-Length").orElse(-1);
+    }
+
+    /**
+     * Returns the delay requested by Apify when the failure is a 429 response, falling back to exponential backoff
+     */
+    private static Optional<Duration> rateLimitedRetryAfter(Throwable failure, int attempt) {
+        Throwable cause = failure instanceof ExecutionException && failure.getCause() != null ? failure.getCause() : failure;
+        Duration fallback = RATE_LIMITED_BASE_DELAY.multipliedBy(1L << Math.min(attempt - 1, 6));
+
+        if (cause instanceof ApifyRateLimitedException rateLimitedException) {
+            return Optional.of(rateLimitedException.getRetryAfter().orElse(fallback));
+        }
+
+        if (cause instanceof HttpClientResponseException responseException
+            && responseException.getResponse() != null
+            && responseException.getResponse().getStatus().getCode() == TOO_MANY_REQUESTS) {
+            return Optional.of(parseRetryAfter(responseException.getResponse()).orElse(fallback));
+        }
+
+        return Optional.empty();
+    }
+
+    private static Optional<Duration> parseRetryAfter(HttpResponse<?> response) {
+        if (response.getHeaders() == null) {
+            return Optional.empty();
+        }
+
+        return response.getHeaders().firstValue("Retry-After").flatMap(value ->
+        {
+            try {
+                return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+            } catch (NumberFormatException e) {
+                try {
+                    ZonedDateTime retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                    Duration delay = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+                    return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+                } catch (DateTimeParseException ignored) {
+                    return Optional.empty();
+                }
+            }
+        });
+    }
+
+    /**
+     * Leases a shared HTTP client for this connection profile and records pool hit/miss metrics
+     */
+    private ApifyHttpClientPool.Lease leaseClient(RunContext runContext) throws IllegalVariableEvaluationException {
+        ApifyHttpClientPool.Lease lease = ApifyHttpClientPool.acquire(runContext, options, ApifyConnection.getBaseUrl());
+        ApifyCallMetrics.record(runContext, metrics -> metrics.lease(lease.kind()));
+        return lease;
+    }
+
+    private static <T> Consumer<HttpResponse<InputStream>> getStreamingResponseConsumer(
+        ApifyConnection.EncodedResponseBodyHandler<T> bodyHandler,
+        boolean decode,
+        CompletableFuture<T> completableFuture,
+        CallStats stats) {
+        return (HttpResponse<InputStream> response) ->
+        {
+            stats.firstByteNanos = System.nanoTime();
+            stats.status = response.getStatus().getCode();
+            if (response.getStatus().getCode() == TOO_MANY_REQUESTS) {
+                completableFuture.completeExceptionally(new ApifyRateLimitedException(parseRetryAfter(response).orElse(null)));
+                return;
+            }
+            if (response.getStatus().getCode() != 200) {
+                completableFuture.completeExceptionally(new Exception("Received non-200 response from Apify API: " + response.getStatus().getCode()));
+                return;
+            }
+            CountingInputStream body = new CountingInputStream(response.getBody());
+            String contentEncoding = contentEncoding(response);
+            try {
+                if (decode && contentEncoding != null) {
+                    CountingInputStream decoded = new CountingInputStream(ApifyConnection.decoder(body, contentEncoding));
+                    try {
+                        completableFuture.complete(bodyHandler.handle(decoded, null));
+                    } finally {
+                        stats.decodedBytes = decoded.count;
+                    }
+                } else {
+                    completableFuture.complete(bodyHandler.handle(body, contentEncoding));
+                }
+            } catch (IOException e) {
+                completableFuture.completeExceptionally(new ApifyTempFileRuntimeException(e));
+            } finally {
+                stats.bytes = body.count;
+            }
+        };
+    }
+
+    /**
+     * Adds authentication and required headers to the HTTP request
+     */
+    private void addAuthorizationHeader(
+        RunContext runContext,
+        HttpRequest.HttpRequestBuilder requestBuilder) throws IllegalVariableEvaluationException {
+
+        if (
+            requestBuilder.build().getHeaders() != null
+                && requestBuilder.build().getHeaders().map().containsKey("Authorization")
+        ) {
+            return;
+        }
+
+        String apiTokenRendered = runContext.render(this.apiToken).as(String.class).orElseThrow(
+            () -> new IllegalArgumentException("Missing required apiToken field")
+        );
+
+        requestBuilder
+            .addHeader("Authorization", "Bearer " + apiTokenRendered)
+            .addHeader("Content-Type", JSON_CONTENT_TYPE);
+    }
+
+    @FunctionalInterface
+    private interface Attempt<T> {
+        T call(CallStats stats) throws Exception;
+    }
+
+    /**
+     * What one HTTP exchange reported, filled in by the call as the response arrives
+     */
+    private static final class CallStats {
+        private volatile Integer status;
+        private volatile long firstByteNanos;
+        private volatile long bytes = -1;
+        private volatile long decodedBytes = -1;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
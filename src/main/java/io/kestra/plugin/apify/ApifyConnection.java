@@ -3,26 +3,39 @@ package io.kestra.plugin.apify;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import java.util.function.Consumer;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.http.HttpRequest;
-import io.kestra.core.http.HttpResponse;
-import io.kestra.core.http.client.HttpClient;
 import io.kestra.core.http.client.configurations.HttpConfiguration;
 import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.AbstractMetricEntry;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.Task;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.apify.actor.ActorJobStatus;
+import io.kestra.plugin.apify.actor.ActorRun;
+import io.kestra.plugin.apify.actor.ActorRunApiResponseWrapper;
+import io.kestra.plugin.apify.actor.ActorRunList;
+import io.kestra.plugin.apify.actor.ActorRunListApiResponseWrapper;
+import io.kestra.plugin.apify.actor.ActorRunStats;
+import io.kestra.plugin.apify.actor.MemoryMbytes;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
@@ -45,9 +58,19 @@ import lombok.experimental.SuperBuilder;
 public abstract class ApifyConnection extends Task implements ApifyConnectionInterface {
     protected final static ObjectMapper mapper = JacksonMapper.ofJson(false);
     private static final String APIFY_API_URL = "https://api.apify.com/v2";
-    private static final String JSON_CONTENT_TYPE = "application/json; charset=UTF-8";
     protected static final String INTEGRATION_VALUE = "kestra";
     protected static final String INTEGRATION_HEADER = "x-apify-integration-platform";
+    // brotli is left out: the JDK has no decoder for it
+    protected static final String ACCEPT_ENCODING = "gzip, deflate";
+    private static final int DECODER_BUFFER_SIZE = 64 * 1024;
+    private static final long MAX_WAIT_FOR_FINISH_SECS = 60;
+    protected static final int DEFAULT_AUTO_MEMORY_SAMPLE_SIZE = 10;
+    protected static final double DEFAULT_AUTO_MEMORY_HEADROOM = 0.25;
+    protected static final Duration DEFAULT_AUTO_MEMORY_CACHE_TTL = Duration.ofHours(6);
+    private static final Set<String> ID_COLLECTIONS = Set.of(
+        "acts", "actor-tasks", "actor-runs", "actor-builds", "datasets", "key-value-stores", "records",
+        "request-queues", "requests", "webhooks", "webhook-dispatches", "schedules", "users"
+    );
 
     @NotNull
     private Property<String> apiToken;
@@ -61,77 +84,269 @@ public abstract class ApifyConnection extends Task implements ApifyConnectionInt
     }
 
     protected String addQueryParams(String basePath, Map<String, ?> queryParams) {
-        StringBuilder urlBuilder = new StringBuilder(basePath);
-        Map<String, ?> sortedQueryParams = new TreeMap<>(queryParams);
-        sortedQueryParams.forEach((key, value) ->
-        {
-            urlBuilder.append(urlBuilder.indexOf("?") == -1 ? "?" : "&");
-            urlBuilder.append(key).append("=").append(encodeValue(value.toString()));
-        });
-        return urlBuilder.toString();
+        return ApifyClient.addQueryParams(basePath, queryParams);
     }
 
     /**
      * Makes an HTTP call to the Apify API with proper error handling
      */
     public <T> T makeCall(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, Class<T> responseType) throws Exception {
-        var logger = runContext.logger();
-
-        try (HttpClient client = new HttpClient(runContext, options)) {
-            addAuthorizationHeader(runContext, requestBuilder);
-            HttpResponse<T> response = client.request(requestBuilder.build(), responseType);
-            return response.getBody();
-        } catch (IllegalVariableEvaluationException illegalVariableEvaluationException) {
-            logger.error("Error getting API key for Apify: {}", illegalVariableEvaluationException.getMessage());
-            throw illegalVariableEvaluationException;
-        } catch (Exception e) {
-            logger.error("Error making request to Apify API: {}", e.getMessage());
-            throw e;
-        }
+        return client().makeCall(runContext, requestBuilder, responseType);
+    }
+
+    /**
+     * Makes a conditional GET call, sending {@code If-None-Match} with the given entity tag so that an unchanged resource
+     * costs a bodiless 304 Not Modified response
+     */
+    public <T> ConditionalResponse<T> makeConditionalCall(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, String etag, Class<T> responseType) throws Exception {
+        return client().makeConditionalCall(runContext, requestBuilder, etag, responseType);
     }
 
     public URI makeCallAndWriteToFile(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder) throws Exception {
-        var logger = runContext.logger();
-        addAuthorizationHeader(runContext, requestBuilder);
-        CompletableFuture<URI> completableFuture = new CompletableFuture<>();
-        try (HttpClient client = new HttpClient(runContext, options)) {
-            client.request(requestBuilder.build(), getWriteHttpResponseToTempFileConsumer(runContext, completableFuture));
-        } catch (IllegalVariableEvaluationException illegalVariableEvaluationException) {
-            logger.error("Error getting API key for Apify: {}", illegalVariableEvaluationException.getMessage());
-            completableFuture.completeExceptionally(illegalVariableEvaluationException);
-        } catch (Exception e) {
-            if (e.getClass().equals(ApifyTempFileRuntimeException.class)) {
-                logger.error("Error saving Apify Response to local temp file: {}", e.getCause().getMessage());
-            } else {
-                logger.error("Error making request to Apify API: {}", e.getMessage());
+        return makeStreamingCall(
+            runContext,
+            requestBuilder,
+            body -> runContext.storage().putFile(body, UUID.randomUUID().toString())
+        );
+    }
+
+    /**
+     * Makes an HTTP call to the Apify API and hands the response body to the given handler without buffering it; the body
+     * is requested compressed and decompressed on the fly
+     */
+    public <T> T makeStreamingCall(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, ResponseBodyHandler<T> bodyHandler) throws Exception {
+        return client().makeStreamingCall(runContext, requestBuilder, true, (body, contentEncoding) -> bodyHandler.handle(body));
+    }
+
+    /**
+     * Makes an HTTP call to the Apify API requesting a compressed body, and hands the body to the given handler as received
+     * on the wire along with its content encoding, {@code null} when the server did not compress it
+     */
+    public <T> T makeEncodedStreamingCall(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, EncodedResponseBodyHandler<T> bodyHandler) throws Exception {
+        return client().makeStreamingCall(runContext, requestBuilder, false, bodyHandler);
+    }
+
+    /**
+     * Client issuing the calls of this task with its API token and HTTP client options
+     */
+    private ApifyClient client() {
+        return new ApifyClient(this.apiToken, this.options);
+    }
+
+    /**
+     * Wraps an encoded body into a streaming decoder for one of the encodings advertised in {@link #ACCEPT_ENCODING}
+     */
+    protected static InputStream decoder(InputStream body, String contentEncoding) throws IOException {
+        return switch (contentEncoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(body, DECODER_BUFFER_SIZE);
+            case "deflate" -> new InflaterInputStream(body, new Inflater(), DECODER_BUFFER_SIZE);
+            default -> throw new IOException("Unsupported content encoding " + contentEncoding);
+        };
+    }
+
+    /**
+     * Turns a request URI into an endpoint template such as {@code acts/{id}/runs}, replacing resource IDs
+     * so that metrics of the same endpoint aggregate across actors, runs and datasets
+     */
+    static String endpointTemplate(URI uri) {
+        String[] segments = pathSegments(uri);
+        StringBuilder template = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                template.append('/');
             }
-            completableFuture.completeExceptionally(e);
+            template.append(i > 0 && ID_COLLECTIONS.contains(segments[i - 1]) ? "{id}" : segments[i]);
         }
-        return completableFuture.get();
+        return template.toString();
     }
 
-    private static Consumer<HttpResponse<InputStream>> getWriteHttpResponseToTempFileConsumer(RunContext runContext, CompletableFuture<URI> completableFuture) {
-        return (HttpResponse<InputStream> response) ->
-        {
-            if (response.getStatus().getCode() != 200) {
-                completableFuture.completeExceptionally(new Exception("Received non-200 response from Apify API: " + response.getStatus().getCode()));
-                return;
+    /**
+     * The resource Apify rate-limits a call against: the collection and ID of the object it targets, for example
+     * {@code datasets/abc123} for {@code datasets/abc123/items}, or the collection alone for {@code webhooks}
+     */
+    static String resource(URI uri) {
+        String[] segments = pathSegments(uri);
+        return segments.length > 1 && ID_COLLECTIONS.contains(segments[0]) ? segments[0] + "/" + segments[1] : segments[0];
+    }
+
+    private static String[] pathSegments(URI uri) {
+        String path = Optional.ofNullable(uri.getPath()).orElse("");
+        String basePath = Optional.ofNullable(URI.create(getBaseUrl()).getPath()).orElse("");
+        if (!basePath.isEmpty() && path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
+        }
+        return path.replaceAll("^/+", "").split("/");
+    }
+
+    /**
+     * Runs a task body so that the HTTP call metrics of its run are aggregated and recorded once, when it ends
+     */
+    protected static <T> T withCallMetrics(RunContext runContext, Callable<T> body) throws Exception {
+        return ApifyClient.withCallMetrics(runContext, body);
+    }
+
+    /**
+     * Records a metric on the run context; calls may come from concurrent request threads of the same task
+     */
+    protected static void metric(RunContext runContext, AbstractMetricEntry<?> metricEntry) {
+        synchronized (runContext) {
+            runContext.metric(metricEntry);
+        }
+    }
+
+    /**
+     * Fetches a run, letting Apify hold the request open for up to {@code waitForFinishSecs} seconds until the run finishes
+     */
+    protected ActorRun getRun(RunContext runContext, String runId, int waitForFinishSecs) throws Exception {
+        return makeCall(
+            runContext,
+            buildGetRequest(addQueryParams(String.format("actor-runs/%s", runId), Map.of("waitForFinish", waitForFinishSecs))),
+            ActorRunApiResponseWrapper.class
+        ).getData();
+    }
+
+    /**
+     * Long-polls the run until it reaches a terminal status or the deadline elapses, optionally aborting it on timeout
+     */
+    protected ActorRun waitForRun(RunContext runContext, ActorRun run, Duration maxDuration, boolean abortOnTimeout) throws Exception {
+        Instant deadline = Instant.now().plus(maxDuration);
+        ActorRun current = run;
+
+        while (current.getStatus() == null || !current.getStatus().isTerminal()) {
+            Duration remaining = Duration.between(Instant.now(), deadline);
+            if (remaining.isNegative() || remaining.isZero()) {
+                if (abortOnTimeout) {
+                    runContext.logger().warn("Aborting run {} after waiting {}.", current.getId(), maxDuration);
+                    makeCall(runContext, buildPostRequest(String.format("actor-runs/%s/abort", current.getId()), Map.of()), ActorRunApiResponseWrapper.class);
+                }
+                throw new IllegalStateException(
+                    "Run " + current.getId() + " did not finish within " + maxDuration + ", last status was " + current.getStatus() + "."
+                );
             }
-            try {
-                completableFuture.complete(runContext.storage().putFile(response.getBody(), UUID.randomUUID().toString()));
-            } catch (IOException e) {
-                completableFuture.completeExceptionally(new ApifyTempFileRuntimeException(e));
+
+            ActorJobStatus previousStatus = current.getStatus();
+            int waitForFinishSecs = (int) Math.clamp(remaining.toSeconds(), 1, MAX_WAIT_FOR_FINISH_SECS);
+            current = getRun(runContext, current.getId(), waitForFinishSecs);
+            if (current.getStatus() != previousStatus) {
+                runContext.logger().info("Run {} changed status from {} to {}.", current.getId(), previousStatus, current.getStatus());
             }
+        }
+
+        return current;
+    }
+
+    /**
+     * Resolves {@link MemoryMbytes#AUTO} from the last {@code sampleSize} successful runs listed at {@code runsPath}
+     * (for example {@code acts/{id}/runs}); explicit sizes are returned as is, and an empty result lets Apify apply the
+     * actor's default memory when no run history is available
+     */
+    protected Optional<MemoryMbytes> autoSizeMemory(
+        RunContext runContext,
+        Optional<MemoryMbytes> memory,
+        String runsPath,
+        int sampleSize,
+        double headroom,
+        Duration cacheTtl) throws Exception {
+        if (memory.isEmpty() || memory.get() != MemoryMbytes.AUTO) {
+            return memory;
+        }
+
+        String key = String.join("|", getBaseUrl(), apiTokenFingerprint(runContext), runsPath, String.valueOf(sampleSize), String.valueOf(headroom));
+        Optional<ApifyMemoryAutoSizer.Decision> cached = ApifyMemoryAutoSizer.cached(key, System.nanoTime());
+        if (cached.isPresent()) {
+            runContext.logger().debug("Using cached memory size {} for {}.", cached.get().memory().map(MemoryMbytes::getValue).orElse(null), runsPath);
+            return cached.get().memory();
+        }
+
+        List<ActorRun> runs = new ArrayList<>();
+        ActorRunList recentRuns = makeCall(
+            runContext,
+            buildGetRequest(addQueryParams(runsPath, Map.of("desc", 1, "limit", sampleSize, "status", ActorJobStatus.SUCCEEDED.name()))),
+            ActorRunListApiResponseWrapper.class
+        ).getData();
+        for (ActorRun listed : Optional.ofNullable(recentRuns.getItems()).orElse(List.of())) {
+            runs.add(getRun(runContext, listed.getId(), 0));
+        }
+
+        Optional<MemoryMbytes> chosen = ApifyMemoryAutoSizer.choose(runs, headroom);
+        ApifyMemoryAutoSizer.remember(key, chosen, cacheTtl, System.nanoTime());
+        if (chosen.isEmpty()) {
+            runContext.logger().info("No memory statistics in the last successful runs of {}, using the actor default memory.", runsPath);
+        } else {
+            Duration median = ApifyMemoryAutoSizer.medianDuration(runs).orElse(Duration.ZERO);
+            runContext.logger().info(
+                "Sized memory to {} MB from {} successful run(s) of {}, about {} compute units for a median run of {}.",
+                chosen.get().getValue(), runs.size(), runsPath,
+                String.format("%.3f", chosen.get().getValue() / 1024.0 * median.toMillis() / 3_600_000.0), median
+            );
+        }
+        return chosen;
+    }
+
+    /**
+     * SHA-256 fingerprint of the rendered API token, identifying the Apify account in cache keys without exposing the token
+     */
+    protected String apiTokenFingerprint(RunContext runContext) throws IllegalVariableEvaluationException {
+        return ApifyRateLimiter.fingerprint(runContext.render(this.apiToken).as(String.class).orElse(""));
+    }
+
+    /**
+     * Records the resource statistics and cost of a finished run as metrics tagged by actor, build and status,
+     * so they can be charted per actor version; runs that are still going are returned untouched
+     */
+    protected ActorRun recordRunMetrics(RunContext runContext, ActorRun run) {
+        if (run == null || run.getStatus() == null || !run.getStatus().isTerminal()) {
+            return run;
+        }
+
+        String[] tags = {
+            "actorId", Optional.ofNullable(run.getActId()).orElse("unknown"),
+            "build", Optional.ofNullable(run.getBuildNumber()).orElse("unknown"),
+            "status", run.getStatus().name()
         };
+
+        ActorRunStats stats = run.getStats();
+        if (stats != null) {
+            if (stats.getDurationMillis() != null) {
+                metric(runContext, Timer.of("run.duration", Duration.ofMillis(stats.getDurationMillis().longValue()), tags));
+            }
+            runMetric(runContext, "run.compute.units", stats.getComputeUnits(), tags);
+            runMetric(runContext, "run.memory.max.bytes", stats.getMemMaxBytes(), tags);
+            runMetric(runContext, "run.memory.avg.bytes", stats.getMemAvgBytes(), tags);
+            runMetric(runContext, "run.cpu.avg.usage", stats.getCpuAvgUsage(), tags);
+            runMetric(runContext, "run.cpu.max.usage", stats.getCpuMaxUsage(), tags);
+            runMetric(runContext, "run.net.rx.bytes", stats.getNetRxBytes(), tags);
+            runMetric(runContext, "run.net.tx.bytes", stats.getNetTxBytes(), tags);
+            runMetric(runContext, "run.restarts", stats.getRestartCount(), tags);
+        }
+
+        run.getUsage().ifPresent(usage ->
+        {
+            runMetric(runContext, "run.usage.dataset.reads", usage.getDatasetReads().orElse(null), tags);
+            runMetric(runContext, "run.usage.dataset.writes", usage.getDatasetWrites().orElse(null), tags);
+        });
+        if (run.getUsageTotalUsd() != null) {
+            try {
+                runMetric(runContext, "run.usage.total.usd", Double.parseDouble(run.getUsageTotalUsd()), tags);
+            } catch (NumberFormatException e) {
+                runContext.logger().debug("Ignoring non-numeric usageTotalUsd '{}' of run {}.", run.getUsageTotalUsd(), run.getId());
+            }
+        }
+
+        return run;
+    }
+
+    private static void runMetric(RunContext runContext, String name, Double value, String[] tags) {
+        if (value != null) {
+            metric(runContext, Counter.of(name, value, tags));
+        }
     }
 
     /**
      * Creates a GET request builder with authentication and headers
      */
     protected HttpRequest.HttpRequestBuilder buildGetRequest(String url) {
-        return getBaseHttpRequestBuilder()
-            .uri(URI.create(getBaseUrl() + "/" + url))
-            .method("GET");
+        return ApifyClient.request("GET", url);
     }
 
     /**
@@ -140,9 +355,7 @@ public abstract class ApifyConnection extends Task implements ApifyConnectionInt
     protected HttpRequest.HttpRequestBuilder buildPostRequest(String url, Object body) throws Exception {
         String jsonBody = mapper.writeValueAsString(body);
 
-        return getBaseHttpRequestBuilder()
-            .uri(URI.create(getBaseUrl() + "/" + url))
-            .method("POST")
+        return ApifyClient.request("POST", url)
             .body(HttpRequest.StringRequestBody.builder().content(jsonBody).build());
     }
 
@@ -152,9 +365,7 @@ public abstract class ApifyConnection extends Task implements ApifyConnectionInt
     protected HttpRequest.HttpRequestBuilder buildPatchRequest(String url, Object body) throws Exception {
         String jsonBody = mapper.writeValueAsString(body);
 
-        return getBaseHttpRequestBuilder()
-            .uri(URI.create(getBaseUrl() + "/" + url))
-            .method("PATCH")
+        return ApifyClient.request("PATCH", url)
             .body(HttpRequest.StringRequestBody.builder().content(jsonBody).build());
     }
 
@@ -162,39 +373,22 @@ public abstract class ApifyConnection extends Task implements ApifyConnectionInt
      * Creates a DELETE request builder with authentication and headers
      */
     protected HttpRequest.HttpRequestBuilder buildDeleteRequest(String url) {
-        return getBaseHttpRequestBuilder()
-            .uri(URI.create(getBaseUrl() + "/" + url))
-            .method("DELETE");
-    }
-
-    private static HttpRequest.HttpRequestBuilder getBaseHttpRequestBuilder() {
-        return HttpRequest.builder().addHeader(INTEGRATION_HEADER, INTEGRATION_VALUE);
+        return ApifyClient.request("DELETE", url);
     }
 
     /**
-     * Adds authentication and required headers to the HTTP request
+     * Body of a conditional call, absent when the server answered 304 Not Modified, with the entity tag to send next time
      */
-    private void addAuthorizationHeader(
-        RunContext runContext,
-        HttpRequest.HttpRequestBuilder requestBuilder) throws IllegalVariableEvaluationException {
-
-        if (
-            requestBuilder.build().getHeaders() != null
-                && requestBuilder.build().getHeaders().map().containsKey("Authorization")
-        ) {
-            return;
-        }
-
-        String apiTokenRendered = runContext.render(this.apiToken).as(String.class).orElseThrow(
-            () -> new IllegalArgumentException("Missing required apiToken field")
-        );
+    public record ConditionalResponse<T>(T body, String etag, boolean notModified) {
+    }
 
-        requestBuilder
-            .addHeader("Authorization", "Bearer " + apiTokenRendered)
-            .addHeader("Content-Type", JSON_CONTENT_TYPE);
+    @FunctionalInterface
+    public interface ResponseBodyHandler<T> {
+        T handle(InputStream body) throws IOException;
     }
 
-    private String encodeValue(String value) {
-        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    @FunctionalInterface
+    public interface EncodedResponseBodyHandler<T> {
+        T handle(InputStream body, String contentEncoding) throws IOException;
     }
 }
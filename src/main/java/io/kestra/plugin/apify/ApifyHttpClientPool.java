@@ -0,0 +1,275 @@
+package io.kestra.plugin.apify;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.http.client.HttpClient;
+import io.kestra.core.http.client.configurations.HttpConfiguration;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Worker-wide registry of {@link HttpClient} instances reused across the calls of an Apify task.
+ * <p>
+ * A Kestra {@link HttpClient} is bound to the {@link RunContext} it was built with: it logs requests and responses to that
+ * context and renders its configuration with it. Clients are therefore keyed by the caller's run context, compared by
+ * identity, on top of the Apify base URL and the serialized {@link HttpConfiguration}, so that the many calls of one task
+ * (polls, page ranges, retries) reuse the same connection pool (keep-alive connections, TLS sessions, resolved addresses)
+ * while no execution ever runs its calls through the context of another. Configurations containing dynamic expressions
+ * are never pooled because they may render differently per call.
+ * <p>
+ * The registry is bounded to {@link #MAX_POOL_SIZE} clients with least-recently-used eviction, and clients left idle
+ * longer than {@link #IDLE_TIMEOUT} are closed, which also releases the run context of a finished task. Idle clients are
+ * swept by a daemon thread every {@link #SWEEP_INTERVAL} while the registry holds any, so the context of the last task of a
+ * quiet worker is not kept until the next Apify call. A client evicted while still leased is closed on its last release.
+ */
+final class ApifyHttpClientPool {
+    static final int MAX_POOL_SIZE = 32;
+    // longer than the maximum backoff between dataset polls, so that a polling task keeps its connections
+    static final Duration IDLE_TIMEOUT = Duration.ofMinutes(1);
+    static final Duration SWEEP_INTERVAL = Duration.ofSeconds(30);
+
+    private static final ObjectMapper KEY_MAPPER = JacksonMapper.ofJson(false);
+    private static final Map<PoolKey, PooledClient> CLIENTS = new LinkedHashMap<>(16, 0.75f, true);
+    // guarded by CLIENTS, running only while the registry is not empty
+    private static ScheduledExecutorService sweeper;
+
+    private ApifyHttpClientPool() {
+    }
+
+    /**
+     * Leases a client for the given connection profile, creating it when absent.
+     * The returned lease must be closed once the response has been fully consumed.
+     */
+    static Lease acquire(RunContext runContext, HttpConfiguration options, String baseUrl) throws IllegalVariableEvaluationException {
+        PoolKey key = poolKey(runContext, options, baseUrl);
+        if (key == null) {
+            return new Lease(new PooledClient(new HttpClient(runContext, options), false), LeaseKind.BYPASS);
+        }
+
+        List<PooledClient> evicted = new ArrayList<>();
+        Lease lease;
+        synchronized (CLIENTS) {
+            long now = System.nanoTime();
+            evictIdle(now, evicted);
+
+            PooledClient pooled = CLIENTS.get(key);
+            LeaseKind kind = LeaseKind.HIT;
+            if (pooled == null) {
+                kind = LeaseKind.MISS;
+                if (CLIENTS.size() >= MAX_POOL_SIZE) {
+                    Iterator<PooledClient> eldest = CLIENTS.values().iterator();
+                    evicted.add(eldest.next());
+                    eldest.remove();
+                }
+                pooled = new PooledClient(new HttpClient(runContext, options), true);
+                CLIENTS.put(key, pooled);
+                startSweeper();
+            }
+
+            pooled.leases++;
+            pooled.lastUsedNanos = now;
+            lease = new Lease(pooled, kind);
+        }
+
+        evicted.forEach(PooledClient::retire);
+        return lease;
+    }
+
+    /**
+     * Closes the clients idle since before {@code now} minus {@link #IDLE_TIMEOUT}, and stops the sweeper once none is left
+     */
+    static void sweep(long now) {
+        List<PooledClient> evicted = new ArrayList<>();
+        synchronized (CLIENTS) {
+            evictIdle(now, evicted);
+            if (CLIENTS.isEmpty() && sweeper != null) {
+                sweeper.shutdown();
+                sweeper = null;
+            }
+        }
+        evicted.forEach(PooledClient::retire);
+    }
+
+    static boolean sweeping() {
+        synchronized (CLIENTS) {
+            return sweeper != null;
+        }
+    }
+
+    static int size() {
+        synchronized (CLIENTS) {
+            return CLIENTS.size();
+        }
+    }
+
+    static void clear() {
+        List<PooledClient> evicted;
+        synchronized (CLIENTS) {
+            evicted = new ArrayList<>(CLIENTS.values());
+            CLIENTS.clear();
+            if (sweeper != null) {
+                sweeper.shutdown();
+                sweeper = null;
+            }
+        }
+        evicted.forEach(PooledClient::retire);
+    }
+
+    private static void startSweeper() {
+        if (sweeper != null) {
+            return;
+        }
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "apify-http-client-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(
+            () -> sweep(System.nanoTime()),
+            SWEEP_INTERVAL.toMillis(),
+            SWEEP_INTERVAL.toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    private static void evictIdle(long now, List<PooledClient> evicted) {
+        Iterator<PooledClient> iterator = CLIENTS.values().iterator();
+        while (iterator.hasNext()) {
+            PooledClient pooled = iterator.next();
+            if (pooled.leases == 0 && now - pooled.lastUsedNanos > IDLE_TIMEOUT.toNanos()) {
+                evicted.add(pooled);
+                iterator.remove();
+            }
+        }
+    }
+
+    private static PoolKey poolKey(RunContext runContext, HttpConfiguration options, String baseUrl) {
+        String serializedOptions;
+        try {
+            serializedOptions = options == null ? "" : KEY_MAPPER.writeValueAsString(options);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+
+        if (serializedOptions.contains("{{")) {
+            return null;
+        }
+
+        return new PoolKey(runContext, baseUrl + "|" + serializedOptions);
+    }
+
+    /**
+     * A connection profile of one run context; the context is compared by identity, as the client logs to it
+     */
+    private record PoolKey(RunContext runContext, String profile) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof PoolKey key && key.runContext == runContext && key.profile.equals(profile);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(runContext) + profile.hashCode();
+        }
+    }
+
+    enum LeaseKind {
+        HIT,
+        MISS,
+        BYPASS
+    }
+
+    static final class Lease implements AutoCloseable {
+        private final PooledClient pooled;
+        private final LeaseKind kind;
+
+        private Lease(PooledClient pooled, LeaseKind kind) {
+            this.pooled = pooled;
+            this.kind = kind;
+        }
+
+        HttpClient client() {
+            return pooled.client;
+        }
+
+        LeaseKind kind() {
+            return kind;
+        }
+
+        /**
+         * Whether the leased client has been closed, once this lease and any other are released after its eviction
+         */
+        boolean closed() {
+            return pooled.closed;
+        }
+
+        @Override
+        public void close() {
+            if (!pooled.shared) {
+                pooled.closeQuietly();
+                return;
+            }
+
+            boolean closeNow;
+            synchronized (CLIENTS) {
+                pooled.leases--;
+                pooled.lastUsedNanos = System.nanoTime();
+                closeNow = pooled.retired && pooled.leases == 0;
+            }
+
+            if (closeNow) {
+                pooled.closeQuietly();
+            }
+        }
+    }
+
+    private static final class PooledClient {
+        private final HttpClient client;
+        private final boolean shared;
+        private int leases;
+        private long lastUsedNanos;
+        private boolean retired;
+        private volatile boolean closed;
+
+        private PooledClient(HttpClient client, boolean shared) {
+            this.client = client;
+            this.shared = shared;
+        }
+
+        private void retire() {
+            boolean closeNow;
+            synchronized (CLIENTS) {
+                retired = true;
+                closeNow = leases == 0;
+            }
+
+            if (closeNow) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            closed = true;
+            try {
+                client.close();
+            } catch (IOException ignored) {
+                // the connection pool is being discarded, nothing left to recover
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.kestra.plugin.apify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.kestra.plugin.apify.actor.ActorRun;
+import io.kestra.plugin.apify.actor.ActorRunStats;
+import io.kestra.plugin.apify.actor.MemoryMbytes;
+
+/**
+ * Chooses the memory of an actor run from the statistics of its recent successful runs.
+ * <p>
+ * The peak {@code memMaxBytes} of the sampled runs, increased by the requested headroom, is rounded up to the smallest
+ * power-of-two {@link MemoryMbytes} size; when a sampled run had to be restarted, one more size is added since the peak of
+ * a run killed for lack of memory understates its needs. Decisions are cached worker-wide until their TTL elapses so that
+ * repeated scheduled runs do not list the run history on every start.
+ */
+final class ApifyMemoryAutoSizer {
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+    private static final List<MemoryMbytes> SIZES = List.of(
+        MemoryMbytes.MB_128,
+        MemoryMbytes.MB_256,
+        MemoryMbytes.MB_512,
+        MemoryMbytes.MB_1024,
+        MemoryMbytes.MB_2048,
+        MemoryMbytes.MB_4096,
+        MemoryMbytes.MB_8192,
+        MemoryMbytes.MB_16384,
+        MemoryMbytes.MB_32768
+    );
+
+    private static final Map<String, Decision> DECISIONS = new ConcurrentHashMap<>();
+
+    private ApifyMemoryAutoSizer() {
+    }
+
+    static Optional<Decision> cached(String key, long nowNanos) {
+        Decision decision = DECISIONS.get(key);
+        if (decision == null || nowNanos - decision.expiresAtNanos() > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(decision);
+    }
+
+    static Decision remember(String key, Optional<MemoryMbytes> memory, Duration ttl, long nowNanos) {
+        Decision decision = new Decision(memory, nowNanos + ttl.toNanos());
+        DECISIONS.put(key, decision);
+        return decision;
+    }
+
+    static void clear() {
+        DECISIONS.clear();
+    }
+
+    /**
+     * Returns the smallest size fitting the peak memory of the runs plus {@code headroom}, or empty without any memory statistics
+     */
+    static Optional<MemoryMbytes> choose(List<ActorRun> runs, double headroom) {
+        List<ActorRunStats> stats = runs.stream()
+            .map(ActorRun::getStats)
+            .filter(Objects::nonNull)
+            .filter(runStats -> runStats.getMemMaxBytes() != null)
+            .toList();
+        if (stats.isEmpty()) {
+            return Optional.empty();
+        }
+
+        double peakMb = stats.stream().mapToDouble(ActorRunStats::getMemMaxBytes).max().orElse(0) / BYTES_PER_MB;
+        double requiredMb = peakMb * (1 + Math.max(0, headroom));
+        int index = 0;
+        while (index < SIZES.size() - 1 && SIZES.get(index).getValue() < requiredMb) {
+            index++;
+        }
+
+        boolean restarted = stats.stream().anyMatch(runStats -> runStats.getRestartCount() != null && runStats.getRestartCount() > 0);
+        if (restarted) {
+            index = Math.min(index + 1, SIZES.size() - 1);
+        }
+        return Optional.of(SIZES.get(index));
+    }
+
+    /**
+     * Median duration of the runs, used to estimate the compute units a size will consume
+     */
+    static Optional<Duration> medianDuration(List<ActorRun> runs) {
+        List<Double> durations = runs.stream()
+            .map(ActorRun::getStats)
+            .filter(Objects::nonNull)
+            .map(ActorRunStats::getDurationMillis)
+            .filter(Objects::nonNull)
+            .sorted()
+            .toList();
+        if (durations.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofMillis(durations.get(durations.size() / 2).longValue()));
+    }
+
+    record Decision(Optional<MemoryMbytes> memory, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,17 @@
+package io.kestra.plugin.apify;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public class ApifyRateLimitedException extends Exception {
+    private final Duration retryAfter;
+
+    public ApifyRateLimitedException(Duration retryAfter) {
+        super("Received 429 Too Many Requests response from Apify API");
+        this.retryAfter = retryAfter;
+    }
+
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+}
@@ -0,0 +1,114 @@
+package io.kestra.plugin.apify;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker-wide token bucket shared by every Apify call made with the same API token to the same resource, such as one
+ * dataset, one actor or one run.
+ * <p>
+ * Apify limits requests per resource, so every resource gets its own bucket starting at Apify's default per-resource limit
+ * of {@link #MAX_RATE} requests per second; calls to different resources never queue behind each other, and the much
+ * higher account-wide limit is left to the {@code 429} responses. A bucket adapts with additive increase / multiplicative
+ * decrease: every rate-limited response halves the rate and pauses the bucket for the server-provided {@code Retry-After}
+ * delay, while every successful call slowly raises it back. Concurrent tasks hitting the same resource therefore queue
+ * behind the same schedule instead of each backing off on its own. Buckets left idle at their full rate are dropped.
+ */
+final class ApifyRateLimiter {
+    static final double MAX_RATE = 30.0;
+    static final double MIN_RATE = 1.0;
+    private static final double ADDITIVE_INCREASE = 0.1;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final int SWEEP_THRESHOLD = 1024;
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final Map<String, ApifyRateLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private double rate = MAX_RATE;
+    private double tokens = MAX_RATE;
+    private long lastRefillNanos;
+
+    ApifyRateLimiter(long nowNanos) {
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * The bucket of a resource, for example {@code datasets/abc123}, for one API token
+     */
+    static ApifyRateLimiter forResource(String apiToken, String resource) {
+        long nowNanos = System.nanoTime();
+        if (LIMITERS.size() > SWEEP_THRESHOLD) {
+            LIMITERS.values().removeIf(limiter -> limiter.isIdle(nowNanos));
+        }
+        return LIMITERS.computeIfAbsent(fingerprint(apiToken) + "|" + resource, key -> new ApifyRateLimiter(nowNanos));
+    }
+
+    /**
+     * Blocks until a request may be sent and returns the time spent waiting in the queue
+     */
+    Duration acquire() throws InterruptedException {
+        long waitNanos = reserve(System.nanoTime());
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return Duration.ofNanos(waitNanos);
+    }
+
+    /**
+     * Takes one token and returns how long the caller must wait before using it
+     */
+    synchronized long reserve(long nowNanos) {
+        if (nowNanos > lastRefillNanos) {
+            tokens = Math.min(rate, tokens + (nowNanos - lastRefillNanos) * rate / NANOS_PER_SECOND);
+            lastRefillNanos = nowNanos;
+        }
+
+        tokens -= 1;
+        long pausedNanos = Math.max(0, lastRefillNanos - nowNanos);
+        long queuedNanos = tokens >= 0 ? 0 : (long) (-tokens * NANOS_PER_SECOND / rate);
+        return pausedNanos + queuedNanos;
+    }
+
+    synchronized void onSuccess() {
+        rate = Math.min(MAX_RATE, rate + ADDITIVE_INCREASE);
+    }
+
+    /**
+     * Halves the rate and stops handing out tokens until the {@code Retry-After} delay has elapsed
+     */
+    synchronized void onRateLimited(long nowNanos, Duration retryAfter) {
+        rate = Math.max(MIN_RATE, rate / 2);
+        long resumeAtNanos = nowNanos + retryAfter.toNanos();
+        if (resumeAtNanos > lastRefillNanos) {
+            lastRefillNanos = resumeAtNanos;
+            tokens = Math.min(tokens, 0);
+        }
+    }
+
+    /**
+     * True when the bucket has been refilled to its full rate and unused for a while, so that a new one would behave the same
+     */
+    synchronized boolean isIdle(long nowNanos) {
+        return rate >= MAX_RATE && nowNanos - lastRefillNanos > IDLE_NANOS;
+    }
+
+    synchronized double rate() {
+        return rate;
+    }
+
+    static String fingerprint(String apiToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(apiToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
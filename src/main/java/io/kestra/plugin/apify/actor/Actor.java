@@ -0,0 +1,38 @@
+package io.kestra.plugin.apify.actor;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties
+public class Actor {
+    @Schema(title = "Actor ID")
+    private String id;
+
+    @Schema(title = "Builds the Actor tags point to, by tag name such as `latest`")
+    private Map<String, TaggedBuild> taggedBuilds;
+
+    @Schema(title = "Options applied to runs that do not override them")
+    private DefaultRunOptions defaultRunOptions;
+
+    @Data
+    @JsonIgnoreProperties
+    public static class TaggedBuild {
+        @Schema(title = "ID of the tagged build")
+        private String buildId;
+
+        @Schema(title = "Build number of the tagged build")
+        private String buildNumber;
+    }
+
+    @Data
+    @JsonIgnoreProperties
+    public static class DefaultRunOptions {
+        @Schema(title = "Build tag or number runs use by default")
+        private String build;
+    }
+}
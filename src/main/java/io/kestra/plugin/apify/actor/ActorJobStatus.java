@@ -8,5 +8,12 @@ public enum ActorJobStatus {
     TIMING_OUT,
     TIMED_OUT,
     ABORTING,
-    ABORTED
+    ABORTED;
+
+    /**
+     * Whether the run has finished and its status, datasets and stats will not change anymore
+     */
+    public boolean isTerminal() {
+        return this == SUCCEEDED || this == FAILED || this == TIMED_OUT || this == ABORTED;
+    }
 }
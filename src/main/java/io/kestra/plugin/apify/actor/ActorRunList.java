@@ -0,0 +1,30 @@
+package io.kestra.plugin.apify.actor;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties
+public class ActorRunList {
+    @Schema(title = "Total number of runs")
+    private Long total;
+
+    @Schema(title = "Offset of the first run of the page")
+    private Long offset;
+
+    @Schema(title = "Maximum number of runs of the page")
+    private Long limit;
+
+    @Schema(title = "Number of runs in the page")
+    private Long count;
+
+    @Schema(title = "Whether the runs are sorted by descending start time")
+    private Boolean desc;
+
+    @Schema(title = "Runs of the page")
+    private List<ActorRun> items;
+}
@@ -0,0 +1,15 @@
+package io.kestra.plugin.apify.actor;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties
+public class ActorRunListApiResponseWrapper {
+    private ActorRunList data;
+}
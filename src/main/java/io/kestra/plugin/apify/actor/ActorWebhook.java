@@ -0,0 +1,39 @@
+package io.kestra.plugin.apify.actor;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import io.kestra.core.models.tasks.Output;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties
+public class ActorWebhook implements Output {
+    @Schema(title = "Webhook ID")
+    private String id;
+
+    @Schema(title = "Time the webhook was created")
+    private String createdAt;
+
+    @Schema(title = "Time the webhook was last modified")
+    private String modifiedAt;
+
+    @Schema(title = "Event types that dispatch the webhook")
+    private List<String> eventTypes;
+
+    @Schema(title = "Actor or actor task the webhook is attached to")
+    private Map<String, String> condition;
+
+    @Schema(title = "URL the webhook posts to")
+    private String requestUrl;
+
+    @Schema(title = "Key making the webhook creation idempotent")
+    private String idempotencyKey;
+
+    @Schema(title = "Webhook description")
+    private String description;
+}
@@ -0,0 +1,198 @@
+package io.kestra.plugin.apify.actor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.apify.ApifyConnection;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Register an Apify webhook for actor run events",
+    description = """
+        Creates a persistent Apify webhook that posts to `requestUrl` whenever a run of the given actor or actor task emits one of
+        the selected events. Pointed at the URL of a Kestra `io.kestra.plugin.core.trigger.Webhook` trigger, it starts a flow as soon as
+        a run finishes, without polling Apify. With the default payload template, the run is available as `trigger.body.resource`
+        and matches the `ActorRun` output of `actor.Run`.
+        The creation is idempotent: a webhook with the same actor, URL and events is only created once, so the task can run on every deployment.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Register a webhook that starts a flow whenever a run of an actor finishes.",
+            full = true,
+            code = """
+                id: register_apify_webhook
+                namespace: company.team
+
+                tasks:
+                  - id: create_webhook
+                    type: io.kestra.plugin.apify.actor.CreateWebhook
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    actorId: GdWCkxBtKWOsKjdch
+                    requestUrl: "{{ kestra.url }}api/v1/main/executions/webhook/company.team/on_actor_run_finished/{{ secret('APIFY_WEBHOOK_KEY') }}"
+                    eventTypes:
+                      - ACTOR_RUN_SUCCEEDED
+                      - ACTOR_RUN_FAILED
+                """
+        ),
+        @Example(
+            title = "Fetch the dataset of the run that posted the webhook.",
+            full = true,
+            code = """
+                id: on_actor_run_finished
+                namespace: company.team
+
+                tasks:
+                  - id: get_dataset
+                    type: io.kestra.plugin.apify.dataset.Get
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    datasetId: "{{ trigger.body.resource.defaultDatasetId }}"
+                    store: true
+
+                triggers:
+                  - id: apify
+                    type: io.kestra.plugin.core.trigger.Webhook
+                    key: "{{ secret('APIFY_WEBHOOK_KEY') }}"
+                    conditions:
+                      - type: io.kestra.plugin.core.condition.Expression
+                        expression: "{{ trigger.body.eventType == 'ACTOR.RUN.SUCCEEDED' }}"
+                """
+        )
+    }
+)
+public class CreateWebhook extends ApifyConnection implements RunnableTask<ActorWebhook> {
+    @Schema(
+        title = "Actor ID",
+        description = "Apify actor whose runs dispatch the webhook; set either `actorId` or `actorTaskId`."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> actorId;
+
+    @Schema(
+        title = "Actor task ID",
+        description = "Apify actor task whose runs dispatch the webhook; set either `actorId` or `actorTaskId`."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> actorTaskId;
+
+    @Schema(
+        title = "Request URL",
+        description = "URL the webhook posts to, typically the URL of a Kestra Webhook trigger."
+    )
+    @NotNull
+    @PluginProperty(group = "main", secret = true)
+    private Property<String> requestUrl;
+
+    @Schema(
+        title = "Event types",
+        description = "Run events that dispatch the webhook; defaults to every terminal run event."
+    )
+    @Builder.Default
+    @PluginProperty(group = "main")
+    private Property<List<WebhookEventType>> eventTypes = Property.ofValue(List.of(
+        WebhookEventType.ACTOR_RUN_SUCCEEDED,
+        WebhookEventType.ACTOR_RUN_FAILED,
+        WebhookEventType.ACTOR_RUN_TIMED_OUT,
+        WebhookEventType.ACTOR_RUN_ABORTED
+    ));
+
+    @Schema(
+        title = "Payload template",
+        description = "Apify payload template of the posted body; Apify's default template, carrying the run as `resource`, when unset."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> payloadTemplate;
+
+    @Schema(
+        title = "Headers template",
+        description = "Apify template of additional headers sent with the webhook request, for example a shared secret."
+    )
+    @PluginProperty(group = "advanced", secret = true)
+    private Property<String> headersTemplate;
+
+    @Schema(
+        title = "Idempotency key",
+        description = "Key making the creation idempotent; derived from the actor, request URL and event types when unset."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> idempotencyKey;
+
+    @Schema(
+        title = "Description",
+        description = "Description shown in the Apify console."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> description;
+
+    @Override
+    public ActorWebhook run(RunContext runContext) throws Exception {
+        return withCallMetrics(runContext, () -> execute(runContext));
+    }
+
+    private ActorWebhook execute(RunContext runContext) throws Exception {
+        String rActorId = runContext.render(this.actorId).as(String.class).orElse(null);
+        String rActorTaskId = runContext.render(this.actorTaskId).as(String.class).orElse(null);
+        if ((rActorId == null) == (rActorTaskId == null)) {
+            throw new IllegalArgumentException("Exactly one of actorId or actorTaskId is required");
+        }
+        String rRequestUrl = runContext.render(this.requestUrl).as(String.class).orElseThrow(
+            () -> new IllegalArgumentException("requestUrl is required")
+        );
+        List<String> rEventTypes = runContext.render(this.eventTypes).asList(WebhookEventType.class).stream()
+            .map(WebhookEventType::getValue)
+            .toList();
+        if (rEventTypes.isEmpty()) {
+            throw new IllegalArgumentException("At least one event type is required");
+        }
+
+        Map<String, String> condition = rActorId != null ? Map.of("actorId", rActorId) : Map.of("actorTaskId", rActorTaskId);
+        String rIdempotencyKey = runContext.render(this.idempotencyKey).as(String.class).orElse(
+            defaultIdempotencyKey(condition, rRequestUrl, rEventTypes)
+        );
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("isAdHoc", false);
+        body.put("eventTypes", rEventTypes);
+        body.put("condition", condition);
+        body.put("requestUrl", rRequestUrl);
+        body.put("idempotencyKey", rIdempotencyKey);
+        runContext.render(this.payloadTemplate).as(String.class).ifPresent(template -> body.put("payloadTemplate", template));
+        runContext.render(this.headersTemplate).as(String.class).ifPresent(template -> body.put("headersTemplate", template));
+        runContext.render(this.description).as(String.class).ifPresent(text -> body.put("description", text));
+
+        ActorWebhook webhook = makeCall(runContext, buildPostRequest("webhooks", body), ActorWebhookApiResponseWrapper.class).getData();
+        runContext.logger().info("Apify webhook {} posts {} events to the configured request URL.", webhook.getId(), rEventTypes);
+        return webhook;
+    }
+
+    private static String defaultIdempotencyKey(Map<String, String> condition, String requestUrl, List<String> eventTypes) throws Exception {
+        String source = condition + "|" + requestUrl + "|" + String.join(",", eventTypes);
+        return "kestra-" + HexFormat.of().formatHex(
+            MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+}
@@ -1,5 +1,6 @@
 package io.kestra.plugin.apify.actor;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 
 public enum MemoryMbytes {
@@ -11,7 +12,11 @@ public enum MemoryMbytes {
     MB_4096(4096),
     MB_8192(8192),
     MB_16384(16384),
-    MB_32768(32768);
+    MB_32768(32768),
+    /**
+     * Sized from the peak memory of recent successful runs, see {@code ApifyConnection#autoSizeMemory}
+     */
+    AUTO(0);
 
     private final int value;
 
@@ -23,4 +28,18 @@ public enum MemoryMbytes {
     public int getValue() {
         return value;
     }
+
+    /**
+     * Accepts both the constant name, such as {@code MB_1024} or {@code AUTO}, and the number of megabytes
+     */
+    @JsonCreator
+    public static MemoryMbytes from(Object value) {
+        String text = String.valueOf(value).trim();
+        for (MemoryMbytes memory : values()) {
+            if (memory.name().equalsIgnoreCase(text) || String.valueOf(memory.value).equals(text)) {
+                return memory;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported memory '" + text + "', expected a power of two between 128 and 32768 or AUTO");
+    }
 }
@@ -1,25 +1,44 @@
 package io.kestra.plugin.apify.actor;
 
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
 import io.kestra.plugin.apify.ApifyConnection;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -55,6 +74,46 @@ import lombok.experimental.SuperBuilder;
                        hashtags: ["fyp"]
                        resultsPerPage: 2
                 """
+        ),
+        @Example(
+            title = "Run an Apify actor and wait until it reaches a terminal status, aborting it after two hours.",
+            full = true,
+            code = """
+                 id: run_actor_and_wait
+                 namespace: company.team
+
+                 tasks:
+                   - id: run_actor
+                     type: io.kestra.plugin.apify.actor.Run
+                     actorId: GdWCkxBtKWOsKjdch
+                     apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                     wait: true
+                     maxWaitDuration: PT2H
+                     abortOnTimeout: true
+
+                   - id: get_dataset
+                     type: io.kestra.plugin.apify.dataset.Get
+                     apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                     datasetId: "{{ outputs.run_actor.defaultDatasetId }}"
+                """
+        ),
+        @Example(
+            title = "Reuse the successful run of the last 15 minutes started with the same input instead of starting a new one.",
+            full = true,
+            code = """
+                 id: run_actor_cached
+                 namespace: company.team
+
+                 tasks:
+                   - id: run_actor
+                     type: io.kestra.plugin.apify.actor.Run
+                     actorId: GdWCkxBtKWOsKjdch
+                     apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                     wait: true
+                     cacheTtl: PT15M
+                     input:
+                       hashtags: ["fyp"]
+                """
         )
     }
 )
@@ -83,11 +142,36 @@ public class Run extends ApifyConnection implements RunnableTask<ActorRun> {
 
     @Schema(
         title = "Memory (MB)",
-        description = "Memory allocation for the run; must be a power of two between 128 MB and 32768 MB."
+        description = "Memory allocation for the run; must be a power of two between 128 MB and 32768 MB. `AUTO` sizes it from the peak memory of recent successful runs, see `autoMemorySampleSize`, `autoMemoryHeadroom` and `autoMemoryCacheTtl`."
     )
     @PluginProperty(group = "execution")
     private Property<MemoryMbytes> memory;
 
+    @Schema(
+        title = "Runs sampled for AUTO memory",
+        description = "Number of recent successful runs whose peak memory sizes the run when `memory` is `AUTO`; default 10."
+    )
+    @Builder.Default
+    @Min(1)
+    @PluginProperty(group = "execution")
+    private Property<Integer> autoMemorySampleSize = Property.ofValue(DEFAULT_AUTO_MEMORY_SAMPLE_SIZE);
+
+    @Schema(
+        title = "Headroom for AUTO memory",
+        description = "Fraction added to the peak memory of the sampled runs before rounding up to a power of two when `memory` is `AUTO`; default 0.25."
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Double> autoMemoryHeadroom = Property.ofValue(DEFAULT_AUTO_MEMORY_HEADROOM);
+
+    @Schema(
+        title = "Cache TTL for AUTO memory",
+        description = "How long a memory size chosen by `AUTO` is reused before the run history is sampled again; default 6 hours."
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Duration> autoMemoryCacheTtl = Property.ofValue(DEFAULT_AUTO_MEMORY_CACHE_TTL);
+
     @Schema(
         title = "Max items",
         description = "Cap number of items returned to control pay-per-result charges."
@@ -116,6 +200,30 @@ public class Run extends ApifyConnection implements RunnableTask<ActorRun> {
     @PluginProperty(group = "execution")
     private Property<@Min(0) @Max(60) Integer> waitForFinish;
 
+    @Schema(
+        title = "Wait for terminal status",
+        description = "When true, long-poll the run with `waitForFinish=60` requests until it reaches a terminal status (SUCCEEDED, FAILED, TIMED_OUT or ABORTED) and return the final run; default false."
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Boolean> wait = Property.ofValue(false);
+
+    @Schema(
+        title = "Maximum wait duration",
+        description = "Overall deadline for `wait` mode; the task fails if the run is still going after this duration. Default 1 hour."
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Duration> maxWaitDuration = Property.ofValue(Duration.ofHours(1));
+
+    @Schema(
+        title = "Abort on timeout",
+        description = "Abort the run when `maxWaitDuration` elapses in `wait` mode; default false."
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Boolean> abortOnTimeout = Property.ofValue(false);
+
     @Schema(
         title = "Webhooks",
         description = "Base64-encoded JSON array describing webhooks for lifecycle events."
@@ -123,18 +231,60 @@ public class Run extends ApifyConnection implements RunnableTask<ActorRun> {
     @PluginProperty(group = "advanced", secret = true)
     private Property<String> webhooks;
 
+    @Schema(
+        title = "Run cache TTL",
+        description = """
+            When set, a successful run is recorded in the namespace KV store under a hash of the actor ID, build, run options and
+            canonical input, and later executions with the same key within this duration return that run instead of starting
+            a new one, reusing its `defaultDatasetId`. A build tag such as `latest`, or the actor's default build when `build` is not
+            set, is resolved to the build number it points to, so retagging a new build starts a new run. Concurrent identical
+            requests on the same worker are coalesced into a single start. Only runs returned in the SUCCEEDED status are cached, so
+            combine it with `wait: true`. Reused runs are counted in `run.cache.hits` tagged by actor and build; their `run.*` metrics
+            were recorded by the execution that started them and are not recorded again."""
+    )
+    @PluginProperty(group = "execution")
+    private Property<Duration> cacheTtl;
+
     private static final Logger log = LoggerFactory.getLogger(Run.class);
+    private static final String RUN_CACHE_KEY_PREFIX = "apify_run_cache_";
+    private static final String DEFAULT_BUILD_TAG = "latest";
+    private static final Pattern BUILD_NUMBER = Pattern.compile("\\d+(\\.\\d+)*");
+    private static final ObjectMapper CANONICAL_MAPPER = JacksonMapper.ofJson(false).copy()
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    private static final Map<String, CompletableFuture<ActorRun>> IN_FLIGHT = new ConcurrentHashMap<>();
 
     @Override
     public ActorRun run(RunContext runContext) throws Exception {
+        return withCallMetrics(runContext, () -> execute(runContext));
+    }
+
+    private ActorRun execute(RunContext runContext) throws Exception {
         String rActorId = runContext.render(this.actorId).as(String.class).orElseThrow(
             () -> new IllegalArgumentException("actorId is required")
         );
 
         Map<String, Object> rInput = runContext.render(this.input).asMap(String.class, Object.class);
+        Optional<Duration> rCacheTtl = runContext.render(this.cacheTtl).as(Duration.class);
+        if (rCacheTtl.isEmpty()) {
+            return startRun(runContext, rActorId, rInput);
+        }
+
+        String rBuild = resolvedBuild(runContext, rActorId);
+        String[] cacheTags = {"actorId", rActorId, "build", rBuild};
+        return memoized(runContext, runCacheKey(runContext, rActorId, rBuild, rInput), rCacheTtl.get(), cacheTags, () -> startRun(runContext, rActorId, rInput));
+    }
+
+    private ActorRun startRun(RunContext runContext, String rActorId, Map<String, Object> rInput) throws Exception {
         Map<String, Optional<?>> queryParams = Map.of(
             "timeout", runContext.render(this.requestTimeout).as(Double.class),
-            "memory", runContext.render(this.memory).as(MemoryMbytes.class).map(MemoryMbytes::getValue),
+            "memory", autoSizeMemory(
+                runContext,
+                runContext.render(this.memory).as(MemoryMbytes.class),
+                String.format("acts/%s/runs", rActorId),
+                runContext.render(this.autoMemorySampleSize).as(Integer.class).orElse(DEFAULT_AUTO_MEMORY_SAMPLE_SIZE),
+                runContext.render(this.autoMemoryHeadroom).as(Double.class).orElse(DEFAULT_AUTO_MEMORY_HEADROOM),
+                runContext.render(this.autoMemoryCacheTtl).as(Duration.class).orElse(DEFAULT_AUTO_MEMORY_CACHE_TTL)
+            ).map(MemoryMbytes::getValue),
             "maxItems", runContext.render(this.maxItems).as(Integer.class),
             "maxTotalChargeUsd", runContext.render(this.maxTotalChargeUsd).as(Double.class),
             "build", runContext.render(this.build).as(String.class),
@@ -156,8 +306,121 @@ public class Run extends ApifyConnection implements RunnableTask<ActorRun> {
             rInput
         );
 
-        return makeCall(
+        ActorRun run = makeCall(
             runContext, requestBuilder, ActorRunApiResponseWrapper.class
         ).getData();
+
+        if (runContext.render(this.wait).as(Boolean.class).orElse(false)) {
+            run = waitForRun(
+                runContext,
+                run,
+                runContext.render(this.maxWaitDuration).as(Duration.class).orElse(Duration.ofHours(1)),
+                runContext.render(this.abortOnTimeout).as(Boolean.class).orElse(false)
+            );
+        }
+
+        return recordRunMetrics(runContext, run);
+    }
+
+    /**
+     * Returns the successful run cached under the key, or starts a new run once per worker for concurrent identical requests
+     * and caches it when it succeeds
+     */
+    private ActorRun memoized(RunContext runContext, String key, Duration ttl, String[] tags, Callable<ActorRun> start) throws Exception {
+        Optional<ActorRun> cached = cachedRun(runContext, key, tags);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        CompletableFuture<ActorRun> flight = new CompletableFuture<>();
+        CompletableFuture<ActorRun> leader = IN_FLIGHT.putIfAbsent(key, flight);
+        if (leader != null) {
+            runContext.logger().info("Joining an identical run of actor {} already being started on this worker.", runContext.render(this.actorId).as(String.class).orElse(null));
+            metric(runContext, Counter.of("run.cache.coalesced", 1, tags));
+            try {
+                return leader.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+
+        try {
+            cached = cachedRun(runContext, key, tags);
+            ActorRun run = cached.isPresent() ? cached.get() : start.call();
+            if (cached.isEmpty()) {
+                metric(runContext, Counter.of("run.cache.misses", 1, tags));
+                if (run.getStatus() == ActorJobStatus.SUCCEEDED) {
+                    runCacheStore(runContext).put(
+                        key,
+                        new KVValueAndMetadata(new KVMetadata("Apify actor run cache", ttl), run.getId())
+                    );
+                }
+            }
+            flight.complete(run);
+            return run;
+        } catch (Exception e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            IN_FLIGHT.remove(key, flight);
+        }
+    }
+
+    private Optional<ActorRun> cachedRun(RunContext runContext, String key, String[] tags) throws Exception {
+        Optional<KVValue> runId = runCacheStore(runContext).getValue(key);
+        if (runId.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ActorRun run = getRun(runContext, String.valueOf(runId.get().value()), 0);
+        if (run == null || run.getStatus() != ActorJobStatus.SUCCEEDED) {
+            return Optional.empty();
+        }
+
+        runContext.logger().info("Reusing successful run {} started with identical input.", run.getId());
+        metric(runContext, Counter.of("run.cache.hits", 1, tags));
+        return Optional.of(run);
+    }
+
+    /**
+     * Resolves the build a run would use to its build number: build numbers are returned as is, while a tag, or the actor's
+     * default build when none is set, is looked up in the builds the actor tags point to right now
+     */
+    private String resolvedBuild(RunContext runContext, String rActorId) throws Exception {
+        Optional<String> rBuild = runContext.render(this.build).as(String.class);
+        if (rBuild.isPresent() && BUILD_NUMBER.matcher(rBuild.get()).matches()) {
+            return rBuild.get();
+        }
+
+        Actor actor = makeCall(runContext, buildGetRequest(String.format("acts/%s", rActorId)), ActorApiResponseWrapper.class).getData();
+        String tag = rBuild
+            .or(() -> Optional.ofNullable(actor.getDefaultRunOptions()).map(Actor.DefaultRunOptions::getBuild))
+            .orElse(DEFAULT_BUILD_TAG);
+        return Optional.ofNullable(actor.getTaggedBuilds())
+            .map(taggedBuilds -> taggedBuilds.get(tag))
+            .map(Actor.TaggedBuild::getBuildNumber)
+            .orElse(tag);
+    }
+
+    /**
+     * Hashes the account, actor, resolved build, run options and canonical input, so only runs producing the same results share a key
+     */
+    private String runCacheKey(RunContext runContext, String rActorId, String rBuild, Map<String, Object> rInput) throws Exception {
+        Map<String, Object> identity = new TreeMap<>();
+        identity.put("account", apiTokenFingerprint(runContext));
+        identity.put("actorId", rActorId);
+        identity.put("build", rBuild);
+        identity.put("memory", runContext.render(this.memory).as(MemoryMbytes.class).map(Enum::name).orElse(""));
+        identity.put("timeout", runContext.render(this.requestTimeout).as(Double.class).orElse(null));
+        identity.put("maxItems", runContext.render(this.maxItems).as(Integer.class).orElse(null));
+        identity.put("maxTotalChargeUsd", runContext.render(this.maxTotalChargeUsd).as(Double.class).orElse(null));
+        identity.put("input", rInput);
+
+        byte[] canonical = CANONICAL_MAPPER.writeValueAsBytes(identity);
+        return RUN_CACHE_KEY_PREFIX + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+    }
+
+    protected KVStore runCacheStore(RunContext runContext) {
+        return runContext.namespaceKv(runContext.flowInfo().namespace());
     }
 }
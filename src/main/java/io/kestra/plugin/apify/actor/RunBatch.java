@@ -0,0 +1,406 @@
+package io.kestra.plugin.apify.actor;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.apify.ApifyConnection;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Start a batch of Apify actor runs",
+    description = """
+        Starts the same actor once per input, from an inline list of input maps or a line-delimited (ION or JSONL) file of inputs in
+        Kestra's internal storage, with at most `maxConcurrentRuns` runs in flight on virtual threads.
+        Inputs are read one at a time and records are written as soon as every earlier input is done, so memory stays bounded
+        for large input files. Writes one run record per input, in input order, to an ION file in internal storage; an input
+        whose run cannot be started or waited for gets a record with its `inputIndex`, a null `status` and the `error`.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Crawl a list of domains, two runs at a time.",
+            full = true,
+            code = """
+                 id: run_actor_batch
+                 namespace: company.team
+
+                 tasks:
+                   - id: crawl_domains
+                     type: io.kestra.plugin.apify.actor.RunBatch
+                     actorId: apify~website-content-crawler
+                     apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                     memory: MB_2048
+                     maxConcurrentRuns: 2
+                     inputs:
+                       - startUrls:
+                           - url: "https://kestra.io"
+                       - startUrls:
+                           - url: "https://apify.com"
+                """
+        ),
+        @Example(
+            title = "Start one run per line of a JSONL file of inputs without waiting for completion.",
+            full = true,
+            code = """
+                 id: run_actor_batch_from_file
+                 namespace: company.team
+
+                 inputs:
+                   - id: actor_inputs
+                     type: FILE
+
+                 tasks:
+                   - id: start_runs
+                     type: io.kestra.plugin.apify.actor.RunBatch
+                     actorId: GdWCkxBtKWOsKjdch
+                     apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                     from: "{{ inputs.actor_inputs }}"
+                     maxConcurrentRuns: 20
+                     wait: false
+                """
+        )
+    }
+)
+public class RunBatch extends ApifyConnection implements RunnableTask<RunBatch.Output> {
+    private static final ObjectMapper ION_MAPPER = JacksonMapper.ofIon();
+    private static final TypeReference<Map<String, Object>> INPUT_TYPE = new TypeReference<>() {
+    };
+    private static final int PENDING_RECORDS_PER_RUN = 4;
+
+    @Schema(
+        title = "Actor ID",
+        description = "Actor ID or owner~actor name to execute."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> actorId;
+
+    @Schema(
+        title = "Inputs",
+        description = "JSON payloads passed to the actor, one run per entry; set either `inputs` or `from`."
+    )
+    @PluginProperty(group = "main")
+    private Property<List<Map<String, Object>>> inputs;
+
+    @Schema(
+        title = "Inputs file",
+        description = "Internal-storage URI of a line-delimited ION or JSONL file holding one actor input per line; set either `inputs` or `from`."
+    )
+    @PluginProperty(internalStorageURI = true, group = "source")
+    private Property<String> from;
+
+    @Schema(
+        title = "Maximum concurrent runs",
+        description = """
+            Maximum number of runs in flight at once; default 5.
+            When `wait` is true a slot is held until its run finishes, so this caps the account memory used by the batch.
+            When `wait` is false it only caps concurrent start requests, since runs keep going after they are started.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<@Min(1) Integer> maxConcurrentRuns = Property.ofValue(5);
+
+    @Schema(
+        title = "Wait for terminal status",
+        description = "Wait for every run to reach a terminal status before writing its record; default true."
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Boolean> wait = Property.ofValue(true);
+
+    @Schema(
+        title = "Maximum wait duration",
+        description = "Deadline for each run in `wait` mode; a run still going after this duration is recorded as failed. Default 1 hour."
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Duration> maxWaitDuration = Property.ofValue(Duration.ofHours(1));
+
+    @Schema(
+        title = "Abort on timeout",
+        description = "Abort a run when `maxWaitDuration` elapses in `wait` mode; default false."
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Boolean> abortOnTimeout = Property.ofValue(false);
+
+    @Schema(
+        title = "Fail on error",
+        description = """
+            Stop starting runs and fail the task once a run cannot be started or waited for; default false.
+            Runs already in flight are still awaited before the task fails. When false, the failure is written as a record
+            holding the input index, a null `status` and the `error`, counted in `failed`, and the batch goes on.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Boolean> failOnError = Property.ofValue(false);
+
+    @Schema(
+        title = "Timeout (seconds)",
+        description = "Actor run timeout override in seconds; falls back to the actor's default if unset."
+    )
+    @PluginProperty(group = "execution")
+    private Property<Double> requestTimeout;
+
+    @Schema(
+        title = "Memory (MB)",
+        description = "Memory allocation for each run; must be a power of two between 128 MB and 32768 MB. `AUTO` sizes it from the peak memory of the last 10 successful runs plus 25% headroom."
+    )
+    @PluginProperty(group = "execution")
+    private Property<MemoryMbytes> memory;
+
+    @Schema(
+        title = "Max items",
+        description = "Cap number of items returned by each run to control pay-per-result charges."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Integer> maxItems;
+
+    @Schema(
+        title = "Max total charge (USD)",
+        description = "Maximum allowed cost for each run; stops charges beyond this ceiling."
+    )
+    @PluginProperty(group = "destination")
+    private Property<Double> maxTotalChargeUsd;
+
+    @Schema(
+        title = "Build",
+        description = "Build tag or number to run; defaults to the actor's configured build (typically latest)."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> build;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        return withCallMetrics(runContext, () -> execute(runContext));
+    }
+
+    private Output execute(RunContext runContext) throws Exception {
+        int rMaxConcurrentRuns = runContext.render(this.maxConcurrentRuns).as(Integer.class).orElse(5);
+        boolean rFailOnError = runContext.render(this.failOnError).as(Boolean.class).orElse(false);
+        runContext.logger().info("Starting runs with at most {} in flight.", rMaxConcurrentRuns);
+
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+        // a permit per run in flight caps the concurrent runs, and the pending queue caps the finished runs held back
+        // until every earlier input is written, so neither the inputs nor the records are ever all in memory
+        Semaphore inFlight = new Semaphore(rMaxConcurrentRuns);
+        int maxPending = rMaxConcurrentRuns * PENDING_RECORDS_PER_RUN;
+        Deque<Future<ActorRun>> pending = new ArrayDeque<>();
+
+        RecordWriter records = new RecordWriter(runContext);
+        try (
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            OutputStream output = new BufferedOutputStream(new FileOutputStream(file))
+        ) {
+            forEachInput(runContext, input ->
+            {
+                if (rFailOnError && records.firstError != null) {
+                    runContext.logger().warn("Not starting further runs after input {} failed.", records.firstErrorIndex);
+                    return false;
+                }
+
+                while (pending.size() >= maxPending) {
+                    records.write(output, pending.poll());
+                }
+                inFlight.acquire();
+                Run run = runFor(input);
+                pending.add(executor.submit(() ->
+                {
+                    try {
+                        return run.run(runContext);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+
+                while (!pending.isEmpty() && pending.peek().isDone()) {
+                    records.write(output, pending.poll());
+                }
+                return true;
+            });
+
+            while (!pending.isEmpty()) {
+                records.write(output, pending.poll());
+            }
+        }
+
+        runContext.metric(Counter.of("runs", records.count));
+        runContext.metric(Counter.of("runs.succeeded", records.succeeded));
+        runContext.metric(Counter.of("runs.failed", records.failed));
+
+        if (rFailOnError && records.firstError != null) {
+            throw records.firstError;
+        }
+
+        return new Output(runContext.storage().putFile(file), records.count, records.succeeded, records.failed);
+    }
+
+    /**
+     * Hands the inputs to the consumer one at a time, reading the {@code from} file line by line, until the consumer
+     * returns false
+     */
+    @SuppressWarnings("unchecked")
+    private void forEachInput(RunContext runContext, InputConsumer consumer) throws Exception {
+        Optional<String> rFrom = runContext.render(this.from).as(String.class);
+        if (rFrom.isPresent()) {
+            try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(runContext.storage().getFile(URI.create(rFrom.get())), StandardCharsets.UTF_8)
+            )) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    // JSON lines are valid ION text, so both formats are read one line at a time without buffering the file
+                    if (!consumer.accept(ION_MAPPER.readValue(line, INPUT_TYPE))) {
+                        return;
+                    }
+                }
+            }
+            return;
+        }
+
+        for (Map<?, ?> input : runContext.render(this.inputs).asList(Map.class)) {
+            if (!consumer.accept((Map<String, Object>) input)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Builds the single-run task for one input, sharing this task's connection and run options
+     */
+    private Run runFor(Map<String, Object> input) {
+        return Run.builder()
+            .id(this.getId())
+            .type(Run.class.getName())
+            .apiToken(this.getApiToken())
+            .options(this.getOptions())
+            .actorId(this.actorId)
+            .input(Property.ofValue(input))
+            .requestTimeout(this.requestTimeout)
+            .memory(this.memory)
+            .maxItems(this.maxItems)
+            .maxTotalChargeUsd(this.maxTotalChargeUsd)
+            .build(this.build)
+            .wait(this.wait)
+            .maxWaitDuration(this.maxWaitDuration)
+            .abortOnTimeout(this.abortOnTimeout)
+            .build();
+    }
+
+    @FunctionalInterface
+    private interface InputConsumer {
+        boolean accept(Map<String, Object> input) throws Exception;
+    }
+
+    /**
+     * Writes one record per input in input order and tallies the outcomes. A run whose start or wait failed is recorded
+     * as its input index, a null status and the error message, and counted as failed.
+     */
+    private static final class RecordWriter {
+        private final RunContext runContext;
+        private long count;
+        private long succeeded;
+        private long failed;
+        private Exception firstError;
+        private long firstErrorIndex;
+
+        private RecordWriter(RunContext runContext) {
+            this.runContext = runContext;
+        }
+
+        private void write(OutputStream output, Future<ActorRun> future) throws IOException, InterruptedException {
+            long index = count++;
+            ActorRun actorRun;
+            try {
+                actorRun = future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                runContext.logger().warn("Run for input {} failed: {}", index, cause.getMessage());
+                failed++;
+                if (firstError == null) {
+                    firstError = cause instanceof Exception exception ? exception : e;
+                    firstErrorIndex = index;
+                }
+
+                Map<String, Object> record = new LinkedHashMap<>();
+                record.put("inputIndex", index);
+                record.put("status", null);
+                record.put("error", String.valueOf(cause.getMessage()));
+                FileSerde.write(output, record);
+                return;
+            }
+
+            if (actorRun.getStatus() == ActorJobStatus.SUCCEEDED) {
+                succeeded++;
+            } else if (actorRun.getStatus() != null && actorRun.getStatus().isTerminal()) {
+                failed++;
+            }
+            FileSerde.write(output, actorRun);
+        }
+    }
+
+    public record Output(
+        @Schema(title = "URI of the ION file holding one run record per input, in input order")
+        URI uri,
+
+        @Schema(title = "Number of inputs processed")
+        Long count,
+
+        @Schema(title = "Number of runs that finished with SUCCEEDED status")
+        Long succeeded,
+
+        @Schema(title = "Number of inputs whose run finished with FAILED, TIMED_OUT or ABORTED status, or could not be started or waited for")
+        Long failed
+    ) implements io.kestra.core.models.tasks.Output {
+    }
+}
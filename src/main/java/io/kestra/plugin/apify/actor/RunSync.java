@@ -0,0 +1,174 @@
+package io.kestra.plugin.apify.actor;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.apify.dataset.AbstractDatasetQuery;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Run an Apify actor and fetch its dataset items in one call",
+    description = """
+        Starts an Apify actor through the synchronous run-sync-get-dataset-items endpoint and streams the items of its default dataset
+        into an ION file in Kestra's internal storage, in a single HTTP exchange. Apify keeps the request open for at most 300 seconds,
+        so this task suits short actors; make sure the HTTP client read timeout in `options` allows for the actor duration.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Run a short actor and store its items.",
+            full = true,
+            code = """
+                 id: run_actor_sync
+                 namespace: company.team
+
+                 tasks:
+                   - id: run_actor
+                     type: io.kestra.plugin.apify.actor.RunSync
+                     actorId: apify~website-content-crawler
+                     apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                     maxItems: 50
+                     fields:
+                       - url
+                       - title
+                     input:
+                       startUrls:
+                         - url: "https://example.com"
+                """
+        )
+    }
+)
+public class RunSync extends AbstractDatasetQuery implements RunnableTask<RunSync.Output> {
+    @Schema(
+        title = "Actor ID",
+        description = "Actor ID or owner~actor name to execute."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> actorId;
+
+    @Schema(
+        title = "Input",
+        description = "JSON payload passed to the actor; omitted when empty so the actor uses its default input."
+    )
+    @PluginProperty(group = "main")
+    private Property<Map<String, Object>> input;
+
+    @Schema(
+        title = "Timeout (seconds)",
+        description = "Actor run timeout override in seconds; falls back to the actor's default if unset."
+    )
+    @PluginProperty(group = "execution")
+    private Property<Double> requestTimeout;
+
+    @Schema(
+        title = "Memory (MB)",
+        description = "Memory allocation for the run; must be a power of two between 128 MB and 32768 MB. `AUTO` sizes it from the peak memory of the last 10 successful runs plus 25% headroom."
+    )
+    @PluginProperty(group = "execution")
+    private Property<MemoryMbytes> memory;
+
+    @Schema(
+        title = "Max items",
+        description = "Cap number of items returned to control pay-per-result charges."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Integer> maxItems;
+
+    @Schema(
+        title = "Max total charge (USD)",
+        description = "Maximum allowed cost for the run; stops charges beyond this ceiling."
+    )
+    @PluginProperty(group = "destination")
+    private Property<Double> maxTotalChargeUsd;
+
+    @Schema(
+        title = "Build",
+        description = "Build tag or number to run; defaults to the actor's configured build (typically latest)."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> build;
+
+    @Schema(
+        title = "Webhooks",
+        description = "Base64-encoded JSON array describing webhooks for lifecycle events."
+    )
+    @PluginProperty(group = "advanced", secret = true)
+    private Property<String> webhooks;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        return withCallMetrics(runContext, () -> execute(runContext));
+    }
+
+    private Output execute(RunContext runContext) throws Exception {
+        String rActorId = runContext.render(this.actorId).as(String.class).orElseThrow(
+            () -> new IllegalArgumentException("actorId is required")
+        );
+
+        Map<String, Object> rInput = runContext.render(this.input).asMap(String.class, Object.class);
+        Map<String, Optional<?>> runQueryParams = Map.of(
+            "timeout", runContext.render(this.requestTimeout).as(Double.class),
+            "memory", autoSizeMemory(
+                runContext,
+                runContext.render(this.memory).as(MemoryMbytes.class),
+                String.format("acts/%s/runs", rActorId),
+                DEFAULT_AUTO_MEMORY_SAMPLE_SIZE,
+                DEFAULT_AUTO_MEMORY_HEADROOM,
+                DEFAULT_AUTO_MEMORY_CACHE_TTL
+            ).map(MemoryMbytes::getValue),
+            "maxItems", runContext.render(this.maxItems).as(Integer.class),
+            "maxTotalChargeUsd", runContext.render(this.maxTotalChargeUsd).as(Double.class),
+            "build", runContext.render(this.build).as(String.class),
+            "webhooks", runContext.render(this.webhooks).as(String.class)
+        );
+
+        Map<String, Object> queryParams = new HashMap<>(
+            projectionQueryParams(runContext, renderOffset(runContext), renderLimit(runContext))
+        );
+        queryParams.put("format", "json");
+        runQueryParams.forEach((key, value) -> value.ifPresent(v -> queryParams.put(key, v)));
+
+        HttpRequest.HttpRequestBuilder requestBuilder = buildPostRequest(
+            addQueryParams(String.format("acts/%s/run-sync-get-dataset-items", rActorId), queryParams),
+            rInput
+        );
+
+        StoredItems items = streamItemsToIon(runContext, requestBuilder);
+        runContext.metric(Counter.of("items", items.count()));
+
+        return new Output(runContext.storage().putFile(items.path().toFile()), items.count());
+    }
+
+    public record Output(
+        @Schema(title = "URI of the ION file holding the run's dataset items in Kestra's internal storage")
+        URI uri,
+
+        @Schema(title = "Number of items fetched")
+        Long count
+    ) implements io.kestra.core.models.tasks.Output {
+    }
+}
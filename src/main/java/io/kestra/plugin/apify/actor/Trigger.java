@@ -0,0 +1,300 @@
+package io.kestra.plugin.apify.actor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import io.kestra.core.http.client.configurations.HttpConfiguration;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.AbstractTrigger;
+import io.kestra.core.models.triggers.PollingTriggerInterface;
+import io.kestra.core.models.triggers.TriggerContext;
+import io.kestra.core.models.triggers.TriggerOutput;
+import io.kestra.core.models.triggers.TriggerService;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+import io.kestra.plugin.apify.ApifyClient;
+import io.kestra.plugin.apify.ApifyConnection;
+import io.kestra.plugin.apify.ApifyConnectionInterface;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Trigger a flow when an actor run finishes",
+    description = """
+        Polls the runs of an actor, newest first, and starts one execution for all the runs that reached a terminal status since the
+        previous poll. Every run finishing within the same interval is part of that execution, oldest first, so a burst of finished
+        runs never builds up a backlog waiting for later polls. The position of the last emitted run (its `finishedAt` and ID) is kept
+        as a cursor in the namespace KV store, so no run is missed or emitted twice. The first page is requested with `If-None-Match`,
+        so idle polls are answered with a bodiless 304 Not Modified when Apify returns an ETag.
+        On its first evaluation the trigger only records the current position: runs finished before the trigger was created are not emitted.
+        The execution receives the runs as listed by Apify (ID, status, timestamps, build and default storage IDs) in the `runs`
+        trigger variable, and their number in `count`; iterate over them with a `ForEach` task.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Fetch the dataset of every successful run of an actor as soon as it finishes.",
+            full = true,
+            code = """
+                id: on_actor_run_finished
+                namespace: company.team
+
+                tasks:
+                  - id: each_run
+                    type: io.kestra.plugin.core.flow.ForEach
+                    values: "{{ trigger.runs }}"
+                    tasks:
+                      - id: get_dataset
+                        type: io.kestra.plugin.apify.dataset.Get
+                        apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                        datasetId: "{{ fromJson(taskrun.value).defaultDatasetId }}"
+                        store: true
+
+                triggers:
+                  - id: run_finished
+                    type: io.kestra.plugin.apify.actor.Trigger
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    actorId: GdWCkxBtKWOsKjdch
+                    interval: PT30S
+                    statuses:
+                      - SUCCEEDED
+                """
+        )
+    }
+)
+public class Trigger extends AbstractTrigger implements PollingTriggerInterface, TriggerOutput<Trigger.Output>, ApifyConnectionInterface {
+    private static final String CURSOR_KEY_PREFIX = "apify_actor_runs_cursor_";
+
+    @NotNull
+    private Property<String> apiToken;
+
+    @Schema(title = "HTTP client options", description = "Optional HttpConfiguration applied to every Apify call, including timeouts, retries, and proxy settings.")
+    private HttpConfiguration options;
+
+    @Schema(
+        title = "Actor ID",
+        description = "Apify actor identifier whose runs are watched."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> actorId;
+
+    @Schema(
+        title = "Statuses to emit",
+        description = "Terminal statuses that start an execution; runs finishing with another status only advance the cursor. Defaults to every terminal status."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<List<ActorJobStatus>> statuses = Property.ofValue(
+        List.of(ActorJobStatus.SUCCEEDED, ActorJobStatus.FAILED, ActorJobStatus.TIMED_OUT, ActorJobStatus.ABORTED)
+    );
+
+    @Schema(
+        title = "Runs per page",
+        description = "Number of runs requested per page while scanning back to the cursor, 1–1000."
+    )
+    @Builder.Default
+    @Min(1)
+    @Max(1000)
+    @PluginProperty(group = "advanced")
+    private Property<Integer> pageSize = Property.ofValue(100);
+
+    @Schema(
+        title = "Polling interval",
+        description = "Time between two polls of the actor runs."
+    )
+    @Builder.Default
+    private final Duration interval = Duration.ofSeconds(60);
+
+    @Override
+    public Optional<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) throws Exception {
+        return ApifyClient.withCallMetrics(conditionContext.getRunContext(), () -> poll(conditionContext, context));
+    }
+
+    private Optional<Execution> poll(ConditionContext conditionContext, TriggerContext context) throws Exception {
+        RunContext runContext = conditionContext.getRunContext();
+        String rActorId = runContext.render(this.actorId).as(String.class).orElseThrow(
+            () -> new IllegalArgumentException("actorId is required")
+        );
+        List<ActorJobStatus> rStatuses = runContext.render(this.statuses).asList(ActorJobStatus.class);
+        int rPageSize = runContext.render(this.pageSize).as(Integer.class).orElse(100);
+
+        String key = CURSOR_KEY_PREFIX + context.getFlowId() + "_" + context.getTriggerId();
+        Optional<Cursor> cursor = loadCursor(runContext, key);
+        if (cursor.isEmpty()) {
+            Instant now = Instant.now();
+            List<ActorRun> runs = Optional.ofNullable(fetchRunsPage(runContext, rActorId, 0, rPageSize, null).body().getData().getItems()).orElse(List.of());
+            Instant horizon = runs.stream()
+                .filter(run -> !isTerminal(run) && run.getStartedAt() != null)
+                .map(run -> Instant.parse(run.getStartedAt()))
+                .min(Comparator.naturalOrder())
+                .orElse(now);
+            saveCursor(runContext, key, new Cursor(now.toString(), null, horizon.toString(), null));
+            runContext.logger().info("Watching runs of actor {} finishing after {}.", rActorId, now);
+            return Optional.empty();
+        }
+
+        Scan scan = scan(runContext, rActorId, rPageSize, cursor.get());
+        if (scan == null) {
+            runContext.logger().debug("Runs of actor {} are unchanged since the last poll.", rActorId);
+            return Optional.empty();
+        }
+
+        List<ActorRun> candidates = scan.candidates();
+        Cursor current = candidates.isEmpty()
+            ? cursor.get()
+            : new Cursor(candidates.getLast().getFinishedAt(), candidates.getLast().getId(), null, null);
+        boolean resumable = scan.pages() == 1;
+        saveCursor(runContext, key, new Cursor(current.finishedAt(), current.runId(), scan.horizon().toString(), resumable ? scan.etag() : null));
+
+        List<ActorRun> emitted = candidates.stream()
+            .filter(candidate -> rStatuses.contains(candidate.getStatus()))
+            .toList();
+        if (emitted.isEmpty()) {
+            return Optional.empty();
+        }
+
+        runContext.logger().info("{} run(s) of actor {} finished since the previous poll.", emitted.size(), rActorId);
+        Output output = new Output(emitted, emitted.size());
+        return Optional.of(TriggerService.generateExecution(this, conditionContext, context, output));
+    }
+
+    /**
+     * Pages through the runs, newest first, down to the cursor horizon and collects the terminal runs finished after the cursor,
+     * oldest first; returns {@code null} when the first page is unchanged since the previous poll
+     */
+    private Scan scan(RunContext runContext, String rActorId, int rPageSize, Cursor cursor) throws Exception {
+        Instant horizon = Instant.parse(cursor.horizon());
+        List<ActorRun> candidates = new ArrayList<>();
+        Instant nextHorizon = null;
+        String etag = null;
+        int pages = 0;
+
+        for (int offset = 0; ; offset += rPageSize) {
+            ApifyConnection.ConditionalResponse<ActorRunListApiResponseWrapper> page = fetchRunsPage(
+                runContext, rActorId, offset, rPageSize, offset == 0 ? cursor.etag() : null
+            );
+            if (page.notModified()) {
+                return null;
+            }
+            if (offset == 0) {
+                etag = page.etag();
+            }
+            pages++;
+
+            List<ActorRun> runs = Optional.ofNullable(page.body().getData().getItems()).orElse(List.of());
+            boolean reachedHorizon = false;
+            for (ActorRun run : runs) {
+                Instant startedAt = run.getStartedAt() == null ? null : Instant.parse(run.getStartedAt());
+                if (startedAt != null && startedAt.isBefore(horizon)) {
+                    reachedHorizon = true;
+                    break;
+                }
+                if (startedAt != null && nextHorizon == null) {
+                    nextHorizon = startedAt;
+                }
+
+                if (isTerminal(run) && run.getFinishedAt() != null) {
+                    if (cursor.isBefore(run)) {
+                        candidates.add(run);
+                    }
+                } else if (startedAt != null && startedAt.isBefore(nextHorizon)) {
+                    nextHorizon = startedAt;
+                }
+            }
+
+            if (reachedHorizon || runs.size() < rPageSize) {
+                break;
+            }
+        }
+
+        candidates.sort(Comparator.comparing((ActorRun run) -> Instant.parse(run.getFinishedAt())).thenComparing(ActorRun::getId));
+        return new Scan(candidates, nextHorizon == null ? horizon : nextHorizon, etag, pages);
+    }
+
+    protected ApifyConnection.ConditionalResponse<ActorRunListApiResponseWrapper> fetchRunsPage(RunContext runContext, String rActorId, int offset, int limit, String etag) throws Exception {
+        return new ApifyClient(this.apiToken, this.options).makeConditionalCall(
+            runContext,
+            ApifyClient.request("GET", ApifyClient.addQueryParams(
+                String.format("acts/%s/runs", rActorId),
+                Map.of("desc", 1, "offset", offset, "limit", limit)
+            )),
+            etag,
+            ActorRunListApiResponseWrapper.class
+        );
+    }
+
+    protected KVStore cursorStore(RunContext runContext) {
+        return runContext.namespaceKv(runContext.flowInfo().namespace());
+    }
+
+    private Optional<Cursor> loadCursor(RunContext runContext, String key) throws Exception {
+        Optional<KVValue> value = cursorStore(runContext).getValue(key);
+        if (value.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(JacksonMapper.ofJson().readValue(String.valueOf(value.get().value()), Cursor.class));
+    }
+
+    private void saveCursor(RunContext runContext, String key, Cursor cursor) throws Exception {
+        cursorStore(runContext).put(
+            key,
+            new KVValueAndMetadata(new KVMetadata("Apify actor runs trigger cursor", (Duration) null), JacksonMapper.ofJson().writeValueAsString(cursor))
+        );
+    }
+
+    private static boolean isTerminal(ActorRun run) {
+        return run.getStatus() != null && run.getStatus().isTerminal();
+    }
+
+    /**
+     * Position of the last emitted run, and the start time before which every run is known to be terminal and already seen
+     */
+    record Cursor(String finishedAt, String runId, String horizon, String etag) {
+        boolean isBefore(ActorRun run) {
+            int byFinish = Instant.parse(run.getFinishedAt()).compareTo(Instant.parse(finishedAt));
+            return byFinish > 0 || (byFinish == 0 && (runId == null || run.getId().compareTo(runId) > 0));
+        }
+    }
+
+    private record Scan(List<ActorRun> candidates, Instant horizon, String etag, int pages) {
+    }
+
+    public record Output(
+        @Schema(title = "Runs that reached one of the `statuses` since the previous poll, oldest first")
+        List<ActorRun> runs,
+
+        @Schema(title = "Number of runs")
+        Integer count
+    ) implements io.kestra.core.models.tasks.Output {
+    }
+}
@@ -0,0 +1,23 @@
+package io.kestra.plugin.apify.actor;
+
+public enum WebhookEventType {
+    ACTOR_RUN_CREATED("ACTOR.RUN.CREATED"),
+    ACTOR_RUN_SUCCEEDED("ACTOR.RUN.SUCCEEDED"),
+    ACTOR_RUN_FAILED("ACTOR.RUN.FAILED"),
+    ACTOR_RUN_ABORTED("ACTOR.RUN.ABORTED"),
+    ACTOR_RUN_TIMED_OUT("ACTOR.RUN.TIMED_OUT"),
+    ACTOR_RUN_RESURRECTED("ACTOR.RUN.RESURRECTED");
+
+    private final String value;
+
+    WebhookEventType(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Event type name as used by the Apify API
+     */
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,321 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.plugin.apify.ApifyConnection;
+import io.kestra.plugin.apify.ApifySortDirection;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import io.kestra.core.models.annotations.PluginProperty;
+
+/**
+ * Base class for tasks reading dataset items, holding the projection options shared by every items endpoint
+ * (dataset items as well as the synchronous run-and-get-items endpoint).
+ */
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+public abstract class AbstractDatasetQuery extends ApifyConnection {
+    @Schema(
+        title = "Clean items",
+        description = "Skip empty records and fields prefixed with # when true; default true."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> clean = Property.ofValue(true);
+
+    @Schema(
+        title = "Offset",
+        description = "Number of leading items to skip; default 0."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> offset = Property.ofValue(0);
+
+    @Schema(
+        title = "Limit",
+        description = "Maximum items to return; defaults to 1000."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> limit = Property.ofValue(1000);
+
+    @Schema(
+        title = "Fields",
+        description = "Comma-separated fields to keep in each item; others are dropped."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<List<String>> fields;
+
+    @Schema(
+        title = "Omit",
+        description = "Comma-separated fields to remove from each item."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<List<String>> omit;
+
+    @Schema(
+        title = "Unwind fields",
+        description = "Fields to unwind in order; array elements become separate records, objects merge into parents. Unwound items ignore the sortDirection flag."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<List<String>> unwind;
+
+    @Schema(
+        title = "Flatten fields",
+        description = "Fields to flatten into dotted keys (foo.bar) instead of nested objects."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> flatten = Property.ofValue(false);
+
+    @Schema(
+        title = "Sort direction",
+        description = "Set to DESC to return newest items first; default ASC."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<ApifySortDirection> sort = Property.ofValue(ApifySortDirection.ASC);
+
+    @Schema(
+        title = "Skip empty items",
+        description = "Drop empty records when true; default true."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> skipEmpty = Property.ofValue(true);
+
+    @Schema(
+        title = "Skip failed pages",
+        description = "Skip items containing errorInfo when true; default false."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> skipFailedPages = Property.ofValue(false);
+
+    @Schema(
+        title = "View",
+        description = "Dataset view name to filter and project items per the Apify schema."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> view;
+
+    @Schema(
+        title = "Skip hidden",
+        description = "Skip fields prefixed with # when true; default false."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> skipHidden = Property.ofValue(false);
+
+    @Schema(
+        title = "Simplified output",
+        description = "Enable Apify simplified output mode; default false."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> simplified = Property.ofValue(false);
+
+    @Schema(
+        title = "Deduplicate by fields",
+        description = """
+            Drops items whose values for these fields were already seen during the execution, keeping the first occurrence.
+            Nested fields are addressed with dotted paths; items holding none of the fields are kept. Duplicates are dropped while
+            streaming, the number of dropped items being reported as the `dataset.duplicates` metric."""
+    )
+    @PluginProperty(group = "processing")
+    private Property<List<String>> dedupBy;
+
+    @Schema(
+        title = "Deduplication false-positive rate",
+        description = """
+            When set, `dedupBy` uses a Bloom filter that needs a few bits per item but wrongly drops about this fraction of unique items,
+            for example 0.001. By default the deduplication is exact, keeping keys on local disk beyond a million distinct items, in
+            32 to 64 bytes of working-directory space per distinct item."""
+    )
+    @PluginProperty(group = "processing")
+    private Property<Double> dedupFalsePositiveRate;
+
+    protected int renderOffset(RunContext runContext) throws IllegalVariableEvaluationException {
+        return runContext.render(this.offset).as(Integer.class).orElse(0);
+    }
+
+    protected int renderLimit(RunContext runContext) throws IllegalVariableEvaluationException {
+        return runContext.render(this.limit).as(Integer.class).orElse(1000);
+    }
+
+    /**
+     * Renders the projection options as items query parameters for an explicit page range
+     */
+    protected Map<String, Object> projectionQueryParams(RunContext runContext, int rOffset, int rLimit) throws IllegalVariableEvaluationException {
+        List<String> rUnwind = runContext.render(this.unwind).asList(String.class);
+        List<String> rFields = runContext.render(this.fields).asList(String.class);
+        List<String> rOmit = runContext.render(this.omit).asList(String.class);
+        Optional<String> rView = runContext.render(this.view).as(String.class);
+
+        final Map<String, Object> queryParamValues = new HashMap<>(
+            Map.of(
+                "cleanValue", runContext.render(this.clean).as(Boolean.class).orElse(true),
+                "offset", rOffset,
+                "sortDirection", runContext.render(this.sort).as(ApifySortDirection.class)
+                    .orElse(ApifySortDirection.ASC) == ApifySortDirection.DESC,
+                "flatten", runContext.render(this.flatten).as(Boolean.class).orElse(false),
+                "skipEmpty", runContext.render(this.skipEmpty).as(Boolean.class).orElse(true),
+                "limit", rLimit,
+                "simplified", runContext.render(this.simplified).as(Boolean.class).orElse(false),
+                "skipFailedPages", runContext.render(this.skipFailedPages).as(Boolean.class).orElse(false),
+                "skipHidden", runContext.render(this.skipHidden).as(Boolean.class).orElse(false)
+            )
+        );
+
+        if (!rFields.isEmpty()) {
+            queryParamValues.put("fields", String.join(",", rFields));
+        }
+
+        if (!rOmit.isEmpty()) {
+            queryParamValues.put("omit", String.join(", ", rOmit));
+        }
+
+        if (!rUnwind.isEmpty()) {
+            queryParamValues.put("unwind", String.join(", ", rUnwind));
+        }
+
+        rView.ifPresent(s -> queryParamValues.put("view", s));
+
+        return queryParamValues;
+    }
+
+    protected boolean isDeduplicated(RunContext runContext) throws IllegalVariableEvaluationException {
+        return !runContext.render(this.dedupBy).asList(String.class).isEmpty();
+    }
+
+    /**
+     * Opens the deduplicator configured by {@code dedupBy}, or {@link ItemDeduplicator#NONE} when items are kept as is
+     */
+    ItemDeduplicator openDeduplicator(RunContext runContext) throws IllegalVariableEvaluationException {
+        List<String> rDedupBy = runContext.render(this.dedupBy).asList(String.class);
+        if (rDedupBy.isEmpty()) {
+            return ItemDeduplicator.NONE;
+        }
+
+        Optional<Double> rFalsePositiveRate = runContext.render(this.dedupFalsePositiveRate).as(Double.class);
+        return rFalsePositiveRate.isPresent()
+            ? ItemDeduplicator.bloom(rDedupBy, rFalsePositiveRate.get())
+            : ItemDeduplicator.exact(runContext, rDedupBy);
+    }
+
+    /**
+     * Closes the deduplicator and reports the number of items it dropped
+     */
+    void closeDeduplicator(RunContext runContext, ItemDeduplicator deduplicator) throws IOException {
+        deduplicator.close();
+        if (deduplicator.isEnabled()) {
+            runContext.logger().info("Dropped {} duplicate items.", deduplicator.duplicates());
+            metric(runContext, Counter.of("dataset.duplicates", deduplicator.duplicates()));
+        }
+    }
+
+    /**
+     * Streams a JSON array of items item by item into a local ION file, without materializing the response
+     */
+    protected StoredItems streamItemsToIon(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder) throws Exception {
+        ItemDeduplicator deduplicator = openDeduplicator(runContext);
+        try {
+            return streamItemsToIon(runContext, requestBuilder, deduplicator);
+        } finally {
+            closeDeduplicator(runContext, deduplicator);
+        }
+    }
+
+    StoredItems streamItemsToIon(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, ItemDeduplicator deduplicator) throws Exception {
+        Path path = runContext.workingDir().createTempFile(".ion");
+        long count;
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(path))) {
+            count = streamItemsToIon(runContext, requestBuilder, output, deduplicator);
+        }
+
+        return new StoredItems(path, count);
+    }
+
+    /**
+     * Streams a JSON array of items item by item as ION rows appended to the given output, skipping the items the deduplicator
+     * has already seen, and returns the number of items written
+     */
+    long streamItemsToIon(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, OutputStream output, ItemDeduplicator deduplicator) throws Exception {
+        return streamItems(
+            runContext,
+            requestBuilder,
+            item ->
+            {
+                if (deduplicator.isDuplicate(item)) {
+                    return false;
+                }
+                FileSerde.write(output, item);
+                return true;
+            }
+        );
+    }
+
+    /**
+     * Parses a JSON array of items item by item, without materializing the response, and hands every item to the consumer;
+     * returns the number of items the consumer accepted
+     */
+    long streamItems(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, ItemConsumer consumer) throws Exception {
+        return this.makeStreamingCall(
+            runContext,
+            requestBuilder,
+            body ->
+            {
+                long accepted = 0;
+                try (JsonParser parser = mapper.createParser(body)) {
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        throw new IOException("Expected a JSON array of dataset items");
+                    }
+
+                    JsonToken token;
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (token == null) {
+                            throw new IOException("Unexpected end of dataset items stream");
+                        }
+                        if (consumer.accept(mapper.readValue(parser, Object.class))) {
+                            accepted++;
+                        }
+                    }
+                }
+                return accepted;
+            }
+        );
+    }
+
+    @FunctionalInterface
+    interface ItemConsumer {
+        /**
+         * Consumes an item and returns false when it was dropped
+         */
+        boolean accept(Object item) throws IOException;
+    }
+
+    protected record StoredItems(Path path, long count) {
+    }
+}
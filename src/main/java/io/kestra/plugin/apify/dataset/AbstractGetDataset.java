@@ -1,21 +1,48 @@
 package io.kestra.plugin.apify.dataset;
 
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.retrys.Exponential;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
 import io.kestra.core.utils.RetryUtils;
-import io.kestra.plugin.apify.ApifyConnection;
 import io.kestra.plugin.apify.ApifySortDirection;
+import io.kestra.plugin.apify.actor.ActorRun;
+import io.kestra.plugin.apify.actor.ActorRunApiResponseWrapper;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -26,7 +53,10 @@ import io.kestra.core.models.annotations.PluginProperty;
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class AbstractGetDataset extends ApifyConnection {
+public abstract class AbstractGetDataset extends AbstractDatasetQuery {
+    private static final String WATERMARK_KEY_PREFIX = "apify_dataset_watermark_";
+    private static final long DEFAULT_CACHE_MAX_BYTES = 5L * 1024 * 1024 * 1024;
+
     @Schema(
         title = "Dataset ID",
         description = "Apify dataset identifier to read items from."
@@ -36,104 +66,76 @@ public abstract class AbstractGetDataset extends ApifyConnection {
     private Property<String> datasetId;
 
     @Schema(
-        title = "Clean items",
-        description = "Skip empty records and fields prefixed with # when true; default true."
-    )
-    @Builder.Default
-    @PluginProperty(group = "advanced")
-    private Property<Boolean> clean = Property.ofValue(true);
-
-    @Schema(
-        title = "Offset",
-        description = "Number of leading items to skip; default 0."
-    )
-    @Builder.Default
-    @PluginProperty(group = "advanced")
-    private Property<Integer> offset = Property.ofValue(0);
-
-    @Schema(
-        title = "Limit",
-        description = "Maximum items to return; defaults to 1000."
-    )
-    @Builder.Default
-    @PluginProperty(group = "advanced")
-    private Property<Integer> limit = Property.ofValue(1000);
-
-    @Schema(
-        title = "Fields",
-        description = "Comma-separated fields to keep in each item; others are dropped."
-    )
-    @PluginProperty(group = "advanced")
-    private Property<List<String>> fields;
-
-    @Schema(
-        title = "Omit",
-        description = "Comma-separated fields to remove from each item."
-    )
-    @PluginProperty(group = "advanced")
-    private Property<List<String>> omit;
-
-    @Schema(
-        title = "Unwind fields",
-        description = "Fields to unwind in order; array elements become separate records, objects merge into parents. Unwound items ignore the sortDirection flag."
-    )
-    @PluginProperty(group = "advanced")
-    private Property<List<String>> unwind;
-
-    @Schema(
-        title = "Flatten fields",
-        description = "Fields to flatten into dotted keys (foo.bar) instead of nested objects."
+        title = "Parallelism",
+        description = """
+            Number of page ranges downloaded concurrently; default 1.
+            Values above 1 enable partitioned mode: the item count is read from the dataset metadata, `[offset, offset + limit)` is split into ranges of `partitionSize` items, and the ranges are fetched concurrently then stitched back in order.
+            """
     )
     @Builder.Default
-    @PluginProperty(group = "advanced")
-    private Property<Boolean> flatten = Property.ofValue(false);
+    @PluginProperty(group = "execution")
+    private Property<@Min(1) Integer> parallelism = Property.ofValue(1);
 
     @Schema(
-        title = "Sort direction",
-        description = "Set to DESC to return newest items first; default ASC."
+        title = "Partition size",
+        description = "Number of items per page range in partitioned mode; default 10000."
     )
     @Builder.Default
-    @PluginProperty(group = "advanced")
-    private Property<ApifySortDirection> sort = Property.ofValue(ApifySortDirection.ASC);
+    @PluginProperty(group = "execution")
+    private Property<@Min(1) Integer> partitionSize = Property.ofValue(10000);
 
     @Schema(
-        title = "Skip empty items",
-        description = "Drop empty records when true; default true."
+        title = "Readiness probe",
+        description = """
+            When true, polling only reads the dataset metadata (`itemCount`) and the status of the Actor run that produces the dataset;
+            items are downloaded once, as soon as they exist beyond `offset` or the run has reached a terminal status, so an empty
+            dataset of a finished run returns no items instead of waiting for the timeout.
+            When false, the full items query is re-issued on every polling attempt until it returns data. Default false.
+            """
     )
     @Builder.Default
     @PluginProperty(group = "advanced")
-    private Property<Boolean> skipEmpty = Property.ofValue(true);
+    private Property<Boolean> readinessProbe = Property.ofValue(false);
 
     @Schema(
-        title = "Skip failed pages",
-        description = "Skip items containing errorInfo when true; default false."
+        title = "Incremental",
+        description = """
+            When true, only items beyond the watermark persisted by the previous execution are fetched, and the new watermark is saved
+            in the namespace KV store under `watermarkKey`. The first execution starts at `offset`. The task does not wait for data:
+            it returns no items when nothing was added since the last execution. Not supported with `sort: DESC`. Default false.
+            """
     )
     @Builder.Default
     @PluginProperty(group = "advanced")
-    private Property<Boolean> skipFailedPages = Property.ofValue(false);
+    private Property<Boolean> incremental = Property.ofValue(false);
 
     @Schema(
-        title = "View",
-        description = "Dataset view name to filter and project items per the Apify schema."
+        title = "Watermark key",
+        description = "KV store key holding the incremental watermark; defaults to a key derived from `datasetId` and the projection options."
     )
     @PluginProperty(group = "advanced")
-    private Property<String> view;
+    private Property<String> watermarkKey;
 
     @Schema(
-        title = "Skip hidden",
-        description = "Skip fields prefixed with # when true; default false."
+        title = "Cache",
+        description = """
+            When true, stored downloads are kept in a disk cache local to the worker and shared across executions, keyed by the
+            query and the `modifiedAt` and `itemCount` of the dataset. A later download of the unchanged dataset with the same options
+            is copied from the cache into internal storage without being fetched again. Applies to `dataset.Get` with `store: true`
+            outside incremental mode, and to unsharded `dataset.Save` exports. Default false.
+            """
     )
     @Builder.Default
     @PluginProperty(group = "advanced")
-    private Property<Boolean> skipHidden = Property.ofValue(false);
+    private Property<Boolean> cache = Property.ofValue(false);
 
     @Schema(
-        title = "Simplified output",
-        description = "Enable Apify simplified output mode; default false."
+        title = "Cache size bound (bytes)",
+        description = "Size the worker cache is trimmed to, least recently used entries first, after this task stores into it; default 5 GiB."
     )
     @Builder.Default
     @PluginProperty(group = "advanced")
-    private Property<Boolean> simplified = Property.ofValue(false);
+    private Property<@Min(1) Long> cacheMaxBytes = Property.ofValue(DEFAULT_CACHE_MAX_BYTES);
 
     @Schema(title = "Maximum time to wait for dataset items before timing out")
     @Builder.Default
@@ -144,46 +146,272 @@ public abstract class AbstractGetDataset extends ApifyConnection {
     protected Duration DEFAULT_MAX_INTERVAL_DURATION = Duration.ofSeconds(32);
 
     public String buildURL(RunContext runContext) throws IllegalVariableEvaluationException {
-        String rDatasetId = runContext.render(this.datasetId).as(String.class).orElseThrow(
+        return buildURL(runContext, renderOffset(runContext), renderLimit(runContext));
+    }
+
+    /**
+     * Builds the items URL for an explicit page range, keeping every other projection option of the task
+     */
+    protected String buildURL(RunContext runContext, int rOffset, int rLimit) throws IllegalVariableEvaluationException {
+        String rDatasetId = renderDatasetId(runContext);
+
+        Map<String, Object> queryParamValues = projectionQueryParams(runContext, rOffset, rLimit);
+
+        String basePath = String.format("/datasets/%s/items", rDatasetId);
+        return addQueryParams(basePath, queryParamValues);
+    }
+
+    protected String renderDatasetId(RunContext runContext) throws IllegalVariableEvaluationException {
+        return runContext.render(this.datasetId).as(String.class).orElseThrow(
             () -> new IllegalArgumentException("datasetId is required")
         );
+    }
+
+    /**
+     * Fetches the dataset metadata, including its current item count
+     */
+    protected Dataset fetchDataset(RunContext runContext) throws Exception {
+        return makeCall(
+            runContext,
+            buildGetRequest(String.format("datasets/%s", renderDatasetId(runContext))),
+            DatasetApiResponseWrapper.class
+        ).getData();
+    }
+
+    /**
+     * Downloads once the dataset is ready when the readiness probe is enabled,
+     * otherwise re-issues the download until the predicate accepts its result
+     */
+    protected <T> T fetchWhenReady(
+        RunContext runContext,
+        Predicate<T> retryIfPredicate,
+        RetryUtils.CheckedSupplier<T> download) throws Exception {
+        if (runContext.render(this.readinessProbe).as(Boolean.class).orElse(false)) {
+            awaitDatasetReady(runContext);
+            return download.get();
+        }
 
-        List<String> rUnwind = runContext.render(this.unwind).asList(String.class);
-        List<String> rFields = runContext.render(this.fields).asList(String.class);
-        List<String> rOmit = runContext.render(this.omit).asList(String.class);
-        Optional<String> rView = runContext.render(this.view).as(String.class);
-
-        final Map<String, Object> queryParamValues = new HashMap<>(
-            Map.of(
-                "cleanValue", runContext.render(this.clean).as(Boolean.class).orElse(true),
-                "offset", runContext.render(this.offset).as(Integer.class).orElse(0),
-                "sortDirection", runContext.render(this.sort).as(ApifySortDirection.class)
-                    .orElse(ApifySortDirection.ASC) == ApifySortDirection.DESC,
-                "flatten", runContext.render(this.flatten).as(Boolean.class).orElse(false),
-                "skipEmpty", runContext.render(this.skipEmpty).as(Boolean.class).orElse(true),
-                "limit", runContext.render(this.limit).as(Integer.class).orElse(1000),
-                "simplified", runContext.render(this.simplified).as(Boolean.class).orElse(false),
-                "skipFailedPages", runContext.render(this.skipFailedPages).as(Boolean.class).orElse(false),
-                "skipHidden", runContext.render(this.skipHidden).as(Boolean.class).orElse(false)
-            )
+        return withRetry(runContext, retryIfPredicate, download);
+    }
+
+    /**
+     * Polls the dataset metadata until items exist beyond the offset or the run producing the dataset has finished
+     */
+    protected Dataset awaitDatasetReady(RunContext runContext) throws Exception {
+        int rOffset = renderOffset(runContext);
+
+        return withRetry(
+            runContext,
+            (DatasetReadiness readiness) -> !readiness.ready(),
+            () ->
+            {
+                Dataset dataset = fetchDataset(runContext);
+                boolean hasItems = dataset.getItemCount() != null && dataset.getItemCount() > rOffset;
+                return new DatasetReadiness(dataset, hasItems || isProducingRunFinished(runContext, dataset));
+            }
+        ).dataset();
+    }
+
+    private boolean isProducingRunFinished(RunContext runContext, Dataset dataset) throws Exception {
+        if (dataset.getActRunId() == null) {
+            return false;
+        }
+
+        ActorRun run = makeCall(
+            runContext,
+            buildGetRequest(String.format("actor-runs/%s", dataset.getActRunId())),
+            ActorRunApiResponseWrapper.class
+        ).getData();
+        return run != null && run.getStatus() != null && run.getStatus().isTerminal();
+    }
+
+    /**
+     * Serves a stored download from the worker cache when the dataset is unchanged since it was cached, otherwise runs the
+     * download and caches its file. {@code variant} tells apart downloads of the same URL that store different content.
+     */
+    protected CachedDownload cachedDownload(RunContext runContext, String variant, RetryUtils.CheckedSupplier<CachedDownload> download) throws Exception {
+        if (!runContext.render(this.cache).as(Boolean.class).orElse(false)) {
+            return download.get();
+        }
+
+        Dataset dataset = fetchDataset(runContext);
+        if (dataset.getItemCount() == null || dataset.getItemCount() == 0 || dataset.getModifiedAt() == null) {
+            // an empty dataset may still be filling up, the download waits for its items
+            return download.get();
+        }
+
+        String key = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(
+            String.join("|", buildURL(runContext), variant, dataset.getModifiedAt(), String.valueOf(dataset.getItemCount()))
+                .getBytes(StandardCharsets.UTF_8)
+        ));
+        DatasetCache cache = DatasetCache.worker();
+
+        Optional<DatasetCache.Hit> cached = cache.lookup(key);
+        if (cached.isPresent()) {
+            try (DatasetCache.Hit hit = cached.get()) {
+                URI uri = runContext.storage().putFile(hit.body(), UUID.randomUUID() + hit.extension());
+                runContext.logger().info("Served dataset {} from the worker cache ({} bytes).", dataset.getId(), hit.bytes());
+                metric(runContext, Counter.of("dataset.cache.hits", 1));
+                metric(runContext, Counter.of("dataset.cache.bytes.served", hit.bytes()));
+                return new CachedDownload(uri, hit.count());
+            }
+        }
+
+        metric(runContext, Counter.of("dataset.cache.misses", 1));
+        CachedDownload downloaded = download.get();
+        if (downloaded.uri() != null) {
+            String fileName = Path.of(downloaded.uri().getPath()).getFileName().toString();
+            String extension = fileName.contains(".") ? fileName.substring(fileName.indexOf('.')) : "";
+            long rCacheMaxBytes = runContext.render(this.cacheMaxBytes).as(Long.class).orElse(DEFAULT_CACHE_MAX_BYTES);
+            try (InputStream stored = runContext.storage().getFile(downloaded.uri())) {
+                cache.store(key, stored, downloaded.count(), extension, rCacheMaxBytes);
+            } catch (IOException e) {
+                // the download itself succeeded, a full or read-only cache directory only costs the next download
+                runContext.logger().warn("Dataset {} could not be cached: {}", dataset.getId(), e.getMessage());
+            }
+        }
+        return downloaded;
+    }
+
+    protected boolean isIncremental(RunContext runContext) throws IllegalVariableEvaluationException {
+        return runContext.render(this.incremental).as(Boolean.class).orElse(false);
+    }
+
+    /**
+     * Reads the persisted watermark and the current item count to find the window of items added since the last execution
+     */
+    protected IncrementalWindow openIncrementalWindow(RunContext runContext) throws Exception {
+        if (runContext.render(this.getSort()).as(ApifySortDirection.class).orElse(ApifySortDirection.ASC) == ApifySortDirection.DESC) {
+            throw new IllegalArgumentException("Incremental mode requires an ascending sort, as offsets of a descending dataset shift when items are added");
+        }
+
+        String key = runContext.render(this.watermarkKey).as(String.class).orElse(null);
+        if (key == null) {
+            // offset and limit are left out so that the key only depends on the dataset and the projection
+            key = WATERMARK_KEY_PREFIX + HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(buildURL(runContext, 0, 0).getBytes(StandardCharsets.UTF_8))
+            );
+        }
+
+        Optional<KVValue> storedWatermark = watermarkStore(runContext).getValue(key);
+        long start = storedWatermark.isPresent()
+            ? Long.parseLong(String.valueOf(storedWatermark.get().value()))
+            : renderOffset(runContext);
+
+        Dataset dataset = fetchDataset(runContext);
+        long itemCount = Optional.ofNullable(dataset.getItemCount()).orElse(0L);
+        int newItems = (int) Math.max(0, Math.min(renderLimit(runContext), itemCount - start));
+        runContext.logger().info("Dataset {} holds {} items, fetching {} new items from watermark {}.", dataset.getId(), itemCount, newItems, start);
+
+        return new IncrementalWindow(key, start, newItems);
+    }
+
+    /**
+     * Persists the watermark once the window has been fully consumed
+     */
+    protected void commitWatermark(RunContext runContext, IncrementalWindow window) throws Exception {
+        watermarkStore(runContext).put(
+            window.key(),
+            new KVValueAndMetadata(new KVMetadata("Apify dataset incremental watermark", (Duration) null), window.watermark())
         );
+    }
+
+    protected KVStore watermarkStore(RunContext runContext) {
+        return runContext.namespaceKv(runContext.flowInfo().namespace());
+    }
+
+    /**
+     * Splits a window of items into page ranges of {@code partitionSize} items
+     */
+    protected List<PageRange> splitWindow(RunContext runContext, long rOffset, int count) throws IllegalVariableEvaluationException {
+        int rPartitionSize = runContext.render(this.partitionSize).as(Integer.class).orElse(10000);
+        return PageRange.split((int) rOffset, count, rPartitionSize);
+    }
+
+    protected boolean isPartitioned(RunContext runContext) throws IllegalVariableEvaluationException {
+        return runContext.render(this.parallelism).as(Integer.class).orElse(1) > 1;
+    }
+
+    /**
+     * Waits until the dataset holds items beyond the configured offset, then splits the requested window into page ranges
+     */
+    protected List<PageRange> planPartitions(RunContext runContext) throws Exception {
+        int rOffset = renderOffset(runContext);
+        int rLimit = renderLimit(runContext);
+
+        Dataset dataset = awaitDatasetReady(runContext);
+
+        long available = Math.max(0, Optional.ofNullable(dataset.getItemCount()).orElse(0L) - rOffset);
+        List<PageRange> ranges = splitWindow(runContext, rOffset, (int) Math.min(rLimit, available));
+        runContext.logger().debug("Downloading {} items of dataset {} in {} page ranges", available, dataset.getId(), ranges.size());
+        return ranges;
+    }
 
-        if (!rFields.isEmpty()) {
-            queryParamValues.put("fields", String.join(",", rFields));
+    /**
+     * Fetches every page range with at most {@code parallelism} concurrent requests and returns the results in range order
+     */
+    protected <T> List<T> fetchPartitions(RunContext runContext, List<PageRange> ranges, PartitionFetcher<T> fetcher) throws Exception {
+        if (ranges.isEmpty()) {
+            return List.of();
         }
 
-        if (!rOmit.isEmpty()) {
-            queryParamValues.put("omit", String.join(", ", rOmit));
+        int rParallelism = Math.min(runContext.render(this.parallelism).as(Integer.class).orElse(1), ranges.size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(rParallelism, Thread.ofVirtual().factory())) {
+            List<Future<T>> futures = new ArrayList<>(ranges.size());
+            for (int i = 0; i < ranges.size(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> fetcher.fetch(index, ranges.get(index))));
+            }
+
+            List<T> results = new ArrayList<>(ranges.size());
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    executor.shutdownNow();
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+            return results;
         }
+    }
 
-        if (!rUnwind.isEmpty()) {
-            queryParamValues.put("unwind", String.join(", ", rUnwind));
+    /**
+     * Concatenates line-oriented partition files in order into a single internal-storage file, deleting the parts
+     */
+    protected URI stitchParts(RunContext runContext, List<Path> parts, String extension) throws IOException {
+        return runContext.storage().putFile(concatenateParts(runContext, parts, extension).toFile());
+    }
+
+    /**
+     * Concatenates the line-delimited part files, in order, into a single local file and deletes the parts
+     */
+    protected Path concatenateParts(RunContext runContext, List<Path> parts, String extension) throws IOException {
+        Path stitched = runContext.workingDir().createTempFile(extension);
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(stitched.toFile()))) {
+            for (Path part : parts) {
+                appendLines(part, output);
+                Files.delete(part);
+            }
         }
 
-        rView.ifPresent(s -> queryParamValues.put("view", s));
+        return stitched;
+    }
 
-        String basePath = String.format("/datasets/%s/items", rDatasetId);
-        return addQueryParams(basePath, queryParamValues);
+    private static void appendLines(Path part, OutputStream output) throws IOException {
+        long size = Files.size(part);
+        if (size == 0) {
+            return;
+        }
+
+        Files.copy(part, output);
+        try (SeekableByteChannel channel = Files.newByteChannel(part)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(size - 1).read(last);
+            if (last.get(0) != '\n') {
+                output.write('\n');
+            }
+        }
     }
 
     protected <T> T withRetry(
@@ -199,16 +427,27 @@ public abstract class AbstractGetDataset extends ApifyConnection {
         Duration timeout = runContext.render(this.timeout).as(Duration.class).orElse(null);
         builder.maxDuration(timeout != null ? timeout : DEFAULT_TIMEOUT_DURATION);
 
-        return RetryUtils.<T, Exception> of(
-            builder.build(),
-            (RetryUtils.RetryFailed retryFailed) ->
+        AtomicInteger attempts = new AtomicInteger();
+        long startNanos = System.nanoTime();
+        try {
+            return RetryUtils.<T, Exception> of(
+                builder.build(),
+                (RetryUtils.RetryFailed retryFailed) ->
+                {
+                    throw new IllegalStateException(
+                        "Timeout reached before dataset was available, please try again " +
+                            "later or increase the timeout duration of the task."
+                    );
+                }
+            ).run(retryLoggerWrapper(retryIfPredicate, runContext), () ->
             {
-                throw new IllegalStateException(
-                    "Timeout reached before dataset was available, please try again " +
-                        "later or increase the timeout duration of the task."
-                );
-            }
-        ).run(retryLoggerWrapper(retryIfPredicate, runContext), run);
+                attempts.incrementAndGet();
+                return run.get();
+            });
+        } finally {
+            metric(runContext, Counter.of("dataset.poll.attempts", attempts.get()));
+            metric(runContext, Timer.of("dataset.poll.wait", Duration.ofNanos(System.nanoTime() - startNanos)));
+        }
     }
 
     private static <T> Predicate<T> retryLoggerWrapper(Predicate<T> retryIfPredicate, RunContext runContext) {
@@ -222,4 +461,40 @@ public abstract class AbstractGetDataset extends ApifyConnection {
             return retry;
         };
     }
+
+    private record DatasetReadiness(Dataset dataset, boolean ready) {
+    }
+
+    /**
+     * The {@code limit} items following the persisted watermark {@code offset}
+     */
+    protected record IncrementalWindow(String key, long offset, int limit) {
+        public long watermark() {
+            return offset + limit;
+        }
+    }
+
+    /**
+     * A download stored in internal storage, with its item count when known
+     */
+    protected record CachedDownload(URI uri, long count) {
+    }
+
+    @FunctionalInterface
+    protected interface PartitionFetcher<T> {
+        T fetch(int index, PageRange range) throws Exception;
+    }
+
+    /**
+     * A contiguous {@code [offset, offset + limit)} window of dataset items
+     */
+    public record PageRange(int offset, int limit) {
+        public static List<PageRange> split(int offset, int count, int partitionSize) {
+            List<PageRange> ranges = new ArrayList<>();
+            for (int start = 0; start < count; start += partitionSize) {
+                ranges.add(new PageRange(offset + start, Math.min(partitionSize, count - start)));
+            }
+            return ranges;
+        }
+    }
 }
@@ -0,0 +1,299 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Aggregate Apify dataset items",
+    description = """
+        Streams the items of an Apify dataset through a single-pass aggregator and outputs one row per group instead of the items:
+        counts, sums, minimums, maximums, averages and approximate distinct counts, grouped by the values of `groupBy` fields.
+        Memory and output size grow with the number of groups, not with the size of the dataset. When every aggregation reads a field
+        and none of `fields`, `flatten` or `view` is set, only the top-level fields the aggregation reads are requested from Apify;
+        items holding none of them are then skipped.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Count the crawled pages per domain.",
+            full = true,
+            code = """
+                id: apify_aggregate_pages_per_domain
+                namespace: company.team
+
+                tasks:
+                  - id: pages_per_domain
+                    type: io.kestra.plugin.apify.dataset.Aggregate
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    datasetId: RNtYOZmecGriFjtDH
+                    limit: 10000000
+                    parallelism: 4
+                    groupBy:
+                      - domain
+                    aggregations:
+                      - function: COUNT
+                      - function: APPROX_DISTINCT
+                        field: url
+                """
+        ),
+        @Example(
+            title = "Compute price statistics per product category.",
+            full = true,
+            code = """
+                id: apify_aggregate_prices
+                namespace: company.team
+
+                tasks:
+                  - id: prices_per_category
+                    type: io.kestra.plugin.apify.dataset.Aggregate
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    datasetId: RNtYOZmecGriFjtDH
+                    limit: 500000
+                    groupBy:
+                      - category
+                    aggregations:
+                      - function: AVG
+                        field: offer.price
+                        name: averagePrice
+                      - function: MIN
+                        field: offer.price
+                      - function: MAX
+                        field: offer.price
+                """
+        )
+    }
+)
+public class Aggregate extends AbstractGetDataset implements RunnableTask<Aggregate.Output> {
+    @Schema(
+        title = "Group-by fields",
+        description = "Fields whose values make up the group of an item; nested fields are addressed with dotted paths. Without it, the whole dataset is a single group."
+    )
+    @PluginProperty(group = "processing")
+    private Property<List<String>> groupBy;
+
+    @Schema(
+        title = "Aggregations",
+        description = "Aggregations computed for every group; defaults to a single `COUNT` of the items."
+    )
+    @PluginProperty(group = "processing")
+    private Property<List<Aggregation>> aggregations;
+
+    @Schema(
+        title = "Store groups",
+        description = """
+            When true, the groups are written to a Kestra internal-storage ION file and the output holds `uri` instead of `groups`,
+            for aggregations yielding many groups. Default false.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "destination")
+    private Property<Boolean> store = Property.ofValue(false);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        return withCallMetrics(runContext, () -> execute(runContext));
+    }
+
+    private Output execute(RunContext runContext) throws Exception {
+        if (isIncremental(runContext)) {
+            throw new IllegalArgumentException("Incremental mode is not supported by dataset.Aggregate");
+        }
+        if (isDeduplicated(runContext) && isPartitioned(runContext)) {
+            throw new IllegalArgumentException("dedupBy cannot be combined with a parallelism above 1 in dataset.Aggregate");
+        }
+
+        List<String> rGroupBy = runContext.render(this.groupBy).asList(String.class);
+        List<ItemAggregator.Spec> specs = specs(runContext);
+
+        ItemAggregator aggregator;
+        if (isPartitioned(runContext)) {
+            // every range is aggregated on its own, the partial groups are then merged in range order
+            List<ItemAggregator> partials = fetchPartitions(
+                runContext,
+                planPartitions(runContext),
+                (index, range) ->
+                {
+                    ItemAggregator partial = new ItemAggregator(rGroupBy, specs);
+                    this.streamItems(runContext, this.buildGetRequest(this.buildURL(runContext, range.offset(), range.limit())), item ->
+                    {
+                        partial.add(item);
+                        return true;
+                    });
+                    return partial;
+                }
+            );
+            aggregator = new ItemAggregator(rGroupBy, specs);
+            partials.forEach(aggregator::merge);
+        } else {
+            String url = this.buildURL(runContext);
+            aggregator = fetchWhenReady(
+                runContext,
+                (ItemAggregator aggregated) -> aggregated.items() == 0,
+                () -> aggregate(runContext, url, rGroupBy, specs)
+            );
+        }
+
+        runContext.logger().info("Aggregated {} dataset items into {} groups.", aggregator.items(), aggregator.groupCount());
+        metric(runContext, Counter.of("records", aggregator.items()));
+        metric(runContext, Counter.of("groups", aggregator.groupCount()));
+
+        List<Map<String, Object>> rows = aggregator.rows();
+        if (runContext.render(this.store).as(Boolean.class).orElse(false)) {
+            Path path = runContext.workingDir().createTempFile(".ion");
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(path))) {
+                for (Map<String, Object> row : rows) {
+                    FileSerde.write(output, row);
+                }
+            }
+            return new Output(null, runContext.storage().putFile(path.toFile()), (long) rows.size(), aggregator.items());
+        }
+        return new Output(rows, null, (long) rows.size(), aggregator.items());
+    }
+
+    private ItemAggregator aggregate(RunContext runContext, String url, List<String> rGroupBy, List<ItemAggregator.Spec> specs) throws Exception {
+        ItemAggregator aggregator = new ItemAggregator(rGroupBy, specs);
+        ItemDeduplicator deduplicator = openDeduplicator(runContext);
+        try {
+            this.streamItems(runContext, this.buildGetRequest(url), item ->
+            {
+                if (deduplicator.isDuplicate(item)) {
+                    return false;
+                }
+                aggregator.add(item);
+                return true;
+            });
+        } finally {
+            closeDeduplicator(runContext, deduplicator);
+        }
+        return aggregator;
+    }
+
+    private List<ItemAggregator.Spec> specs(RunContext runContext) throws IllegalVariableEvaluationException {
+        List<Aggregation> rAggregations = runContext.render(this.aggregations).asList(Aggregation.class);
+        if (rAggregations.isEmpty()) {
+            return List.of(new ItemAggregator.Spec("count", AggregationFunction.COUNT, null));
+        }
+
+        List<ItemAggregator.Spec> specs = new ArrayList<>(rAggregations.size());
+        for (Aggregation aggregation : rAggregations) {
+            if (aggregation.getFunction() == null) {
+                throw new IllegalArgumentException("Every aggregation requires a function");
+            }
+            if (aggregation.getField() == null && aggregation.getFunction() != AggregationFunction.COUNT) {
+                throw new IllegalArgumentException("The " + aggregation.getFunction() + " aggregation requires a field");
+            }
+
+            String name = aggregation.getName();
+            if (name == null) {
+                String function = aggregation.getFunction().name().toLowerCase(Locale.ROOT);
+                name = aggregation.getField() == null ? function : function + "_" + aggregation.getField().replace('.', '_');
+            }
+            specs.add(new ItemAggregator.Spec(name, aggregation.getFunction(), aggregation.getField()));
+        }
+        return specs;
+    }
+
+    /**
+     * Requests only the top-level fields read by the aggregation when the task does not project the items itself and every
+     * aggregation reads a field
+     */
+    @Override
+    protected Map<String, Object> projectionQueryParams(RunContext runContext, int rOffset, int rLimit) throws IllegalVariableEvaluationException {
+        Map<String, Object> queryParamValues = super.projectionQueryParams(runContext, rOffset, rLimit);
+        boolean projected = !runContext.render(this.getFields()).asList(String.class).isEmpty()
+            || runContext.render(this.getFlatten()).as(Boolean.class).orElse(false)
+            || runContext.render(this.getView()).as(String.class).isPresent();
+        if (projected) {
+            return queryParamValues;
+        }
+
+        List<ItemAggregator.Spec> specs = specs(runContext);
+        if (specs.stream().anyMatch(spec -> spec.field() == null)) {
+            // items holding none of the fields would come back empty and be skipped by Apify, a count of the items must see them all
+            return queryParamValues;
+        }
+
+        Set<String> read = new LinkedHashSet<>();
+        runContext.render(this.groupBy).asList(String.class).forEach(field -> read.add(topLevel(field)));
+        runContext.render(this.getDedupBy()).asList(String.class).forEach(field -> read.add(topLevel(field)));
+        specs.forEach(spec -> read.add(topLevel(spec.field())));
+        queryParamValues.put("fields", String.join(",", read));
+        return queryParamValues;
+    }
+
+    private static String topLevel(String field) {
+        int dot = field.indexOf('.');
+        return dot < 0 ? field : field.substring(0, dot);
+    }
+
+    @Builder
+    @Getter
+    @Jacksonized
+    public static class Aggregation {
+        @Schema(title = "Aggregation function")
+        @NotNull
+        private AggregationFunction function;
+
+        @Schema(
+            title = "Field",
+            description = "Field the function applies to, with dotted paths for nested fields; required except for `COUNT`, which counts the items when unset and the items holding the field otherwise. Non-numeric values are ignored by `SUM`, `MIN`, `MAX` and `AVG`."
+        )
+        private String field;
+
+        @Schema(
+            title = "Column name",
+            description = "Name of the result in the group rows; defaults to the lower-case function followed by the field, for example `avg_offer_price`."
+        )
+        private String name;
+    }
+
+    public record Output(
+        @Schema(title = "One row per group, holding the group-by fields and the aggregation results", description = "Only set when `store` is false.")
+        List<Map<String, Object>> groups,
+
+        @Schema(title = "URI of the ION file holding the group rows in Kestra's internal storage", description = "Only set when `store` is true.")
+        URI uri,
+
+        @Schema(title = "Number of groups")
+        Long groupCount,
+
+        @Schema(title = "Number of items aggregated")
+        Long count
+    ) implements io.kestra.core.models.tasks.Output {
+    }
+}
@@ -0,0 +1,10 @@
+package io.kestra.plugin.apify.dataset;
+
+public enum AggregationFunction {
+    COUNT,
+    SUM,
+    MIN,
+    MAX,
+    AVG,
+    APPROX_DISTINCT
+}
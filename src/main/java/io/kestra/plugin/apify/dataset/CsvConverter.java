@@ -0,0 +1,129 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Converts a JSONL file of dataset items into CSV with bounded memory.
+ * <p>
+ * A first pass only collects the top-level field names, in order of first appearance, so that the header covers every
+ * item; a second pass writes one item at a time. Nested objects and arrays are written as JSON text, which matches the
+ * cells Apify renders for non-flattened fields.
+ */
+final class CsvConverter {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson(false);
+    private static final TypeReference<LinkedHashMap<String, Object>> ITEM_TYPE = new TypeReference<>() {
+    };
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private CsvConverter() {
+    }
+
+    /**
+     * Writes the items of {@code jsonl} as CSV and returns the number of rows written, header excluded
+     */
+    static long convert(Path jsonl, OutputStream output, String delimiter, boolean header, boolean bom) throws IOException {
+        List<String> columns = collectColumns(jsonl);
+
+        if (bom) {
+            output.write(UTF8_BOM);
+        }
+
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (header) {
+            writeRow(writer, new ArrayList<>(columns), delimiter);
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(jsonl, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                Map<String, Object> item = MAPPER.readValue(line, ITEM_TYPE);
+                List<Object> cells = new ArrayList<>(columns.size());
+                for (String column : columns) {
+                    cells.add(item.get(column));
+                }
+                writeRow(writer, cells, delimiter);
+                rows++;
+            }
+        }
+
+        writer.flush();
+        return rows;
+    }
+
+    private static List<String> collectColumns(Path jsonl) throws IOException {
+        Set<String> columns = new LinkedHashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(jsonl, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try (JsonParser parser = MAPPER.getFactory().createParser(line)) {
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        throw new IOException("Dataset item is not a JSON object: " + line);
+                    }
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        columns.add(parser.currentName());
+                        parser.nextToken();
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(columns);
+    }
+
+    private static void writeRow(Writer writer, List<Object> cells, String delimiter) throws IOException {
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                writer.write(delimiter);
+            }
+            writer.write(escape(cell(cells.get(i)), delimiter));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String cell(Object value) throws IOException {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Map<?, ?> || value instanceof List<?>) {
+            return MAPPER.writeValueAsString(value);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String escape(String value, String delimiter) {
+        if (value.contains(delimiter) || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
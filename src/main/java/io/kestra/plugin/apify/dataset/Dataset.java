@@ -0,0 +1,40 @@
+package io.kestra.plugin.apify.dataset;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties
+public class Dataset {
+    @Schema(title = "Dataset ID")
+    private String id;
+
+    @Schema(title = "Dataset name, if the dataset is named")
+    private String name;
+
+    @Schema(title = "ID of the user owning the dataset")
+    private String userId;
+
+    @Schema(title = "Time the dataset was created")
+    private String createdAt;
+
+    @Schema(title = "Time the dataset was last modified")
+    private String modifiedAt;
+
+    @Schema(title = "Time the dataset was last accessed")
+    private String accessedAt;
+
+    @Schema(title = "Number of items stored in the dataset")
+    private Long itemCount;
+
+    @Schema(title = "Number of non-empty items stored in the dataset")
+    private Long cleanItemCount;
+
+    @Schema(title = "ID of the Actor that created the dataset")
+    private String actId;
+
+    @Schema(title = "ID of the Actor run that created the dataset")
+    private String actRunId;
+}
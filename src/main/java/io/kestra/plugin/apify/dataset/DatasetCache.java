@@ -0,0 +1,161 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Worker-local disk cache of downloaded dataset files, shared by every task of the worker.
+ * <p>
+ * An entry is a single file named after its key, holding a small header (item count and file extension) followed by the
+ * stored bytes. Files are written next to the entries then moved in place, so readers never see a partial entry. The last
+ * modification time of an entry is bumped on every hit and entries are evicted least recently used first once the
+ * directory grows beyond the size bound of the task storing into it.
+ */
+final class DatasetCache {
+    static final String DIRECTORY_PROPERTY = "apify.dataset.cache.dir";
+    private static final String ENTRY_EXTENSION = ".entry";
+    private static final Map<Path, DatasetCache> CACHES = new ConcurrentHashMap<>();
+
+    private final Path directory;
+
+    DatasetCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The cache of this worker, under the {@code apify.dataset.cache.dir} system property or the temporary directory
+     */
+    static DatasetCache worker() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        Path directory = configured != null
+            ? Path.of(configured)
+            : Path.of(System.getProperty("java.io.tmpdir"), "kestra-apify-dataset-cache");
+        return CACHES.computeIfAbsent(directory.toAbsolutePath(), DatasetCache::new);
+    }
+
+    /**
+     * Opens the entry stored under the key and marks it as recently used, or returns empty on a miss
+     */
+    Optional<Hit> lookup(String key) throws IOException {
+        Path entry = entry(key);
+        DataInputStream input;
+        long size;
+        try {
+            size = Files.size(entry);
+            input = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+
+        try {
+            long count = input.readLong();
+            String extension = input.readUTF();
+            touch(entry);
+            return Optional.of(new Hit(input, count, extension, size - headerBytes(extension)));
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Stores the body under the key, then evicts the least recently used entries beyond {@code maxBytes}
+     */
+    void store(String key, InputStream body, long count, String extension, long maxBytes) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                output.writeLong(count);
+                output.writeUTF(extension);
+                body.transferTo(output);
+            }
+            Files.move(temp, entry(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        evict(maxBytes);
+    }
+
+    /**
+     * Deletes the least recently used entries until the entries fit in {@code maxBytes}
+     */
+    synchronized void evict(long maxBytes) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(ENTRY_EXTENSION)).forEach(entries::add);
+        }
+
+        Map<Path, FileTime> lastUsed = new HashMap<>();
+        long total = 0;
+        for (Path entry : entries) {
+            try {
+                lastUsed.put(entry, Files.getLastModifiedTime(entry));
+                total += Files.size(entry);
+            } catch (NoSuchFileException e) {
+                // replaced or evicted concurrently
+            }
+        }
+
+        List<Path> oldestFirst = lastUsed.keySet().stream().sorted(Comparator.comparing(lastUsed::get)).toList();
+        for (Path entry : oldestFirst) {
+            if (total <= maxBytes) {
+                break;
+            }
+            try {
+                long size = Files.size(entry);
+                Files.delete(entry);
+                total -= size;
+            } catch (NoSuchFileException e) {
+                // evicted concurrently
+            }
+        }
+    }
+
+    private Path entry(String key) {
+        return directory.resolve(key + ENTRY_EXTENSION);
+    }
+
+    private static void touch(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // the entry was evicted while being opened, the open stream is still readable
+        }
+    }
+
+    private static long headerBytes(String extension) {
+        // the count, then the modified UTF-8 length prefix and bytes of the extension
+        return Long.BYTES + 2 + extension.length();
+    }
+
+    /**
+     * An open cache entry, positioned at the stored bytes
+     */
+    record Hit(InputStream body, long count, String extension, long bytes) implements Closeable {
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+}
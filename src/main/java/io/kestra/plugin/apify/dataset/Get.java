@@ -1,15 +1,26 @@
 package io.kestra.plugin.apify.dataset;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,7 +34,7 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @Schema(
     title = "Fetch Apify dataset items",
-    description = "Polls the Apify dataset items API until data is available or the 300s timeout elapses, using exponential backoff. Empty responses are retried because the actor may still be writing items."
+    description = "Polls the Apify dataset items API until data is available or the 300s timeout elapses, using exponential backoff. Empty responses are retried because the actor may still be writing items; with `readinessProbe: true`, only the dataset metadata is polled and the items are downloaded once they exist or the producing run has finished."
 )
 @Plugin(
     examples = {
@@ -67,27 +78,242 @@ import lombok.experimental.SuperBuilder;
                     sort: ASC
                     skipEmpty: false
                 """
+        ),
+        @Example(
+            title = "Download a large dataset with four concurrent page ranges.",
+            full = true,
+            code = """
+                id: apify_get_dataset_partitioned
+                namespace: company.team
+
+                tasks:
+                  - id: get_dataset
+                    type: io.kestra.plugin.apify.dataset.Get
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    datasetId: RNtYOZmecGriFjtDH
+                    limit: 100000
+                    parallelism: 4
+                    partitionSize: 25000
+                """
+        ),
+        @Example(
+            title = "Stream a dataset into an ION file in internal storage instead of returning the items inline.",
+            full = true,
+            code = """
+                id: apify_get_dataset_stored
+                namespace: company.team
+
+                tasks:
+                  - id: get_dataset
+                    type: io.kestra.plugin.apify.dataset.Get
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    datasetId: RNtYOZmecGriFjtDH
+                    limit: 1000000
+                    store: true
+                """
+        ),
+        @Example(
+            title = "Every hour, fetch only the items added to a growing dataset since the previous execution.",
+            full = true,
+            code = """
+                id: apify_get_dataset_incremental
+                namespace: company.team
+
+                tasks:
+                  - id: sync_dataset
+                    type: io.kestra.plugin.apify.dataset.Get
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    datasetId: RNtYOZmecGriFjtDH
+                    incremental: true
+                    store: true
+                    limit: 1000000
+
+                triggers:
+                  - id: hourly
+                    type: io.kestra.plugin.core.trigger.Schedule
+                    cron: "@hourly"
+                """
         )
     }
 )
 public class Get extends AbstractGetDataset implements RunnableTask<Get.Output> {
+    @Schema(
+        title = "Store items",
+        description = """
+            When true, items are parsed incrementally and written one by one to a Kestra internal-storage ION file;
+            the output then holds `uri` and `count` instead of `dataset`, so memory stays flat regardless of dataset size. Default false.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "destination")
+    private Property<Boolean> store = Property.ofValue(false);
+
     @Override
     public Output run(RunContext runContext) throws Exception {
+        return withCallMetrics(runContext, () -> execute(runContext));
+    }
+
+    private Output execute(RunContext runContext) throws Exception {
+        boolean rStore = runContext.render(this.store).as(Boolean.class).orElse(false);
+
+        if (isIncremental(runContext)) {
+            IncrementalWindow window = openIncrementalWindow(runContext);
+            Output output = fetchRanges(runContext, splitWindow(runContext, window.offset(), window.limit()), rStore);
+            commitWatermark(runContext, window);
+            return output.withWatermark(window.limit(), window.watermark());
+        }
+
+        if (rStore) {
+            // deduplication changes the stored items but not the URL, so its options tell the cache entries apart
+            String variant = String.join(
+                "|",
+                "ion",
+                String.valueOf(runContext.render(this.getDedupBy()).asList(String.class)),
+                String.valueOf(runContext.render(this.getDedupFalsePositiveRate()).as(Double.class).orElse(null))
+            );
+            CachedDownload download = cachedDownload(runContext, variant, () -> storeItems(runContext));
+            return Output.of(download.uri(), download.count());
+        }
+
+        if (isPartitioned(runContext)) {
+            return fetchRanges(runContext, planPartitions(runContext), false);
+        }
+
         HttpRequest.HttpRequestBuilder requestBuilder = this.buildGetRequest(
             this.buildURL(runContext)
         );
 
-        List<?> dataset = withRetry(
+        List<?> dataset = fetchWhenReady(
             runContext,
             Collection::isEmpty,
             () -> this.makeCall(runContext, requestBuilder, List.class)
         );
-        return new Output(dataset);
+        return Output.of(deduplicate(runContext, dataset));
+    }
+
+    private CachedDownload storeItems(RunContext runContext) throws Exception {
+        if (isPartitioned(runContext)) {
+            Output output = fetchRanges(runContext, planPartitions(runContext), true);
+            return new CachedDownload(output.uri(), output.count());
+        }
+
+        String url = this.buildURL(runContext);
+        StoredItems items = fetchWhenReady(
+            runContext,
+            (StoredItems stored) -> stored.count() == 0,
+            () -> this.streamItemsToIon(runContext, this.buildGetRequest(url))
+        );
+        return new CachedDownload(runContext.storage().putFile(items.path().toFile()), items.count());
+    }
+
+    /**
+     * Fetches the given page ranges concurrently and assembles them in order, inline or into a single ION file
+     */
+    private Output fetchRanges(RunContext runContext, List<PageRange> ranges, boolean rStore) throws Exception {
+        if (rStore) {
+            // pages arrive out of order, duplicates are dropped afterwards so that the first occurrence in dataset order is kept
+            List<StoredItems> pages = fetchPartitions(
+                runContext,
+                ranges,
+                (index, range) -> this.streamItemsToIon(
+                    runContext,
+                    this.buildGetRequest(this.buildURL(runContext, range.offset(), range.limit())),
+                    ItemDeduplicator.NONE
+                )
+            );
+            if (isDeduplicated(runContext)) {
+                StoredItems items = deduplicateParts(runContext, pages);
+                return Output.of(runContext.storage().putFile(items.path().toFile()), items.count());
+            }
+            URI uri = stitchParts(runContext, pages.stream().map(StoredItems::path).toList(), ".ion");
+            return Output.of(uri, pages.stream().mapToLong(StoredItems::count).sum());
+        }
+
+        List<List<?>> pages = fetchPartitions(
+            runContext,
+            ranges,
+            (index, range) -> this.makeCall(
+                runContext,
+                this.buildGetRequest(this.buildURL(runContext, range.offset(), range.limit())),
+                List.class
+            )
+        );
+        List<Object> dataset = new ArrayList<>();
+        pages.forEach(dataset::addAll);
+        return Output.of(deduplicate(runContext, dataset));
+    }
+
+    private List<?> deduplicate(RunContext runContext, List<?> dataset) throws Exception {
+        ItemDeduplicator deduplicator = openDeduplicator(runContext);
+        if (!deduplicator.isEnabled()) {
+            return dataset;
+        }
+
+        try {
+            List<Object> unique = new ArrayList<>(dataset.size());
+            for (Object item : dataset) {
+                if (!deduplicator.isDuplicate(item)) {
+                    unique.add(item);
+                }
+            }
+            return unique;
+        } finally {
+            closeDeduplicator(runContext, deduplicator);
+        }
+    }
+
+    /**
+     * Reads the ION pages in order into a single local file, keeping only the first item of every key, and deletes the pages
+     */
+    private StoredItems deduplicateParts(RunContext runContext, List<StoredItems> pages) throws Exception {
+        ItemDeduplicator deduplicator = openDeduplicator(runContext);
+        Path path = runContext.workingDir().createTempFile(".ion");
+        long count = 0;
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(path))) {
+            for (StoredItems page : pages) {
+                try (BufferedReader reader = Files.newBufferedReader(page.path())) {
+                    for (Object item : FileSerde.readAll(reader).toIterable()) {
+                        if (!deduplicator.isDuplicate(item)) {
+                            FileSerde.write(output, item);
+                            count++;
+                        }
+                    }
+                }
+                Files.delete(page.path());
+            }
+        } finally {
+            closeDeduplicator(runContext, deduplicator);
+        }
+
+        return new StoredItems(path, count);
     }
 
     public record Output(
-        @Schema(title = "Items fetched from the Apify dataset")
-        List<?> dataset
+        @Schema(title = "Items fetched from the Apify dataset", description = "Only set when `store` is false.")
+        List<?> dataset,
+
+        @Schema(title = "URI of the ION file holding the items in Kestra's internal storage", description = "Only set when `store` is true.")
+        URI uri,
+
+        @Schema(title = "Number of items fetched")
+        Long count,
+
+        @Schema(title = "Number of dataset items added since the previous execution", description = "Only set in incremental mode.")
+        Long newItems,
+
+        @Schema(title = "Watermark persisted for the next execution", description = "Only set in incremental mode.")
+        Long watermark
     ) implements io.kestra.core.models.tasks.Output {
+        static Output of(List<?> dataset) {
+            return new Output(dataset, null, (long) dataset.size(), null, null);
+        }
+
+        static Output of(URI uri, long count) {
+            return new Output(null, uri, count, null, null);
+        }
+
+        Output withWatermark(long newItems, long watermark) {
+            return new Output(dataset, uri, count, newItems, watermark);
+        }
     }
 }
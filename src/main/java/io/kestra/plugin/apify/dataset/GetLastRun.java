@@ -54,6 +54,10 @@ public class GetLastRun extends ApifyConnection implements RunnableTask<ActorRun
 
     @Override
     public ActorRun run(RunContext runContext) throws Exception {
+        return withCallMetrics(runContext, () -> execute(runContext));
+    }
+
+    private ActorRun execute(RunContext runContext) throws Exception {
         String rActorId = runContext.render(this.actorId).as(String.class).orElseThrow(
             () -> new IllegalArgumentException("actorId is required")
         );
@@ -61,6 +65,6 @@ public class GetLastRun extends ApifyConnection implements RunnableTask<ActorRun
         HttpRequest.HttpRequestBuilder requestBuilder = buildGetRequest(
             String.format("acts/%s/runs/last", rActorId)
         );
-        return makeCall(runContext, requestBuilder, ActorRunApiResponseWrapper.class).getData();
+        return recordRunMetrics(runContext, makeCall(runContext, requestBuilder, ActorRunApiResponseWrapper.class).getData());
     }
 }
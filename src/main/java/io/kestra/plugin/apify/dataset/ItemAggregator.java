@@ -0,0 +1,247 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Aggregates dataset items into groups in a single streaming pass.
+ * <p>
+ * Groups are keyed by the values of the group-by fields and kept in order of first appearance. Every group holds its
+ * accumulators in flat primitive arrays, one {@code long} and one {@code double} slot per aggregation, plus a HyperLogLog
+ * register array per approximate distinct count, so memory grows with the number of groups and never with the number of
+ * items. Aggregators filled concurrently from page ranges are combined with {@link #merge}. Instances are not thread-safe.
+ */
+final class ItemAggregator {
+    static final int HLL_PRECISION = 12;
+    private static final int HLL_REGISTERS = 1 << HLL_PRECISION;
+    private static final double HLL_ALPHA = 0.7213 / (1 + 1.079 / HLL_REGISTERS);
+    private static final ObjectMapper CANONICAL_MAPPER = JacksonMapper.ofJson(false).copy()
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final List<String> groupBy;
+    private final List<Spec> specs;
+    private final Map<List<Object>, Group> groups = new LinkedHashMap<>();
+    private long items;
+
+    ItemAggregator(List<String> groupBy, List<Spec> specs) {
+        this.groupBy = groupBy;
+        this.specs = specs;
+    }
+
+    /**
+     * Adds an item to the accumulators of its group
+     */
+    void add(Object item) throws IOException {
+        items++;
+        Map<?, ?> map = item instanceof Map<?, ?> object ? object : Map.of();
+
+        List<Object> key = new ArrayList<>(groupBy.size());
+        for (String field : groupBy) {
+            key.add(normalize(ItemDeduplicator.fieldValue(map, field)));
+        }
+        Group group = groups.computeIfAbsent(key, k -> new Group(specs));
+
+        for (int i = 0; i < specs.size(); i++) {
+            Spec spec = specs.get(i);
+            Object value = spec.field() == null ? null : ItemDeduplicator.fieldValue(map, spec.field());
+            switch (spec.function()) {
+                case COUNT -> {
+                    if (spec.field() == null || value != null) {
+                        group.longs[i]++;
+                    }
+                }
+                case SUM, AVG -> {
+                    if (value instanceof Number number) {
+                        group.longs[i]++;
+                        group.doubles[i] += number.doubleValue();
+                    }
+                }
+                case MIN -> {
+                    if (value instanceof Number number) {
+                        group.doubles[i] = group.longs[i]++ == 0 ? number.doubleValue() : Math.min(group.doubles[i], number.doubleValue());
+                    }
+                }
+                case MAX -> {
+                    if (value instanceof Number number) {
+                        group.doubles[i] = group.longs[i]++ == 0 ? number.doubleValue() : Math.max(group.doubles[i], number.doubleValue());
+                    }
+                }
+                case APPROX_DISTINCT -> {
+                    if (value != null) {
+                        offer(group.sketches[i], hash(canonical(value)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Folds the groups of another aggregator into this one, appending its new groups after the existing ones
+     */
+    void merge(ItemAggregator other) {
+        items += other.items;
+        other.groups.forEach((key, theirs) ->
+        {
+            Group ours = groups.computeIfAbsent(key, k -> new Group(specs));
+            for (int i = 0; i < specs.size(); i++) {
+                switch (specs.get(i).function()) {
+                    case COUNT -> ours.longs[i] += theirs.longs[i];
+                    case SUM, AVG -> {
+                        ours.longs[i] += theirs.longs[i];
+                        ours.doubles[i] += theirs.doubles[i];
+                    }
+                    case MIN, MAX -> {
+                        if (theirs.longs[i] > 0) {
+                            boolean min = specs.get(i).function() == AggregationFunction.MIN;
+                            ours.doubles[i] = ours.longs[i] == 0
+                                ? theirs.doubles[i]
+                                : min ? Math.min(ours.doubles[i], theirs.doubles[i]) : Math.max(ours.doubles[i], theirs.doubles[i]);
+                            ours.longs[i] += theirs.longs[i];
+                        }
+                    }
+                    case APPROX_DISTINCT -> {
+                        for (int r = 0; r < HLL_REGISTERS; r++) {
+                            ours.sketches[i][r] = (byte) Math.max(ours.sketches[i][r], theirs.sketches[i][r]);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    long items() {
+        return items;
+    }
+
+    int groupCount() {
+        return groups.size();
+    }
+
+    /**
+     * One row per group, in order of first appearance: the group-by fields followed by the aggregation results
+     */
+    List<Map<String, Object>> rows() {
+        List<Map<String, Object>> rows = new ArrayList<>(groups.size());
+        groups.forEach((key, group) ->
+        {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                row.put(groupBy.get(i), key.get(i));
+            }
+            for (int i = 0; i < specs.size(); i++) {
+                row.put(specs.get(i).name(), result(specs.get(i).function(), group, i));
+            }
+            rows.add(row);
+        });
+        return rows;
+    }
+
+    private static Object result(AggregationFunction function, Group group, int i) {
+        long count = group.longs[i];
+        return switch (function) {
+            case COUNT -> count;
+            case SUM -> count == 0 ? null : group.doubles[i];
+            case AVG -> count == 0 ? null : group.doubles[i] / count;
+            case MIN, MAX -> count == 0 ? null : group.doubles[i];
+            case APPROX_DISTINCT -> estimate(group.sketches[i]);
+        };
+    }
+
+    /**
+     * Integral numbers are widened to {@code long} so that the same key parsed as an int and as a long lands in one group
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigInteger big && big.bitLength() < Long.SIZE) {
+            return big.longValue();
+        }
+        return value;
+    }
+
+    private static String canonical(Object value) throws IOException {
+        Object normalized = normalize(value);
+        if (normalized instanceof String || normalized instanceof Number || normalized instanceof Boolean) {
+            return normalized.getClass().getSimpleName().charAt(0) + String.valueOf(normalized);
+        }
+        return CANONICAL_MAPPER.writeValueAsString(normalized);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units, spread with the MurmurHash3 finalizer so that every bit is usable by the sketch
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static void offer(byte[] registers, long hash) {
+        int index = (int) (hash >>> (Long.SIZE - HLL_PRECISION));
+        // the position of the first set bit among the remaining bits, capped when they are all zero
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << HLL_PRECISION), Long.SIZE - HLL_PRECISION) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    static long estimate(byte[] registers) {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = HLL_ALPHA * HLL_REGISTERS * HLL_REGISTERS / sum;
+        if (estimate <= 2.5 * HLL_REGISTERS && zeros > 0) {
+            // linear counting is more accurate for small cardinalities
+            estimate = HLL_REGISTERS * Math.log((double) HLL_REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * An aggregation over one field, or over the items themselves for a count without field
+     */
+    record Spec(String name, AggregationFunction function, String field) {
+    }
+
+    private static final class Group {
+        private final long[] longs;
+        private final double[] doubles;
+        private final byte[][] sketches;
+
+        private Group(List<Spec> specs) {
+            this.longs = new long[specs.size()];
+            this.doubles = new double[specs.size()];
+            this.sketches = new byte[specs.size()][];
+            for (int i = 0; i < specs.size(); i++) {
+                if (specs.get(i).function() == AggregationFunction.APPROX_DISTINCT) {
+                    sketches[i] = new byte[HLL_REGISTERS];
+                }
+            }
+        }
+    }
+}
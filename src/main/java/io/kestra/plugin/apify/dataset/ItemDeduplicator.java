@@ -0,0 +1,371 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Drops dataset items whose key fields were already seen, in a single streaming pass.
+ * <p>
+ * The values of the key fields are serialized canonically and reduced to a 128-bit SHA-256 fingerprint. In exact mode the
+ * fingerprints are kept in a heap set that moves, past {@link #IN_MEMORY_KEYS} keys, to an open-addressing table in a
+ * memory-mapped file of the working directory, so the heap stays flat whatever the number of distinct items and only the
+ * free space of the working directory bounds them. With a false-positive rate, a scalable Bloom filter is used instead:
+ * memory is bounded by a few bits per item, at the cost of dropping that fraction of unique items. Items holding none of the
+ * key fields are always kept. Instances are not thread-safe.
+ */
+final class ItemDeduplicator implements Closeable {
+    static final ItemDeduplicator NONE = new ItemDeduplicator(List.of(), null);
+
+    static final int IN_MEMORY_KEYS = 1 << 20;
+    static final int SEGMENT_SLOTS = 1 << 26;
+    private static final ObjectMapper CANONICAL_MAPPER = JacksonMapper.ofJson(false).copy()
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final List<String> fields;
+    private final KeySet keys;
+    private final MessageDigest digest;
+    private long duplicates;
+
+    private ItemDeduplicator(List<String> fields, KeySet keys) {
+        this.fields = fields;
+        this.keys = keys;
+        this.digest = keys == null ? null : sha256();
+    }
+
+    static ItemDeduplicator exact(RunContext runContext, List<String> fields) {
+        return exact(runContext, fields, IN_MEMORY_KEYS);
+    }
+
+    static ItemDeduplicator exact(RunContext runContext, List<String> fields, int inMemoryKeys) {
+        return exact(runContext, fields, inMemoryKeys, SEGMENT_SLOTS);
+    }
+
+    static ItemDeduplicator exact(RunContext runContext, List<String> fields, int inMemoryKeys, int segmentSlots) {
+        return new ItemDeduplicator(fields, new ExactKeySet(runContext, inMemoryKeys, segmentSlots));
+    }
+
+    static ItemDeduplicator bloom(List<String> fields, double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("dedupFalsePositiveRate must be strictly between 0 and 1");
+        }
+        return new ItemDeduplicator(fields, new ScalableBloomFilter(falsePositiveRate));
+    }
+
+    boolean isEnabled() {
+        return keys != null;
+    }
+
+    /**
+     * Returns true when an item with the same key values was already offered, recording its key otherwise
+     */
+    boolean isDuplicate(Object item) throws IOException {
+        if (keys == null) {
+            return false;
+        }
+
+        List<Object> values = keyValues(item);
+        if (values == null) {
+            return false;
+        }
+
+        byte[] hash = digest.digest(CANONICAL_MAPPER.writeValueAsBytes(values));
+        ByteBuffer buffer = ByteBuffer.wrap(hash);
+        if (keys.add(buffer.getLong(), buffer.getLong())) {
+            return false;
+        }
+
+        duplicates++;
+        return true;
+    }
+
+    long duplicates() {
+        return duplicates;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (keys != null) {
+            keys.close();
+        }
+    }
+
+    /**
+     * Reads the key fields of an item, following dotted paths into nested objects unless the flattened key exists as is
+     */
+    private List<Object> keyValues(Object item) {
+        if (!(item instanceof Map<?, ?> map)) {
+            return List.of(item);
+        }
+
+        List<Object> values = new ArrayList<>(fields.size());
+        boolean found = false;
+        for (String field : fields) {
+            Object value = fieldValue(map, field);
+            found |= value != null;
+            values.add(value);
+        }
+        return found ? values : null;
+    }
+
+    /**
+     * Reads a field of an item, following a dotted path into nested objects unless the flattened key exists as is
+     */
+    static Object fieldValue(Map<?, ?> map, String field) {
+        return map.containsKey(field) ? map.get(field) : nested(map, field);
+    }
+
+    private static Object nested(Map<?, ?> map, String path) {
+        Object current = map;
+        for (String segment : path.split("\\.")) {
+            if (!(current instanceof Map<?, ?> object)) {
+                return null;
+            }
+            current = object.get(segment);
+        }
+        return current;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface KeySet extends Closeable {
+        /**
+         * Adds a fingerprint and returns true when it was not present yet
+         */
+        boolean add(long high, long low) throws IOException;
+    }
+
+    private record Fingerprint(long high, long low) {
+    }
+
+    private static final class ExactKeySet implements KeySet {
+        private final RunContext runContext;
+        private final int inMemoryKeys;
+        private final int segmentSlots;
+        private Set<Fingerprint> memory = new HashSet<>();
+        private DiskKeySet disk;
+
+        private ExactKeySet(RunContext runContext, int inMemoryKeys, int segmentSlots) {
+            this.runContext = runContext;
+            this.inMemoryKeys = inMemoryKeys;
+            this.segmentSlots = segmentSlots;
+        }
+
+        @Override
+        public boolean add(long high, long low) throws IOException {
+            if (disk != null) {
+                return disk.add(high, low);
+            }
+
+            boolean added = memory.add(new Fingerprint(high, low));
+            if (added && memory.size() > inMemoryKeys) {
+                runContext.logger().debug("More than {} distinct keys, moving the deduplication set to disk.", inMemoryKeys);
+                disk = new DiskKeySet(runContext, inMemoryKeys * 4L + 4, segmentSlots);
+                for (Fingerprint fingerprint : memory) {
+                    disk.add(fingerprint.high(), fingerprint.low());
+                }
+                memory = null;
+            }
+            return added;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (disk != null) {
+                disk.close();
+            }
+        }
+    }
+
+    /**
+     * Linear-probing hash set of 16-byte fingerprints in a memory-mapped file, doubled whenever it gets half full. A single
+     * mapping cannot exceed 2 GiB, so the file is mapped as segments of {@code segmentSlots} slots and a slot is addressed by
+     * its segment and its offset within it; the table grows as long as the working directory has room.
+     */
+    private static final class DiskKeySet implements KeySet {
+        private static final int SLOT_BYTES = 16;
+
+        private final RunContext runContext;
+        private final int segmentSlots;
+        private Path file;
+        private MappedByteBuffer[] segments;
+        private long slots;
+        private long size;
+
+        private DiskKeySet(RunContext runContext, long slots, int segmentSlots) throws IOException {
+            this.runContext = runContext;
+            this.segmentSlots = segmentSlots;
+            allocate(slots);
+        }
+
+        @Override
+        public boolean add(long high, long low) throws IOException {
+            if ((size + 1) * 2 > slots) {
+                grow();
+            }
+            if (insert(high, low == 0 && high == 0 ? 1 : low)) {
+                size++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean insert(long high, long low) {
+            long slot = (low & Long.MAX_VALUE) % slots;
+            while (true) {
+                MappedByteBuffer segment = segments[(int) (slot / segmentSlots)];
+                int position = (int) (slot % segmentSlots) * SLOT_BYTES;
+                long storedHigh = segment.getLong(position);
+                long storedLow = segment.getLong(position + Long.BYTES);
+                if (storedHigh == 0 && storedLow == 0) {
+                    segment.putLong(position, high);
+                    segment.putLong(position + Long.BYTES, low);
+                    return true;
+                }
+                if (storedHigh == high && storedLow == low) {
+                    return false;
+                }
+                slot = (slot + 1) % slots;
+            }
+        }
+
+        private void grow() throws IOException {
+            Path previousFile = file;
+            MappedByteBuffer[] previous = segments;
+            allocate(slots * 2);
+            for (MappedByteBuffer segment : previous) {
+                for (int position = 0; position < segment.capacity(); position += SLOT_BYTES) {
+                    long high = segment.getLong(position);
+                    long low = segment.getLong(position + Long.BYTES);
+                    if (high != 0 || low != 0) {
+                        insert(high, low);
+                    }
+                }
+            }
+            Files.delete(previousFile);
+        }
+
+        private void allocate(long slots) throws IOException {
+            this.file = runContext.workingDir().createTempFile(".keys");
+            MappedByteBuffer[] mapped = new MappedByteBuffer[(int) ((slots + segmentSlots - 1) / segmentSlots)];
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                for (int i = 0; i < mapped.length; i++) {
+                    long first = (long) i * segmentSlots;
+                    mapped[i] = channel.map(FileChannel.MapMode.READ_WRITE, first * SLOT_BYTES, Math.min(segmentSlots, slots - first) * SLOT_BYTES);
+                }
+            }
+            this.segments = mapped;
+            this.slots = slots;
+        }
+
+        @Override
+        public void close() throws IOException {
+            segments = null;
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Chain of Bloom filters of growing capacity whose false-positive rates halve, so the overall rate stays under the target
+     */
+    private static final class ScalableBloomFilter implements KeySet {
+        private static final long INITIAL_CAPACITY = 1 << 16;
+
+        private final double falsePositiveRate;
+        private final List<BloomFilter> filters = new ArrayList<>();
+
+        private ScalableBloomFilter(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+            filters.add(new BloomFilter(INITIAL_CAPACITY, falsePositiveRate / 2));
+        }
+
+        @Override
+        public boolean add(long high, long low) {
+            for (BloomFilter filter : filters) {
+                if (filter.mightContain(high, low)) {
+                    return false;
+                }
+            }
+
+            BloomFilter current = filters.getLast();
+            if (current.isFull()) {
+                current = new BloomFilter(current.capacity * 2, falsePositiveRate / Math.pow(2, filters.size() + 1));
+                filters.add(current);
+            }
+            current.put(high, low);
+            return true;
+        }
+
+        @Override
+        public void close() {
+            filters.clear();
+        }
+    }
+
+    private static final class BloomFilter {
+        private final long capacity;
+        private final long[] bits;
+        private final long bitCount;
+        private final int hashCount;
+        private long size;
+
+        private BloomFilter(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new long[(int) ((optimalBits + 63) / 64)];
+            this.bitCount = bits.length * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        private boolean isFull() {
+            return size >= capacity;
+        }
+
+        private boolean mightContain(long high, long low) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = index(high, low, i);
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long high, long low) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = index(high, low, i);
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+            size++;
+        }
+
+        // double hashing over the two halves of the fingerprint
+        private long index(long high, long low, int i) {
+            return ((high + i * low) & Long.MAX_VALUE) % bitCount;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.apify.ApifyConnection;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Push items into an Apify dataset",
+    description = """
+        Streams items from a line-delimited (ION or JSONL) file in Kestra's internal storage and appends them to an Apify dataset.
+        Items are packed, in file order, into JSON array batches that stay under Apify's request payload limit, and up to
+        `concurrency` batches are sent at once; a batch failing with a network error or a server error is retried with
+        exponential backoff. Batches may be appended out of order when `concurrency` is above 1.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Seed a dataset consumed by another actor from a JSONL file.",
+            full = true,
+            code = """
+                id: apify_push_dataset
+                namespace: company.team
+
+                inputs:
+                  - id: items
+                    type: FILE
+
+                tasks:
+                  - id: push_items
+                    type: io.kestra.plugin.apify.dataset.Push
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    datasetId: RNtYOZmecGriFjtDH
+                    from: "{{ inputs.items }}"
+                    concurrency: 8
+                """
+        )
+    }
+)
+public class Push extends ApifyConnection implements RunnableTask<Push.Output> {
+    static final long MAX_PAYLOAD_BYTES = 9L * 1024 * 1024;
+    private static final Duration RETRY_BASE_DELAY = Duration.ofSeconds(1);
+    private static final ObjectMapper ION_MAPPER = JacksonMapper.ofIon();
+
+    @Schema(
+        title = "Dataset ID",
+        description = "Apify dataset identifier or `username~dataset-name` to append items to."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> datasetId;
+
+    @Schema(
+        title = "Items file",
+        description = "Internal-storage URI of a line-delimited ION or JSONL file holding one item per line."
+    )
+    @NotNull
+    @PluginProperty(internalStorageURI = true, group = "source")
+    private Property<String> from;
+
+    @Schema(
+        title = "Maximum batch size (bytes)",
+        description = "Upper bound of the JSON payload of one request; defaults to Apify's 9 MB limit. An item larger than this fails the task."
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<@Min(2) @Max(MAX_PAYLOAD_BYTES) Long> maxBatchBytes = Property.ofValue(MAX_PAYLOAD_BYTES);
+
+    @Schema(
+        title = "Concurrency",
+        description = "Number of batches sent at once; default 4. Memory holds at most this many batches plus the one being packed."
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<@Min(1) Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "Maximum retries",
+        description = """
+            Number of times a batch is resent after a connection that could not be opened, so the batch never reached Apify; default 3.
+            Rate-limited requests are always retried. Appending items is not idempotent: other failures, such as 5xx responses or a
+            read timeout, may come after Apify stored the batch, and are only retried when `retryAmbiguousFailures` is true.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<@Min(0) Integer> maxRetries = Property.ofValue(3);
+
+    @Schema(
+        title = "Retry ambiguous failures",
+        description = """
+            Also resend a batch, up to `maxRetries` times, after a 5xx response or a network error once the request was sent.
+            Apify may have stored the batch already, so a retried batch can be appended twice and the dataset can hold duplicate items.
+            Default false.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Boolean> retryAmbiguousFailures = Property.ofValue(false);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        return withCallMetrics(runContext, () -> execute(runContext));
+    }
+
+    private Output execute(RunContext runContext) throws Exception {
+        String rDatasetId = runContext.render(this.datasetId).as(String.class).orElseThrow(
+            () -> new IllegalArgumentException("datasetId is required")
+        );
+        URI rFrom = URI.create(runContext.render(this.from).as(String.class).orElseThrow(
+            () -> new IllegalArgumentException("from is required")
+        ));
+        long rMaxBatchBytes = runContext.render(this.maxBatchBytes).as(Long.class).orElse(MAX_PAYLOAD_BYTES);
+        int rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(4);
+        int rMaxRetries = runContext.render(this.maxRetries).as(Integer.class).orElse(3);
+        boolean rRetryAmbiguousFailures = runContext.render(this.retryAmbiguousFailures).as(Boolean.class).orElse(false);
+        String path = String.format("datasets/%s/items", rDatasetId);
+
+        long startNanos = System.nanoTime();
+        long count = 0;
+        // a permit per batch being sent bounds the memory held by queued batches
+        Semaphore inFlight = new Semaphore(rConcurrency);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        try (
+            ExecutorService executor = Executors.newFixedThreadPool(rConcurrency, Thread.ofVirtual().factory());
+            BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(rFrom), StandardCharsets.UTF_8))
+        ) {
+            BatchPacker packer = new BatchPacker(rMaxBatchBytes);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                // JSON lines are valid ION text, so both formats are read one line at a time without buffering the file
+                String json = mapper.writeValueAsString(ION_MAPPER.readValue(line, Object.class));
+                List<RawValue> full = packer.add(json, count);
+                if (full != null) {
+                    if (futures.stream().anyMatch(future -> future.state() == Future.State.FAILED)) {
+                        // stop reading, the failure is rethrown below
+                        break;
+                    }
+                    submit(runContext, executor, inFlight, futures, path, full, rMaxRetries, rRetryAmbiguousFailures);
+                }
+                count++;
+            }
+            List<RawValue> last = packer.drain();
+            if (line == null && last != null) {
+                submit(runContext, executor, inFlight, futures, path, last, rMaxRetries, rRetryAmbiguousFailures);
+            }
+
+            for (Future<Integer> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    executor.shutdownNow();
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - startNanos);
+        double itemsPerSecond = count / Math.max(duration.toNanos() / 1e9, 1e-3);
+        metric(runContext, Counter.of("items", count));
+        metric(runContext, Counter.of("batches", futures.size()));
+        metric(runContext, Timer.of("push.duration", duration));
+        runContext.logger().info(
+            "Pushed {} items to dataset {} in {} batches ({} items/s).",
+            count, rDatasetId, futures.size(), String.format("%.1f", itemsPerSecond)
+        );
+
+        return new Output(count, (long) futures.size(), itemsPerSecond);
+    }
+
+    private void submit(
+        RunContext runContext,
+        ExecutorService executor,
+        Semaphore inFlight,
+        List<Future<Integer>> futures,
+        String path,
+        List<RawValue> batch,
+        int rMaxRetries,
+        boolean rRetryAmbiguousFailures) throws InterruptedException {
+        inFlight.acquire();
+        futures.add(executor.submit(() ->
+        {
+            try {
+                return pushBatch(runContext, path, batch, rMaxRetries, rRetryAmbiguousFailures);
+            } finally {
+                inFlight.release();
+            }
+        }));
+    }
+
+    /**
+     * Posts one batch, retrying with exponential backoff when the batch cannot have been stored, or on any network or server
+     * error when ambiguous failures are retried
+     */
+    private int pushBatch(RunContext runContext, String path, List<RawValue> batch, int rMaxRetries, boolean rRetryAmbiguousFailures) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                makeCall(runContext, buildPostRequest(path, batch), String.class);
+                return batch.size();
+            } catch (Exception e) {
+                boolean retryable = isNeverSent(e) || (rRetryAmbiguousFailures && isAmbiguous(e));
+                if (!retryable || attempt > rMaxRetries) {
+                    throw e;
+                }
+
+                Duration delay = RETRY_BASE_DELAY.multipliedBy(1L << Math.min(attempt - 1, 6));
+                metric(runContext, Counter.of("push.retries", 1));
+                runContext.logger().warn("Pushing a batch of {} items failed ({}), retrying in {} ms.", batch.size(), e.getMessage(), delay.toMillis());
+                Thread.sleep(delay.toMillis());
+            }
+        }
+    }
+
+    /**
+     * True when the connection could not be opened, so that the request body never reached Apify
+     */
+    private static boolean isNeverSent(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof UnknownHostException || cause instanceof NoRouteToHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True for 5xx responses and network errors, after which Apify may or may not have stored the batch
+     */
+    private static boolean isAmbiguous(Throwable failure) {
+        Throwable cause = failure instanceof ExecutionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof HttpClientResponseException responseException && responseException.getResponse() != null) {
+            return responseException.getResponse().getStatus().getCode() >= 500;
+        }
+        return cause instanceof IOException || cause.getCause() instanceof IOException;
+    }
+
+    /**
+     * Packs serialized items into batches whose JSON array encoding stays within the byte limit
+     */
+    static final class BatchPacker {
+        private final long maxBytes;
+        private List<RawValue> batch = new ArrayList<>();
+        // the enclosing brackets of the JSON array
+        private long bytes = 2;
+
+        BatchPacker(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * Adds an item and returns the previous batch when the item did not fit into it, or null
+         */
+        List<RawValue> add(String json, long index) {
+            long itemBytes = json.getBytes(StandardCharsets.UTF_8).length;
+            if (itemBytes + 2 > maxBytes) {
+                throw new IllegalArgumentException(
+                    "Item " + index + " takes " + itemBytes + " bytes, more than the " + maxBytes + " bytes allowed in a single request"
+                );
+            }
+
+            List<RawValue> full = null;
+            long separator = batch.isEmpty() ? 0 : 1;
+            if (bytes + separator + itemBytes > maxBytes) {
+                full = drain();
+                separator = 0;
+            }
+            batch.add(new RawValue(json));
+            bytes += separator + itemBytes;
+            return full;
+        }
+
+        List<RawValue> drain() {
+            if (batch.isEmpty()) {
+                return null;
+            }
+
+            List<RawValue> full = batch;
+            batch = new ArrayList<>();
+            bytes = 2;
+            return full;
+        }
+    }
+
+    public record Output(
+        @Schema(title = "Number of items pushed")
+        Long count,
+
+        @Schema(title = "Number of requests sent, excluding retries")
+        Long batches,
+
+        @Schema(title = "Push throughput in items per second")
+        Double itemsPerSecond
+    ) implements io.kestra.core.models.tasks.Output {
+    }
+}
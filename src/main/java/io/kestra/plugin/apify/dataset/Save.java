@@ -1,9 +1,21 @@
 package io.kestra.plugin.apify.dataset;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,12 +23,15 @@ import org.slf4j.LoggerFactory;
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.storages.kv.KVStore;
 import io.kestra.plugin.apify.DataSetFormat;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import io.kestra.core.models.annotations.PluginProperty;
@@ -76,6 +91,44 @@ import io.kestra.core.models.annotations.PluginProperty;
                     flatten: true
                     sort: ASC
                 """
+        ),
+        @Example(
+            title = "Save a large dataset as JSONL using four concurrent page ranges.",
+            full = true,
+            code = """
+                id: save_data_set_partitioned
+                namespace: company.team
+
+                tasks:
+                  - id: save_dataset
+                    type: io.kestra.plugin.apify.dataset.Save
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    datasetId: RNtYOZmecGriFjtDH
+                    format: JSONL
+                    limit: 5000000
+                    parallelism: 4
+                """
+        ),
+        @Example(
+            title = "Export a large dataset as JSONL, resuming from the completed page ranges when the task is retried.",
+            full = true,
+            code = """
+                id: save_data_set_resumable
+                namespace: company.team
+
+                tasks:
+                  - id: save_dataset
+                    type: io.kestra.plugin.apify.dataset.Save
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    datasetId: RNtYOZmecGriFjtDH
+                    format: JSONL
+                    limit: 5000000
+                    resumable: true
+                    retry:
+                      type: constant
+                      interval: PT1M
+                      maxAttempts: 5
+                """
         )
     }
 )
@@ -128,13 +181,154 @@ public class Save extends AbstractGetDataset implements RunnableTask<Save.Output
     @PluginProperty(group = "advanced")
     private Property<Boolean> skipHeaderRow = Property.ofValue(false);
 
+    @Schema(
+        title = "Convert locally",
+        description = """
+            Only applies to the CSV format. When true, the items are downloaded as compact JSONL and converted to CSV by the task in a
+            streaming pass, instead of having Apify render the CSV, which is slow for large datasets. The header lists every
+            top-level field, in order of first appearance, and nested values are written as JSON; `delimiter`, `skipHeaderRow`
+            and `bom` are honoured. Default false."""
+    )
+    @Builder.Default
+    @PluginProperty(group = "processing")
+    private Property<Boolean> convertLocally = Property.ofValue(false);
+
+    @Schema(
+        title = "Max rows per file",
+        description = """
+            Splits JSONL and CSV exports into several files of at most this many items, cut on record boundaries; CSV shards
+            each repeat the header row. The files are listed in order in the `shards` output."""
+    )
+    @Min(1)
+    @PluginProperty(group = "processing")
+    private Property<Long> maxRowsPerFile;
+
+    @Schema(
+        title = "Max bytes per file",
+        description = """
+            Splits JSONL and CSV exports into several files of at most this many bytes, cut on record boundaries; a single
+            record larger than the limit gets a file of its own. Can be combined with `maxRowsPerFile`."""
+    )
+    @Min(1)
+    @PluginProperty(group = "processing")
+    private Property<Long> maxBytesPerFile;
+
+    @Schema(
+        title = "Store compressed",
+        description = """
+            When true, the export is stored gzip-compressed with a `.gz` extension appended to the format extension. A body
+            the server already sent gzip-compressed is stored as received, without being decompressed; otherwise the task compresses it
+            while writing. Sharded exports are always stored uncompressed. Default false."""
+    )
+    @Builder.Default
+    @PluginProperty(group = "destination")
+    private Property<Boolean> storeCompressed = Property.ofValue(false);
+
+    @Schema(
+        title = "Resumable",
+        description = """
+            Only applies to the JSONL and CSV formats. When true, the items are downloaded as page ranges of `partitionSize` items,
+            each uploaded to internal storage as soon as it completes and recorded in a checkpoint in the namespace KV store. A
+            retried attempt, for example after a worker restart or a dropped connection, restores the completed ranges and only
+            downloads the missing ones. The checkpoint and its uploaded ranges are deleted once the export is stored; a checkpoint
+            left behind expires after 7 days. Default false."""
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Boolean> resumable = Property.ofValue(false);
+
+    @Schema(
+        title = "Checkpoint key",
+        description = """
+            KV store key of the resumable checkpoint; defaults to a key derived from the task run and the query, so that only
+            retries of the same task run resume. Set it to resume from an export started by another execution."""
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> checkpointKey;
+
     private static final byte[] EMPTY_DATASET_BYTES = "[]".getBytes();
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final String CHECKPOINT_KEY_PREFIX = "apify_dataset_save_checkpoint_";
 
     @Override
     public Output run(RunContext runContext) throws Exception {
+        return withCallMetrics(runContext, () -> execute(runContext));
+    }
+
+    private Output execute(RunContext runContext) throws Exception {
+        Output output;
+        if (runContext.render(this.maxRowsPerFile).as(Long.class).isPresent() || runContext.render(this.maxBytesPerFile).as(Long.class).isPresent()) {
+            // a sharded export is a list of files, it is not cached
+            output = export(runContext);
+        } else {
+            // local conversion and compression change the stored file but not the URL, so they tell the cache entries apart
+            String variant = String.join(
+                "|",
+                "save",
+                String.valueOf(isConvertedLocally(runContext)),
+                String.valueOf(runContext.render(this.storeCompressed).as(Boolean.class).orElse(false))
+            );
+            output = new Output(cachedDownload(runContext, variant, () -> new CachedDownload(export(runContext).getPath(), -1)).uri());
+        }
+        if (isResumable(runContext)) {
+            SaveCheckpoint.open(runContext, checkpointStore(runContext), checkpointKey(runContext), checkpointFingerprint(runContext)).clear();
+        }
+        return output;
+    }
+
+    private Output export(RunContext runContext) throws Exception {
+        if (isIncremental(runContext)) {
+            throw new IllegalArgumentException("Incremental mode is not supported by the deprecated dataset.Save task, use dataset.Get with store: true instead");
+        }
+        if (isDeduplicated(runContext)) {
+            throw new IllegalArgumentException("dedupBy is not supported by the deprecated dataset.Save task, use dataset.Get with store: true instead");
+        }
+
+        DataSetFormat rFormat = runContext.render(this.format).as(DataSetFormat.class).orElse(DataSetFormat.JSON);
+        Optional<Long> rMaxRowsPerFile = runContext.render(this.maxRowsPerFile).as(Long.class);
+        Optional<Long> rMaxBytesPerFile = runContext.render(this.maxBytesPerFile).as(Long.class);
+        if (rMaxRowsPerFile.isPresent() || rMaxBytesPerFile.isPresent()) {
+            if (rFormat == DataSetFormat.JSONL || rFormat == DataSetFormat.CSV) {
+                if (runContext.render(this.storeCompressed).as(Boolean.class).orElse(false)) {
+                    runContext.logger().warn("Sharded exports are stored uncompressed, ignoring storeCompressed.");
+                }
+                return saveSharded(runContext, rFormat, rMaxRowsPerFile.orElse(null), rMaxBytesPerFile.orElse(null));
+            }
+            runContext.logger().warn("Sharding only supports JSONL and CSV formats, saving {} as a single file.", rFormat);
+        }
+
+        boolean rStoreCompressed = runContext.render(this.storeCompressed).as(Boolean.class).orElse(false);
+        if (isConvertedLocally(runContext)) {
+            return new Output(upload(runContext, convertToCsv(runContext), ".csv", rStoreCompressed));
+        }
+        if (runContext.render(this.convertLocally).as(Boolean.class).orElse(false)) {
+            runContext.logger().warn("Local conversion only supports the CSV format, downloading {} as rendered by Apify.", rFormat);
+        }
+
+        if (isPaged(runContext)) {
+            if (rFormat == DataSetFormat.JSONL || rFormat == DataSetFormat.CSV) {
+                return new Output(savePartitioned(runContext, rFormat, rStoreCompressed));
+            }
+            runContext.logger().warn("Partitioned and resumable downloads only support JSONL and CSV formats, downloading {} in a single request.", rFormat);
+        }
+
         String url = this.buildURL(runContext);
 
-        URI uri = withRetry(
+        if (rStoreCompressed) {
+            String extension = "." + rFormat + GZIP_EXTENSION;
+            URI uri = fetchWhenReady(
+                runContext,
+                isEmptyDataset(runContext),
+                () -> this.makeEncodedStreamingCall(
+                    runContext,
+                    this.buildGetRequest(url),
+                    (body, contentEncoding) -> runContext.storage().putFile(writeGzip(runContext, body, contentEncoding, extension).toFile())
+                )
+            );
+            return new Output(uri);
+        }
+
+        URI uri = fetchWhenReady(
             runContext,
             isEmptyDataset(runContext),
             () -> this.makeCallAndWriteToFile(runContext, this.buildGetRequest(url))
@@ -143,18 +337,234 @@ public class Save extends AbstractGetDataset implements RunnableTask<Save.Output
         return new Output(uri);
     }
 
+    private URI savePartitioned(RunContext runContext, DataSetFormat rFormat, boolean rStoreCompressed) throws Exception {
+        String extension = "." + rFormat;
+        if (rStoreCompressed) {
+            return upload(runContext, concatenateParts(runContext, fetchParts(runContext, extension), extension), extension, true);
+        }
+        return stitchParts(runContext, fetchParts(runContext, extension), extension);
+    }
+
+    /**
+     * Uploads a local export to internal storage, gzip-compressing it first when requested, and deletes the local file
+     */
+    private static URI upload(RunContext runContext, Path local, String extension, boolean compress) throws IOException {
+        Path stored = local;
+        if (compress) {
+            try (InputStream input = Files.newInputStream(local)) {
+                stored = writeGzip(runContext, input, null, extension + GZIP_EXTENSION);
+            }
+            Files.delete(local);
+        }
+
+        URI uri = runContext.storage().putFile(stored.toFile());
+        Files.deleteIfExists(stored);
+        return uri;
+    }
+
+    /**
+     * Writes a body as a local gzip file, copying it as is when it is already gzip-encoded and compressing it otherwise
+     */
+    private static Path writeGzip(RunContext runContext, InputStream body, String contentEncoding, String extension) throws IOException {
+        Path file = runContext.workingDir().createTempFile(extension);
+        if ("gzip".equals(contentEncoding) || "x-gzip".equals(contentEncoding)) {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        }
+
+        InputStream decoded = contentEncoding == null ? body : decoder(body, contentEncoding);
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+            decoded.transferTo(output);
+        }
+        return file;
+    }
+
+    /**
+     * Writes the export as a list of shards bounded by rows and/or bytes, reading the downloaded parts in order
+     */
+    private Output saveSharded(RunContext runContext, DataSetFormat rFormat, Long rMaxRows, Long rMaxBytes) throws Exception {
+        String extension = "." + rFormat;
+        boolean converted = isConvertedLocally(runContext);
+        List<Path> sources;
+        if (converted) {
+            sources = List.of(convertToCsv(runContext));
+        } else if (isPaged(runContext)) {
+            sources = fetchParts(runContext, extension);
+        } else {
+            sources = List.of(downloadLocally(runContext, extension));
+        }
+
+        boolean csv = rFormat == DataSetFormat.CSV;
+        List<Shard> shards = ShardWriter.split(
+            runContext,
+            sources,
+            extension,
+            csv,
+            csv && !runContext.render(this.skipHeaderRow).as(Boolean.class).orElse(false),
+            rMaxRows,
+            rMaxBytes
+        );
+
+        long records = shards.stream().mapToLong(Shard::count).sum();
+        runContext.logger().info("Saved {} dataset items in {} file(s).", records, shards.size());
+        if (!converted) {
+            metric(runContext, Counter.of("records", records));
+        }
+        return new Output(null, shards);
+    }
+
+    /**
+     * Downloads the items in the wire format into a local file, waiting for the dataset to be ready
+     */
+    private Path downloadLocally(RunContext runContext, String extension) throws Exception {
+        String url = this.buildURL(runContext);
+        return fetchWhenReady(
+            runContext,
+            (Path path) -> path.toFile().length() == 0,
+            () -> this.makeStreamingCall(
+                runContext,
+                this.buildGetRequest(url),
+                body ->
+                {
+                    Path download = runContext.workingDir().createTempFile(extension);
+                    Files.copy(body, download, StandardCopyOption.REPLACE_EXISTING);
+                    return download;
+                }
+            )
+        );
+    }
+
+    /**
+     * Downloads the items as JSONL, concurrently when partitioned, and converts them into a local CSV file
+     */
+    private Path convertToCsv(RunContext runContext) throws Exception {
+        Path jsonl = isPaged(runContext)
+            ? concatenateParts(runContext, fetchParts(runContext, ".jsonl"), ".jsonl")
+            : downloadLocally(runContext, ".jsonl");
+
+        Path csv = runContext.workingDir().createTempFile(".csv");
+        long rows;
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(csv))) {
+            rows = CsvConverter.convert(
+                jsonl,
+                output,
+                runContext.render(this.delimiter).as(String.class).orElse(","),
+                !runContext.render(this.skipHeaderRow).as(Boolean.class).orElse(false),
+                runContext.render(this.bom).as(Boolean.class).orElse(true)
+            );
+        }
+        Files.delete(jsonl);
+
+        runContext.logger().info("Converted {} dataset items to CSV.", rows);
+        metric(runContext, Counter.of("records", rows));
+        return csv;
+    }
+
+    /**
+     * Downloads the planned page ranges into local files, in order, restoring the ranges completed by a previous attempt when resumable
+     */
+    private List<Path> fetchParts(RunContext runContext, String extension) throws Exception {
+        List<PageRange> ranges = planPartitions(runContext);
+        SaveCheckpoint checkpoint = null;
+        if (isResumable(runContext)) {
+            checkpoint = SaveCheckpoint.open(runContext, checkpointStore(runContext), checkpointKey(runContext), checkpointFingerprint(runContext));
+            if (checkpoint.completed() > 0) {
+                runContext.logger().info("Resuming the download, {} page ranges were completed by a previous attempt.", checkpoint.completed());
+            }
+        }
+
+        SaveCheckpoint rCheckpoint = checkpoint;
+        AtomicInteger restored = new AtomicInteger();
+        List<Path> parts = fetchPartitions(
+            runContext,
+            ranges,
+            (index, range) ->
+            {
+                if (rCheckpoint != null) {
+                    Path part = rCheckpoint.restore(range, extension);
+                    if (part != null) {
+                        restored.incrementAndGet();
+                        return part;
+                    }
+                }
+
+                // the CSV header and BOM are only kept on the first range so that the stitched file has a single header row
+                String url = this.buildURL(runContext, range.offset(), range.limit(), index > 0);
+                Path part = runContext.workingDir().createTempFile(extension);
+                this.makeStreamingCall(
+                    runContext,
+                    this.buildGetRequest(url),
+                    body ->
+                    {
+                        Files.copy(body, part, StandardCopyOption.REPLACE_EXISTING);
+                        return part;
+                    }
+                );
+                if (rCheckpoint != null) {
+                    rCheckpoint.complete(range, part);
+                }
+                return part;
+            }
+        );
+
+        if (rCheckpoint != null) {
+            metric(runContext, Counter.of("dataset.resumed.ranges", restored.get()));
+        }
+        return parts;
+    }
+
+    private boolean isPaged(RunContext runContext) throws IllegalVariableEvaluationException {
+        return isPartitioned(runContext) || isResumable(runContext);
+    }
+
+    private boolean isResumable(RunContext runContext) throws IllegalVariableEvaluationException {
+        return runContext.render(this.resumable).as(Boolean.class).orElse(false);
+    }
+
+    protected KVStore checkpointStore(RunContext runContext) {
+        return runContext.namespaceKv(runContext.flowInfo().namespace());
+    }
+
+    private String checkpointKey(RunContext runContext) throws Exception {
+        Optional<String> rCheckpointKey = runContext.render(this.checkpointKey).as(String.class);
+        if (rCheckpointKey.isPresent()) {
+            return rCheckpointKey.get();
+        }
+        return CHECKPOINT_KEY_PREFIX + sha256(runContext.taskRunInfo().taskRunId() + "|" + checkpointFingerprint(runContext));
+    }
+
+    /**
+     * Identifies the query of the export, ranges stored for another query are never restored
+     */
+    private String checkpointFingerprint(RunContext runContext) throws Exception {
+        // the first range carries the CSV header, so the fingerprint covers the offset but not the limit
+        return sha256(this.buildURL(runContext, renderOffset(runContext), 0));
+    }
+
+    private static String sha256(String value) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
     @Override
-    public String buildURL(RunContext runContext) throws IllegalVariableEvaluationException {
-        Optional<Boolean> rBom = runContext.render(this.bom).as(Boolean.class);
+    protected String buildURL(RunContext runContext, int rOffset, int rLimit) throws IllegalVariableEvaluationException {
+        return buildURL(runContext, rOffset, rLimit, false);
+    }
 
-        String baseUrl = super.buildURL(runContext);
+    private String buildURL(RunContext runContext, int rOffset, int rLimit, boolean continuation) throws IllegalVariableEvaluationException {
+        Optional<Boolean> rBom = continuation ? Optional.of(false) : runContext.render(this.bom).as(Boolean.class);
+        DataSetFormat rFormat = isConvertedLocally(runContext)
+            ? DataSetFormat.JSONL
+            : runContext.render(this.format).as(DataSetFormat.class).orElse(DataSetFormat.JSON);
+        boolean rSkipHeaderRow = continuation || runContext.render(this.skipHeaderRow).as(Boolean.class).orElse(false);
+
+        String baseUrl = super.buildURL(runContext, rOffset, rLimit);
         final Map<String, Object> queryParamValues = new HashMap<>(
             Map.of(
-                "format", runContext.render(this.format).as(DataSetFormat.class).orElse(DataSetFormat.JSON),
+                "format", rFormat,
                 "delimiter", runContext.render(this.delimiter).as(String.class).orElse(","),
                 "xmlRoot", runContext.render(this.xmlRoot).as(String.class).orElse("items"),
                 "xmlRow", runContext.render(this.xmlRow).as(String.class).orElse("item"),
-                "skipHeaderRow", runContext.render(this.skipHeaderRow).as(Boolean.class).orElse(false)
+                "skipHeaderRow", rSkipHeaderRow
             )
         );
 
@@ -163,17 +573,42 @@ public class Save extends AbstractGetDataset implements RunnableTask<Save.Output
         return addQueryParams(baseUrl, queryParamValues);
     }
 
+    private boolean isConvertedLocally(RunContext runContext) throws IllegalVariableEvaluationException {
+        return runContext.render(this.convertLocally).as(Boolean.class).orElse(false)
+            && runContext.render(this.format).as(DataSetFormat.class).orElse(DataSetFormat.JSON) == DataSetFormat.CSV;
+    }
+
     @Getter
     @AllArgsConstructor
     public static class Output implements io.kestra.core.models.tasks.Output {
-        @Schema(title = "URI of the stored dataset file in Kestra's internal storage")
+        @Schema(title = "URI of the stored dataset file in Kestra's internal storage", description = "Empty when the export is split into `shards`.")
         private URI path;
+
+        @Schema(title = "Files of a sharded export, in order", description = "Only set when `maxRowsPerFile` or `maxBytesPerFile` is used.")
+        private List<Shard> shards;
+
+        public Output(URI path) {
+            this(path, null);
+        }
+    }
+
+    public record Shard(
+        @Schema(title = "URI of the shard in Kestra's internal storage")
+        URI uri,
+        @Schema(title = "Number of items in the shard")
+        long count,
+        @Schema(title = "Size of the shard in bytes")
+        long bytes
+    ) {
     }
 
     private static Predicate<URI> isEmptyDataset(RunContext runContext) {
         return (URI uri) ->
         {
-            try (InputStream inputStream = runContext.storage().getFile(uri)) {
+            try (
+                InputStream stored = runContext.storage().getFile(uri);
+                InputStream inputStream = uri.getPath().endsWith(GZIP_EXTENSION) ? new GZIPInputStream(stored) : stored
+            ) {
                 byte[] firstTwoChars = inputStream.readNBytes(2);
                 return Arrays.equals(firstTwoChars, EMPTY_DATASET_BYTES);
             } catch (Exception e) {
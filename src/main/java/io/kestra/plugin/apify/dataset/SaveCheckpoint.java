@@ -0,0 +1,143 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+/**
+ * Progress of a resumable {@link Save}. Every page range is uploaded to internal storage as soon as it is downloaded and
+ * recorded in the namespace KV store, so that a retried attempt restores the completed ranges and only fetches the others.
+ */
+final class SaveCheckpoint {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    // a checkpoint left behind by an attempt that is never retried expires on its own
+    private static final Duration TTL = Duration.ofDays(7);
+
+    private final RunContext runContext;
+    private final KVStore store;
+    private final String key;
+    private final String fingerprint;
+    private final Map<String, String> parts;
+
+    private SaveCheckpoint(RunContext runContext, KVStore store, String key, String fingerprint, Map<String, String> parts) {
+        this.runContext = runContext;
+        this.store = store;
+        this.key = key;
+        this.fingerprint = fingerprint;
+        this.parts = parts;
+    }
+
+    /**
+     * Loads the checkpoint stored under the key, ignoring one written for a different query
+     */
+    static SaveCheckpoint open(RunContext runContext, KVStore store, String key, String fingerprint) throws Exception {
+        Map<String, String> parts = new HashMap<>();
+        Optional<KVValue> value = store.getValue(key);
+        if (value.isPresent()) {
+            State state = MAPPER.readValue(String.valueOf(value.get().value()), State.class);
+            if (fingerprint.equals(state.fingerprint()) && state.parts() != null) {
+                parts.putAll(state.parts());
+            } else {
+                runContext.logger().info("Ignoring checkpoint {}, it was written for a different query.", key);
+                // the entry is about to be overwritten, nothing would reference its ranges anymore
+                deleteParts(runContext, state.parts() == null ? Map.of() : state.parts());
+            }
+        }
+
+        return new SaveCheckpoint(runContext, store, key, fingerprint, parts);
+    }
+
+    synchronized int completed() {
+        return parts.size();
+    }
+
+    /**
+     * Copies a range completed by a previous attempt to a local file, or returns null when the range has to be downloaded
+     */
+    Path restore(AbstractGetDataset.PageRange range, String extension) throws Exception {
+        String uri;
+        synchronized (this) {
+            uri = parts.get(id(range));
+        }
+        if (uri == null) {
+            return null;
+        }
+
+        Path part = runContext.workingDir().createTempFile(extension);
+        try (InputStream input = runContext.storage().getFile(URI.create(uri))) {
+            Files.copy(input, part, StandardCopyOption.REPLACE_EXISTING);
+            return part;
+        } catch (Exception e) {
+            runContext.logger().warn("Range [{}, {}) of checkpoint {} could not be restored ({}), downloading it again.", range.offset(), range.offset() + range.limit(), key, e.getMessage());
+            Files.deleteIfExists(part);
+            synchronized (this) {
+                parts.remove(id(range));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Uploads a downloaded range and records it, keeping the local file for the stitching
+     */
+    void complete(AbstractGetDataset.PageRange range, Path part) throws Exception {
+        URI uri;
+        try (InputStream input = Files.newInputStream(part)) {
+            uri = runContext.storage().putFile(input, part.getFileName().toString());
+        }
+
+        synchronized (this) {
+            parts.put(id(range), uri.toString());
+            store.put(
+                key,
+                new KVValueAndMetadata(new KVMetadata("Apify dataset save checkpoint", TTL), MAPPER.writeValueAsString(new State(fingerprint, parts)))
+            );
+        }
+    }
+
+    /**
+     * Deletes the uploaded ranges and forgets the checkpoint once the export has been stored, so that the dataset is not kept
+     * twice in internal storage
+     */
+    void clear() throws Exception {
+        Map<String, String> uploaded;
+        synchronized (this) {
+            uploaded = Map.copyOf(parts);
+            parts.clear();
+        }
+        deleteParts(runContext, uploaded);
+        store.delete(key);
+    }
+
+    private static void deleteParts(RunContext runContext, Map<String, String> parts) {
+        for (String uri : parts.values()) {
+            try {
+                runContext.storage().deleteFile(URI.create(uri));
+            } catch (Exception e) {
+                runContext.logger().warn("Checkpoint range {} could not be deleted ({}).", uri, e.getMessage());
+            }
+        }
+    }
+
+    private static String id(AbstractGetDataset.PageRange range) {
+        return range.offset() + "+" + range.limit();
+    }
+
+    record State(String fingerprint, Map<String, String> parts) {
+    }
+}
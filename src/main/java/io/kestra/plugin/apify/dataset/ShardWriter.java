@@ -0,0 +1,130 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.kestra.core.runners.RunContext;
+
+/**
+ * Splits line-delimited exports (JSONL or CSV) into shards bounded by a number of records and/or bytes.
+ * <p>
+ * Files are cut on record boundaries only: a CSV record continues over line breaks while one of its quoted fields is open.
+ * When the export starts with a CSV header, the header is repeated at the top of every shard so each one is readable on its own.
+ * Shards are uploaded to internal storage as soon as they are complete, keeping a single shard on local disk at a time.
+ */
+final class ShardWriter {
+    private final RunContext runContext;
+    private final String extension;
+    private final long maxRows;
+    private final long maxBytes;
+    private final List<Save.Shard> shards = new ArrayList<>();
+
+    private byte[] header;
+    private Path current;
+    private OutputStream output;
+    private long rows;
+    private long bytes;
+
+    private ShardWriter(RunContext runContext, String extension, Long maxRows, Long maxBytes) {
+        this.runContext = runContext;
+        this.extension = extension;
+        this.maxRows = maxRows == null ? Long.MAX_VALUE : maxRows;
+        this.maxBytes = maxBytes == null ? Long.MAX_VALUE : maxBytes;
+    }
+
+    /**
+     * Reads the sources in order as one export and returns the uploaded shards in order; sources are deleted once consumed
+     */
+    static List<Save.Shard> split(
+        RunContext runContext,
+        List<Path> sources,
+        String extension,
+        boolean csv,
+        boolean withHeader,
+        Long maxRows,
+        Long maxBytes) throws IOException {
+        ShardWriter writer = new ShardWriter(runContext, extension, maxRows, maxBytes);
+        boolean expectHeader = withHeader;
+
+        for (Path source : sources) {
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(source))) {
+                byte[] record;
+                while ((record = readRecord(input, csv)) != null) {
+                    if (expectHeader) {
+                        writer.header = record;
+                        expectHeader = false;
+                    } else {
+                        writer.write(record);
+                    }
+                }
+            }
+            Files.delete(source);
+        }
+
+        writer.closeShard();
+        return writer.shards;
+    }
+
+    private void write(byte[] record) throws IOException {
+        if (output != null && (rows >= maxRows || (rows > 0 && bytes + record.length > maxBytes))) {
+            closeShard();
+        }
+        if (output == null) {
+            current = runContext.workingDir().createTempFile(extension);
+            output = new BufferedOutputStream(Files.newOutputStream(current));
+            rows = 0;
+            bytes = 0;
+            if (header != null) {
+                output.write(header);
+                bytes += header.length;
+            }
+        }
+
+        output.write(record);
+        rows++;
+        bytes += record.length;
+    }
+
+    private void closeShard() throws IOException {
+        if (output == null) {
+            return;
+        }
+
+        output.close();
+        shards.add(new Save.Shard(runContext.storage().putFile(current.toFile()), rows, bytes));
+        Files.delete(current);
+        output = null;
+    }
+
+    /**
+     * Reads the next record including its line terminator, or returns {@code null} at the end of the input
+     */
+    static byte[] readRecord(InputStream input, boolean csv) throws IOException {
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        boolean quoted = false;
+        int read;
+        while ((read = input.read()) != -1) {
+            record.write(read);
+            if (csv && read == '"') {
+                quoted = !quoted;
+            } else if (read == '\n' && !quoted) {
+                return record.toByteArray();
+            }
+        }
+        if (record.size() == 0) {
+            return null;
+        }
+
+        // the last record of a part may lack its line terminator, add it so the next part starts on a new line
+        record.write('\n');
+        return record.toByteArray();
+    }
+}
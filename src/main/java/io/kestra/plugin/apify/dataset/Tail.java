@@ -0,0 +1,187 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.apify.ApifySortDirection;
+import io.kestra.plugin.apify.actor.ActorJobStatus;
+import io.kestra.plugin.apify.actor.ActorRun;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Tail the dataset of a running actor run",
+    description = """
+        Follows the default dataset of an actor run while the run is still going: every poll reads the dataset item count and appends
+        the items beyond the last consumed position to an ION file in Kestra's internal storage, until the run reaches a terminal status
+        and its dataset is fully drained. Downloading thus overlaps with crawling instead of starting once the run is over.
+        `offset` sets the initial position and `limit` the number of items fetched per request.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Start a long crawl and download its items while it runs.",
+            full = true,
+            code = """
+                id: tail_actor_run
+                namespace: company.team
+
+                tasks:
+                  - id: run_actor
+                    type: io.kestra.plugin.apify.actor.Run
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    actorId: apify~website-content-crawler
+                    input:
+                      startUrls:
+                        - url: "https://kestra.io"
+
+                  - id: tail_dataset
+                    type: io.kestra.plugin.apify.dataset.Tail
+                    apiToken: "{{ secret('APIFY_API_TOKEN') }}"
+                    runId: "{{ outputs.run_actor.id }}"
+                    pollInterval: PT30S
+                    limit: 5000
+                """
+        )
+    }
+)
+public class Tail extends AbstractDatasetQuery implements RunnableTask<Tail.Output> {
+    @Schema(
+        title = "Run ID",
+        description = "Apify actor run whose default dataset will be followed."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> runId;
+
+    @Schema(
+        title = "Poll interval",
+        description = "Maximum time between two reads of the dataset while the run is going; the poll returns early when the run finishes. Default 10 seconds."
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Duration> pollInterval = Property.ofValue(Duration.ofSeconds(10));
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        return withCallMetrics(runContext, () -> execute(runContext));
+    }
+
+    private Output execute(RunContext runContext) throws Exception {
+        String rRunId = runContext.render(this.runId).as(String.class).orElseThrow(
+            () -> new IllegalArgumentException("runId is required")
+        );
+        Duration rPollInterval = runContext.render(this.pollInterval).as(Duration.class).orElse(Duration.ofSeconds(10));
+        int pollSecs = (int) Math.clamp(rPollInterval.toSeconds(), 1, 60);
+        int rPageSize = renderLimit(runContext);
+
+        if (runContext.render(this.getSort()).as(ApifySortDirection.class).orElse(ApifySortDirection.ASC) == ApifySortDirection.DESC) {
+            throw new IllegalArgumentException("dataset.Tail requires an ascending sort, as offsets of a descending dataset shift when items are added");
+        }
+
+        ActorRun run = getRun(runContext, rRunId, 0);
+        String datasetId = run.getDefaultDatasetId();
+        long watermark = renderOffset(runContext);
+        long count = 0;
+
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+        ItemDeduplicator deduplicator = openDeduplicator(runContext);
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+            int waitSecs = 0;
+            while (true) {
+                // read the status before the item count so that a terminal status guarantees every item is counted
+                run = getRun(runContext, rRunId, waitSecs);
+                boolean terminal = run.getStatus() != null && run.getStatus().isTerminal();
+
+                long itemCount = itemCount(runContext, datasetId);
+                long appended = 0;
+                long previousWatermark = watermark;
+                while (watermark < itemCount) {
+                    int pageLimit = (int) Math.min(rPageSize, itemCount - watermark);
+                    appended += streamItemsToIon(runContext, buildGetRequest(itemsPath(runContext, datasetId, (int) watermark, pageLimit)), output, deduplicator);
+                    watermark += pageLimit;
+                }
+                output.flush();
+                count += appended;
+
+                if (appended > 0) {
+                    runContext.logger().debug("Appended {} items of dataset {}, position is now {}.", appended, datasetId, watermark);
+                }
+
+                if (terminal) {
+                    // the dataset item count can lag behind the run status, poll again while it still moves and stop on the
+                    // first poll that brings nothing new
+                    if (watermark == previousWatermark) {
+                        break;
+                    }
+                    Thread.sleep(rPollInterval.toMillis());
+                }
+                waitSecs = pollSecs;
+            }
+        } finally {
+            closeDeduplicator(runContext, deduplicator);
+        }
+
+        runContext.metric(Counter.of("items", count));
+        runContext.logger().info("Run {} finished with status {}, tailed {} items.", rRunId, run.getStatus(), count);
+
+        return new Output(runContext.storage().putFile(file), count, watermark, datasetId, run.getStatus());
+    }
+
+    private long itemCount(RunContext runContext, String datasetId) throws Exception {
+        Dataset dataset = makeCall(
+            runContext,
+            buildGetRequest(String.format("datasets/%s", datasetId)),
+            DatasetApiResponseWrapper.class
+        ).getData();
+        return dataset.getItemCount() == null ? 0 : dataset.getItemCount();
+    }
+
+    private String itemsPath(RunContext runContext, String datasetId, int rOffset, int rLimit) throws Exception {
+        Map<String, Object> queryParams = projectionQueryParams(runContext, rOffset, rLimit);
+        return addQueryParams(String.format("datasets/%s/items", datasetId), queryParams);
+    }
+
+    public record Output(
+        @Schema(title = "URI of the ION file holding the tailed items in Kestra's internal storage")
+        URI uri,
+
+        @Schema(title = "Number of items written")
+        Long count,
+
+        @Schema(title = "Dataset position after the last consumed item")
+        Long offset,
+
+        @Schema(title = "ID of the run's default dataset")
+        String datasetId,
+
+        @Schema(title = "Final status of the run")
+        ActorJobStatus status
+    ) implements io.kestra.core.models.tasks.Output {
+    }
+}
@@ -1,5 +1,6 @@
 package io.kestra.plugin.apify.task;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,6 +20,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -96,10 +98,32 @@ public class Run extends ApifyConnection implements RunnableTask<ActorRun> {
 
     @Schema(
         title = "Memory (MB)",
-        description = "Memory allocation for the run; must be a power of two between 128 MB and 32768 MB."
+        description = "Memory allocation for the run; must be a power of two between 128 MB and 32768 MB. `AUTO` sizes it from the peak memory of recent successful runs, see `autoMemorySampleSize`, `autoMemoryHeadroom` and `autoMemoryCacheTtl`."
     )
     private Property<MemoryMbytes> memory;
 
+    @Schema(
+        title = "Runs sampled for AUTO memory",
+        description = "Number of recent successful runs whose peak memory sizes the run when `memory` is `AUTO`; default 10."
+    )
+    @Builder.Default
+    @Min(1)
+    private Property<Integer> autoMemorySampleSize = Property.ofValue(DEFAULT_AUTO_MEMORY_SAMPLE_SIZE);
+
+    @Schema(
+        title = "Headroom for AUTO memory",
+        description = "Fraction added to the peak memory of the sampled runs before rounding up to a power of two when `memory` is `AUTO`; default 0.25."
+    )
+    @Builder.Default
+    private Property<Double> autoMemoryHeadroom = Property.ofValue(DEFAULT_AUTO_MEMORY_HEADROOM);
+
+    @Schema(
+        title = "Cache TTL for AUTO memory",
+        description = "How long a memory size chosen by `AUTO` is reused before the run history is sampled again; default 6 hours."
+    )
+    @Builder.Default
+    private Property<Duration> autoMemoryCacheTtl = Property.ofValue(DEFAULT_AUTO_MEMORY_CACHE_TTL);
+
     @Schema(
         title = "Max items",
         description = "Cap number of items returned to control pay-per-result charges."
@@ -124,6 +148,27 @@ public class Run extends ApifyConnection implements RunnableTask<ActorRun> {
     )
     private Property<@Min(0) @Max(60) Integer> waitForFinish;
 
+    @Schema(
+        title = "Wait for terminal status",
+        description = "When true, long-poll the run with `waitForFinish=60` requests until it reaches a terminal status (SUCCEEDED, FAILED, TIMED_OUT or ABORTED) and return the final run; default false."
+    )
+    @Builder.Default
+    private Property<Boolean> wait = Property.ofValue(false);
+
+    @Schema(
+        title = "Maximum wait duration",
+        description = "Overall deadline for `wait` mode; the task fails if the run is still going after this duration. Default 1 hour."
+    )
+    @Builder.Default
+    private Property<Duration> maxWaitDuration = Property.ofValue(Duration.ofHours(1));
+
+    @Schema(
+        title = "Abort on timeout",
+        description = "Abort the run when `maxWaitDuration` elapses in `wait` mode; default false."
+    )
+    @Builder.Default
+    private Property<Boolean> abortOnTimeout = Property.ofValue(false);
+
     @Schema(
         title = "Webhooks",
         description = "Base64-encoded JSON array describing webhooks for lifecycle events."
@@ -132,6 +177,10 @@ public class Run extends ApifyConnection implements RunnableTask<ActorRun> {
 
     @Override
     public ActorRun run(RunContext runContext) throws Exception {
+        return withCallMetrics(runContext, () -> execute(runContext));
+    }
+
+    private ActorRun execute(RunContext runContext) throws Exception {
         var rTaskId = runContext.render(this.taskId).as(String.class).orElseThrow(
             () -> new IllegalArgumentException("taskId is required")
         );
@@ -139,7 +188,14 @@ public class Run extends ApifyConnection implements RunnableTask<ActorRun> {
         var rInput = runContext.render(this.input).asMap(String.class, Object.class);
         Map<String, Optional<?>> queryParams = Map.of(
             "timeout", runContext.render(this.requestTimeout).as(Double.class),
-            "memory", runContext.render(this.memory).as(MemoryMbytes.class),
+            "memory", autoSizeMemory(
+                runContext,
+                runContext.render(this.memory).as(MemoryMbytes.class),
+                String.format("actor-tasks/%s/runs", rTaskId),
+                runContext.render(this.autoMemorySampleSize).as(Integer.class).orElse(DEFAULT_AUTO_MEMORY_SAMPLE_SIZE),
+                runContext.render(this.autoMemoryHeadroom).as(Double.class).orElse(DEFAULT_AUTO_MEMORY_HEADROOM),
+                runContext.render(this.autoMemoryCacheTtl).as(Duration.class).orElse(DEFAULT_AUTO_MEMORY_CACHE_TTL)
+            ).map(MemoryMbytes::getValue),
             "maxItems", runContext.render(this.maxItems).as(Integer.class),
             "maxTotalChargeUsd", runContext.render(this.maxTotalChargeUsd).as(Double.class),
             "build", runContext.render(this.build).as(String.class),
@@ -161,8 +217,19 @@ public class Run extends ApifyConnection implements RunnableTask<ActorRun> {
             rInput
         );
 
-        return makeCall(
+        ActorRun run = makeCall(
             runContext, requestBuilder, ActorRunApiResponseWrapper.class
         ).getData();
+
+        if (runContext.render(this.wait).as(Boolean.class).orElse(false)) {
+            run = waitForRun(
+                runContext,
+                run,
+                runContext.render(this.maxWaitDuration).as(Duration.class).orElse(Duration.ofHours(1)),
+                runContext.render(this.abortOnTimeout).as(Boolean.class).orElse(false)
+            );
+        }
+
+        return recordRunMetrics(runContext, run);
     }
 }
@@ -0,0 +1,77 @@
+package io.kestra.plugin.apify;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.AbstractMetricEntry;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@KestraTest
+class ApifyCallMetricsTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenManyCallsInATaskRun_whenItEnds_thenMetricsAreEmittedOncePerEndpointAndStatus() throws Exception {
+        RunContext runContext = runContextFactory.of();
+
+        ApifyCallMetrics.scoped(runContext, () -> {
+            for (int i = 0; i < 500; i++) {
+                long duration = Duration.ofMillis(i % 2 == 0 ? 10 : 30).toNanos();
+                ApifyCallMetrics.record(runContext, metrics -> metrics.call("datasets/{id}/items", "200", duration, -1, 100, 400));
+                ApifyCallMetrics.record(runContext, metrics -> metrics.lease(ApifyHttpClientPool.LeaseKind.HIT));
+            }
+            ApifyCallMetrics.record(runContext, metrics -> metrics.call("datasets/{id}/items", "429", 0, -1, -1, -1));
+            assertTrue(runContext.metrics().isEmpty(), "metrics were recorded before the task run ended");
+            return null;
+        });
+
+        List<AbstractMetricEntry<?>> metrics = runContext.metrics();
+        // requests, duration and max duration for both statuses, then bytes, decoded bytes, saved bytes and pool hits
+        assertEquals(10, metrics.size());
+        assertEquals(500.0, value(metrics, "http.requests", "200"));
+        assertEquals(Duration.ofMillis(30).toNanos(), ((Duration) metric(metrics, "http.request.duration.max", "200").getValue()).toNanos());
+        assertEquals(Duration.ofMillis(10_000).toNanos(), ((Duration) metric(metrics, "http.request.duration", "200").getValue()).toNanos());
+        assertEquals(150_000.0, value(metrics, "http.compression.saved.bytes", null));
+        assertEquals(500.0, value(metrics, "http.pool.hits", null));
+        assertTrue(metrics.stream().noneMatch(metric -> metric.getName().equals("ratelimit.wait")));
+    }
+
+    @Test
+    void givenNestedScopes_whenTheInnerOneEnds_thenMetricsWaitForTheOutermost() throws Exception {
+        RunContext runContext = runContextFactory.of();
+
+        ApifyCallMetrics.scoped(runContext, () -> {
+            ApifyCallMetrics.scoped(runContext, () -> {
+                ApifyCallMetrics.record(runContext, metrics -> metrics.rateLimitWait(Duration.ofMillis(5)));
+                return null;
+            });
+            ApifyCallMetrics.record(runContext, metrics -> metrics.rateLimitWait(Duration.ofMillis(7)));
+            assertTrue(runContext.metrics().isEmpty());
+            return null;
+        });
+
+        assertEquals(1, runContext.metrics().size());
+        assertEquals(Duration.ofMillis(12), runContext.metrics().getFirst().getValue());
+    }
+
+    private static AbstractMetricEntry<?> metric(List<AbstractMetricEntry<?>> metrics, String name, String status) {
+        return metrics.stream()
+            .filter(metric -> metric.getName().equals(name) && (status == null || status.equals(metric.getTags().get("status"))))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static double value(List<AbstractMetricEntry<?>> metrics, String name, String status) {
+        return ((Number) metric(metrics, name, status).getValue()).doubleValue();
+    }
+}
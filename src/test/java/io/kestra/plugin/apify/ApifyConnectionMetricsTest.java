@@ -0,0 +1,18 @@
+package io.kestra.plugin.apify;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ApifyConnectionMetricsTest {
+    @Test
+    void givenResourceUrls_whenTemplated_thenIdsAreReplacedByPlaceholders() {
+        assertEquals("acts/{id}/runs", ApifyConnection.endpointTemplate(URI.create("https://api.apify.com/v2/acts/GdWCkxBtKWOsKjdch/runs?desc=1")));
+        assertEquals("acts/{id}/runs/last", ApifyConnection.endpointTemplate(URI.create("https://api.apify.com/v2/acts/apify~crawler/runs/last")));
+        assertEquals("datasets/{id}/items", ApifyConnection.endpointTemplate(URI.create("https://api.apify.com/v2/datasets/abc123/items?offset=0")));
+        assertEquals("actor-runs/{id}/abort", ApifyConnection.endpointTemplate(URI.create("https://api.apify.com/v2/actor-runs/run-id/abort")));
+        assertEquals("webhooks", ApifyConnection.endpointTemplate(URI.create("https://api.apify.com/v2/webhooks")));
+    }
+}
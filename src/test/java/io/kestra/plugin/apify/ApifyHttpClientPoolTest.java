@@ -0,0 +1,125 @@
+package io.kestra.plugin.apify;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@KestraTest
+class ApifyHttpClientPoolTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @BeforeEach
+    @AfterEach
+    void clearPool() {
+        ApifyHttpClientPool.clear();
+    }
+
+    @Test
+    void givenSameConnectionProfile_whenLeasedTwice_thenSecondLeaseReusesClient() throws Exception {
+        RunContext runContext = runContextFactory.of();
+
+        try (
+            ApifyHttpClientPool.Lease first = ApifyHttpClientPool.acquire(runContext, null, "http://localhost");
+            ApifyHttpClientPool.Lease second = ApifyHttpClientPool.acquire(runContext, null, "http://localhost")
+        ) {
+            assertEquals(ApifyHttpClientPool.LeaseKind.MISS, first.kind());
+            assertEquals(ApifyHttpClientPool.LeaseKind.HIT, second.kind());
+            assertSame(first.client(), second.client());
+        }
+
+        assertEquals(1, ApifyHttpClientPool.size());
+    }
+
+    @Test
+    void givenTwoRunContexts_whenBothLeaseTheSameProfile_thenEachReusesOnlyItsOwnClient() throws Exception {
+        RunContext firstContext = runContextFactory.of();
+        RunContext secondContext = runContextFactory.of();
+
+        try (
+            ApifyHttpClientPool.Lease first = ApifyHttpClientPool.acquire(firstContext, null, "http://localhost");
+            ApifyHttpClientPool.Lease firstAgain = ApifyHttpClientPool.acquire(firstContext, null, "http://localhost");
+            ApifyHttpClientPool.Lease second = ApifyHttpClientPool.acquire(secondContext, null, "http://localhost");
+            ApifyHttpClientPool.Lease secondAgain = ApifyHttpClientPool.acquire(secondContext, null, "http://localhost")
+        ) {
+            assertEquals(ApifyHttpClientPool.LeaseKind.HIT, firstAgain.kind());
+            assertEquals(ApifyHttpClientPool.LeaseKind.MISS, second.kind());
+            assertEquals(ApifyHttpClientPool.LeaseKind.HIT, secondAgain.kind());
+            assertSame(first.client(), firstAgain.client());
+            assertSame(second.client(), secondAgain.client());
+            // the client logs to and renders with the context it was built with, so a hit never crosses contexts
+            assertNotSame(first.client(), secondAgain.client());
+        }
+
+        assertEquals(2, ApifyHttpClientPool.size());
+    }
+
+    @Test
+    void givenDifferentBaseUrls_whenLeased_thenEachGetsItsOwnClient() throws Exception {
+        RunContext runContext = runContextFactory.of();
+
+        try (
+            ApifyHttpClientPool.Lease first = ApifyHttpClientPool.acquire(runContext, null, "http://localhost:1");
+            ApifyHttpClientPool.Lease second = ApifyHttpClientPool.acquire(runContext, null, "http://localhost:2")
+        ) {
+            assertEquals(ApifyHttpClientPool.LeaseKind.MISS, second.kind());
+            assertNotSame(first.client(), second.client());
+        }
+
+        assertEquals(2, ApifyHttpClientPool.size());
+    }
+
+    @Test
+    void givenPoolAtCapacity_whenNewProfileLeased_thenEldestClientIsEvicted() throws Exception {
+        RunContext runContext = runContextFactory.of();
+
+        for (int i = 0; i <= ApifyHttpClientPool.MAX_POOL_SIZE; i++) {
+            ApifyHttpClientPool.acquire(runContext, null, "http://localhost:" + i).close();
+        }
+
+        assertEquals(ApifyHttpClientPool.MAX_POOL_SIZE, ApifyHttpClientPool.size());
+        try (ApifyHttpClientPool.Lease lease = ApifyHttpClientPool.acquire(runContext, null, "http://localhost:0")) {
+            assertEquals(ApifyHttpClientPool.LeaseKind.MISS, lease.kind());
+        }
+    }
+
+    @Test
+    void givenReleasedClient_whenIdleTimeoutElapsesWithoutAnotherLease_thenSweeperClosesIt() throws Exception {
+        RunContext runContext = runContextFactory.of();
+
+        ApifyHttpClientPool.Lease lease = ApifyHttpClientPool.acquire(runContext, null, "http://localhost");
+        lease.close();
+        assertTrue(ApifyHttpClientPool.sweeping());
+
+        ApifyHttpClientPool.sweep(System.nanoTime());
+        assertFalse(lease.closed());
+
+        ApifyHttpClientPool.sweep(System.nanoTime() + ApifyHttpClientPool.IDLE_TIMEOUT.plusSeconds(1).toNanos());
+        assertTrue(lease.closed());
+        assertEquals(0, ApifyHttpClientPool.size());
+        assertFalse(ApifyHttpClientPool.sweeping());
+    }
+
+    @Test
+    void givenLeasedClient_whenSweptAfterIdleTimeout_thenItStaysOpen() throws Exception {
+        RunContext runContext = runContextFactory.of();
+
+        try (ApifyHttpClientPool.Lease lease = ApifyHttpClientPool.acquire(runContext, null, "http://localhost")) {
+            ApifyHttpClientPool.sweep(System.nanoTime() + ApifyHttpClientPool.IDLE_TIMEOUT.plusSeconds(1).toNanos());
+            assertFalse(lease.closed());
+            assertEquals(1, ApifyHttpClientPool.size());
+        }
+    }
+}
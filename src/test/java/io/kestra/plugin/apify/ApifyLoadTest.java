@@ -0,0 +1,128 @@
+package io.kestra.plugin.apify;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.plugin.apify.dataset.Get;
+
+import jakarta.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load harness running many concurrent {@code dataset.Get} tasks against {@link ApifyStandInServer} and reporting their
+ * latency percentiles and the peak heap used. Skipped by default, run it with {@code ./gradlew loadTest}; the number of
+ * tasks, items per dataset and server latency are set with the {@code apify.load.tasks}, {@code apify.load.items} and
+ * {@code apify.load.latencyMs} system properties.
+ */
+@KestraTest
+@EnabledIfSystemProperty(named = "apify.load", matches = "true")
+class ApifyLoadTest {
+    private static final Logger log = LoggerFactory.getLogger(ApifyLoadTest.class);
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenConcurrentGetTasks_whenRunAgainstStandIn_thenReportsLatencyPercentilesAndPeakHeap() throws Exception {
+        int tasks = Integer.getInteger("apify.load.tasks", 1000);
+        int items = Integer.getInteger("apify.load.items", 100);
+        Duration latency = Duration.ofMillis(Long.getLong("apify.load.latencyMs", 20));
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong peakHeap = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+
+        try (ApifyStandInServer server = ApifyStandInServer.start().install()) {
+            server.latency(latency).seedDataset(
+                "load",
+                IntStream.range(0, items).mapToObj(i -> Map.<String, Object>of("id", i, "url", "https://example.com/" + i)).toList()
+            );
+
+            System.gc();
+            long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+            sampler.scheduleAtFixedRate(
+                () -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 10, TimeUnit.MILLISECONDS
+            );
+
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>(tasks));
+            CountDownLatch start = new CountDownLatch(1);
+            long wallStart;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Long>> futures = new ArrayList<>(tasks);
+                for (int i = 0; i < tasks; i++) {
+                    // one token per task, as if every task belonged to its own account, so the rate limit of the shared dataset does not dominate
+                    Get get = Get.builder()
+                        .id("get_" + i)
+                        .type(Get.class.getName())
+                        .apiToken(Property.ofValue("load-" + i))
+                        .datasetId(Property.ofValue("load"))
+                        .limit(Property.ofValue(items))
+                        .build();
+                    futures.add(executor.submit(() ->
+                    {
+                        start.await();
+                        long taskStart = System.nanoTime();
+                        long count = get.run(runContextFactory.of()).count();
+                        latencies.add(System.nanoTime() - taskStart);
+                        return count;
+                    }));
+                }
+
+                wallStart = System.nanoTime();
+                start.countDown();
+                for (Future<Long> future : futures) {
+                    assertEquals(Long.valueOf(items), future.get());
+                }
+            }
+            long wallNanos = System.nanoTime() - wallStart;
+            sampler.shutdownNow();
+
+            List<Long> sorted = latencies.stream().sorted().toList();
+            log.info(
+                "{} concurrent Get tasks of {} items, {} ms server latency: p50 {} ms, p99 {} ms, max {} ms, {} tasks/s, {} requests, peak heap +{} MB",
+                tasks,
+                items,
+                latency.toMillis(),
+                millis(percentile(sorted, 0.50)),
+                millis(percentile(sorted, 0.99)),
+                millis(sorted.getLast()),
+                String.format("%.1f", tasks / (wallNanos / 1e9)),
+                server.requests(),
+                (peakHeap.get() - baselineHeap) / (1024 * 1024)
+            );
+        } finally {
+            sampler.shutdownNow();
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1));
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,62 @@
+package io.kestra.plugin.apify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.kestra.plugin.apify.actor.ActorRun;
+import io.kestra.plugin.apify.actor.ActorRunStats;
+import io.kestra.plugin.apify.actor.MemoryMbytes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApifyMemoryAutoSizerTest {
+    private static final double MB = 1024 * 1024;
+
+    @AfterEach
+    void clearDecisions() {
+        ApifyMemoryAutoSizer.clear();
+    }
+
+    @Test
+    void givenPeakMemoryWithHeadroom_whenChoosing_thenRoundsUpToNextPowerOfTwo() {
+        List<ActorRun> runs = List.of(run(400 * MB, 0), run(600 * MB, 0));
+
+        assertEquals(Optional.of(MemoryMbytes.MB_1024), ApifyMemoryAutoSizer.choose(runs, 0.25));
+        assertEquals(Optional.of(MemoryMbytes.MB_1024), ApifyMemoryAutoSizer.choose(runs, 0.0));
+        assertEquals(Optional.of(MemoryMbytes.MB_128), ApifyMemoryAutoSizer.choose(List.of(run(50 * MB, 0)), 0.25));
+    }
+
+    @Test
+    void givenRestartedRun_whenChoosing_thenAddsOneSize() {
+        assertEquals(Optional.of(MemoryMbytes.MB_2048), ApifyMemoryAutoSizer.choose(List.of(run(600 * MB, 1)), 0.25));
+        assertEquals(Optional.of(MemoryMbytes.MB_32768), ApifyMemoryAutoSizer.choose(List.of(run(30_000 * MB, 1)), 0.25));
+    }
+
+    @Test
+    void givenNoMemoryStatistics_whenChoosing_thenLeavesDefault() {
+        assertTrue(ApifyMemoryAutoSizer.choose(List.of(new ActorRun()), 0.25).isEmpty());
+    }
+
+    @Test
+    void givenExpiredDecision_whenReadingCache_thenMisses() {
+        ApifyMemoryAutoSizer.remember("key", Optional.of(MemoryMbytes.MB_512), Duration.ofSeconds(1), 0);
+
+        assertEquals(Optional.of(MemoryMbytes.MB_512), ApifyMemoryAutoSizer.cached("key", Duration.ofMillis(500).toNanos()).flatMap(ApifyMemoryAutoSizer.Decision::memory));
+        assertTrue(ApifyMemoryAutoSizer.cached("key", Duration.ofSeconds(2).toNanos()).isEmpty());
+    }
+
+    private static ActorRun run(double memMaxBytes, double restartCount) {
+        ActorRunStats stats = new ActorRunStats();
+        stats.setMemMaxBytes(memMaxBytes);
+        stats.setRestartCount(restartCount);
+        stats.setDurationMillis(60_000.0);
+        ActorRun run = new ActorRun();
+        run.setStats(stats);
+        return run;
+    }
+}
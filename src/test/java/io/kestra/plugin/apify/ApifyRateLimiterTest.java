@@ -0,0 +1,77 @@
+package io.kestra.plugin.apify;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApifyRateLimiterTest {
+    private static final long NOW = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void givenFullBucket_whenBurstExceedsRate_thenExtraRequestIsQueued() {
+        ApifyRateLimiter rateLimiter = new ApifyRateLimiter(NOW);
+
+        for (int i = 0; i < ApifyRateLimiter.MAX_RATE; i++) {
+            assertEquals(0, rateLimiter.reserve(NOW));
+        }
+
+        long waitNanos = rateLimiter.reserve(NOW);
+        assertEquals((long) (TimeUnit.SECONDS.toNanos(1) / ApifyRateLimiter.MAX_RATE), waitNanos);
+    }
+
+    @Test
+    void givenRateLimitedResponse_whenReserving_thenWaitsForRetryAfterAndHalvesRate() {
+        ApifyRateLimiter rateLimiter = new ApifyRateLimiter(NOW);
+
+        rateLimiter.onRateLimited(NOW, Duration.ofSeconds(2));
+
+        assertEquals(ApifyRateLimiter.MAX_RATE / 2, rateLimiter.rate());
+        assertTrue(rateLimiter.reserve(NOW) >= TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void givenSuccessfulCalls_whenRecovering_thenRateNeverExceedsMaximum() {
+        ApifyRateLimiter rateLimiter = new ApifyRateLimiter(NOW);
+        rateLimiter.onRateLimited(NOW, Duration.ZERO);
+
+        for (int i = 0; i < 1000; i++) {
+            rateLimiter.onSuccess();
+        }
+
+        assertEquals(ApifyRateLimiter.MAX_RATE, rateLimiter.rate());
+    }
+
+    @Test
+    void givenSameToken_whenCallingDifferentResources_thenEachResourceHasItsOwnBucket() {
+        String datasetItems = ApifyConnection.resource(URI.create("https://api.apify.com/v2/datasets/abc123/items?offset=0"));
+        String dataset = ApifyConnection.resource(URI.create("https://api.apify.com/v2/datasets/abc123"));
+        String otherDataset = ApifyConnection.resource(URI.create("https://api.apify.com/v2/datasets/def456/items"));
+
+        assertEquals("datasets/abc123", datasetItems);
+        assertEquals("webhooks", ApifyConnection.resource(URI.create("https://api.apify.com/v2/webhooks")));
+        assertSame(ApifyRateLimiter.forResource("token", datasetItems), ApifyRateLimiter.forResource("token", dataset));
+        assertNotSame(ApifyRateLimiter.forResource("token", datasetItems), ApifyRateLimiter.forResource("token", otherDataset));
+        assertNotSame(ApifyRateLimiter.forResource("token", datasetItems), ApifyRateLimiter.forResource("other-token", datasetItems));
+    }
+
+    @Test
+    void givenBucketBackAtFullRate_whenUnusedForAMinute_thenItIsIdle() {
+        ApifyRateLimiter rateLimiter = new ApifyRateLimiter(NOW);
+        rateLimiter.onRateLimited(NOW, Duration.ZERO);
+
+        assertFalse(rateLimiter.isIdle(NOW + TimeUnit.MINUTES.toNanos(2)));
+        for (int i = 0; i < 1000; i++) {
+            rateLimiter.onSuccess();
+        }
+        assertFalse(rateLimiter.isIdle(NOW + TimeUnit.SECONDS.toNanos(1)));
+        assertTrue(rateLimiter.isIdle(NOW + TimeUnit.MINUTES.toNanos(2)));
+    }
+}
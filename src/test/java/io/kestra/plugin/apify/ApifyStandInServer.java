@@ -0,0 +1,408 @@
+package io.kestra.plugin.apify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Embedded stand-in for the Apify API endpoints used by the plugin, so that tasks can be exercised over real HTTP without network access.
+ * <p>
+ * Started runs succeed immediately and get a default dataset. Their input can set {@code standInStatus} to another
+ * terminal status, {@code standInStatusMessage} to echo as the status message, {@code standInDelayMillis} to delay the
+ * start response, or {@code standInError} to a message answered with {@code 400 Bad Request}. Datasets are held in memory
+ * and can be seeded with {@link #seedDataset}. Every response can be delayed by a fixed latency, streamed at a bounded
+ * throughput, and every n-th request can be rejected with {@code 429 Too Many Requests} to exercise the rate limiter, and
+ * bodies can be gzip-compressed for clients that accept it. {@link #install()}
+ * points the plugin at the server through the {@code apify.api.base.url} system property until the server is closed.
+ */
+public final class ApifyStandInServer implements AutoCloseable {
+    private static final String BASE_PATH = "/v2";
+    private static final String BASE_URL_PROPERTY = "apify.api.base.url";
+    private static final String IN_FLIGHT_ATTRIBUTE = "stand-in.in-flight";
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson(false);
+
+    private static final Pattern START_RUN = Pattern.compile("/(acts|actor-tasks)/([^/]+)/runs");
+    private static final Pattern LAST_RUN = Pattern.compile("/(acts|actor-tasks)/([^/]+)/runs/last");
+    private static final Pattern RUN = Pattern.compile("/actor-runs/([^/]+)");
+    private static final Pattern DATASET = Pattern.compile("/datasets/([^/]+)");
+    private static final Pattern DATASET_ITEMS = Pattern.compile("/datasets/([^/]+)/items");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Map<String, Object>> runs = new ConcurrentHashMap<>();
+    private final Map<String, String> lastRunByActor = new ConcurrentHashMap<>();
+    private final Map<String, List<Map<String, Object>>> datasets = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong tooManyRequests = new AtomicLong();
+    private final AtomicLong runIds = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile long bytesPerSecond;
+    private volatile int tooManyRequestsEvery;
+    private volatile boolean compress;
+    private String previousBaseUrl;
+
+    private ApifyStandInServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext(BASE_PATH, this::handle);
+    }
+
+    public static ApifyStandInServer start() throws IOException {
+        ApifyStandInServer standIn = new ApifyStandInServer();
+        standIn.server.start();
+        return standIn;
+    }
+
+    /**
+     * Routes the plugin's Apify calls to this server until it is closed
+     */
+    public ApifyStandInServer install() {
+        previousBaseUrl = System.getProperty(BASE_URL_PROPERTY);
+        System.setProperty(BASE_URL_PROPERTY, baseUrl());
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    /**
+     * Delays every response by the given duration before its headers are sent
+     */
+    public ApifyStandInServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Caps the rate at which response bodies are written; 0 means unbounded
+     */
+    public ApifyStandInServer throughput(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Answers every n-th request with {@code 429 Too Many Requests} and {@code Retry-After: 0}; 0 disables the injection
+     */
+    public ApifyStandInServer tooManyRequestsEvery(int every) {
+        this.tooManyRequestsEvery = every;
+        return this;
+    }
+
+    /**
+     * Gzip-compresses response bodies for clients advertising {@code gzip} in {@code Accept-Encoding}
+     */
+    public ApifyStandInServer compress(boolean compress) {
+        this.compress = compress;
+        return this;
+    }
+
+    public ApifyStandInServer seedDataset(String datasetId, List<Map<String, Object>> items) {
+        datasets.put(datasetId, Collections.synchronizedList(new ArrayList<>(items)));
+        return this;
+    }
+
+    public List<Map<String, Object>> dataset(String datasetId) {
+        return List.copyOf(datasets.getOrDefault(datasetId, List.of()));
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long tooManyRequests() {
+        return tooManyRequests.get();
+    }
+
+    /**
+     * Highest number of requests handled at the same time since the server started
+     */
+    public int peakConcurrentRequests() {
+        return peakInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        if (previousBaseUrl != null) {
+            System.setProperty(BASE_URL_PROPERTY, previousBaseUrl);
+        } else {
+            System.clearProperty(BASE_URL_PROPERTY);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        exchange.setAttribute(IN_FLIGHT_ATTRIBUTE, Boolean.TRUE);
+        try (exchange) {
+            long request = requests.incrementAndGet();
+            sleep(latency);
+
+            int every = tooManyRequestsEvery;
+            if (every > 0 && request % every == 0) {
+                tooManyRequests.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                send(exchange, 429, "application/json", "{\"error\":{\"type\":\"rate-limit-exceeded\"}}");
+                return;
+            }
+
+            route(exchange);
+        } catch (Exception e) {
+            if (exchange.getResponseCode() != -1) {
+                // the response was already under way, the client sees a truncated body
+                return;
+            }
+            send(exchange, 500, "application/json", "{\"error\":{\"message\":\"" + e.getMessage() + "\"}}");
+        } finally {
+            leave(exchange);
+        }
+    }
+
+    /**
+     * Stops counting the request as in flight, before its response can reach the client and let it send the next one
+     */
+    private void leave(HttpExchange exchange) {
+        if (exchange.getAttribute(IN_FLIGHT_ATTRIBUTE) != null) {
+            exchange.setAttribute(IN_FLIGHT_ATTRIBUTE, null);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        Matcher matcher;
+
+        if (method.equals("POST") && (matcher = START_RUN.matcher(path)).matches()) {
+            startRun(exchange, matcher.group(1), matcher.group(2));
+        } else if (method.equals("GET") && (matcher = LAST_RUN.matcher(path)).matches()) {
+            String runId = lastRunByActor.get(matcher.group(1) + "/" + matcher.group(2));
+            sendDataOrNotFound(exchange, runId == null ? null : runs.get(runId));
+        } else if (method.equals("GET") && (matcher = RUN.matcher(path)).matches()) {
+            sendDataOrNotFound(exchange, runs.get(matcher.group(1)));
+        } else if ((matcher = DATASET_ITEMS.matcher(path)).matches()) {
+            if (method.equals("POST")) {
+                pushItems(exchange, matcher.group(1));
+            } else {
+                sendItems(exchange, matcher.group(1), query);
+            }
+        } else if (method.equals("GET") && (matcher = DATASET.matcher(path)).matches()) {
+            sendDataOrNotFound(exchange, datasetInfo(matcher.group(1)));
+        } else {
+            send(exchange, 404, "application/json", "{\"error\":{\"type\":\"page-not-found\"}}");
+        }
+    }
+
+    private void startRun(HttpExchange exchange, String collection, String actorId) throws IOException {
+        Map<String, Object> input;
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readAllBytes();
+            input = bytes.length == 0 ? Map.of() : MAPPER.readValue(bytes, new TypeReference<>() {
+            });
+        }
+        if (input.get("standInDelayMillis") instanceof Number delay) {
+            sleep(Duration.ofMillis(delay.longValue()));
+        }
+        if (input.get("standInError") != null) {
+            send(exchange, 400, "application/json", MAPPER.writeValueAsString(
+                Map.of("error", Map.of("type", "invalid-input", "message", input.get("standInError")))
+            ));
+            return;
+        }
+
+        String runId = "run-" + runIds.incrementAndGet();
+        String datasetId = "dataset-" + runId;
+        datasets.putIfAbsent(datasetId, Collections.synchronizedList(new ArrayList<>()));
+
+        String now = Instant.now().toString();
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("id", runId);
+        run.put(collection.equals("acts") ? "actId" : "actorTaskId", actorId);
+        run.put("status", input.getOrDefault("standInStatus", "SUCCEEDED"));
+        run.put("statusMessage", input.get("standInStatusMessage"));
+        run.put("startedAt", now);
+        run.put("finishedAt", now);
+        run.put("defaultDatasetId", datasetId);
+        run.put("stats", Map.of("durationMillis", 0, "memMaxBytes", 64 * 1024 * 1024));
+        runs.put(runId, run);
+        lastRunByActor.put(collection + "/" + actorId, runId);
+        sendData(exchange, run);
+    }
+
+    private Map<String, Object> datasetInfo(String datasetId) {
+        List<Map<String, Object>> items = datasets.get(datasetId);
+        if (items == null) {
+            return null;
+        }
+
+        Map<String, Object> info = new HashMap<>();
+        info.put("id", datasetId);
+        info.put("itemCount", items.size());
+        if (datasetId.startsWith("dataset-")) {
+            info.put("actRunId", datasetId.substring("dataset-".length()));
+        }
+        return info;
+    }
+
+    private void pushItems(HttpExchange exchange, String datasetId) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            List<Map<String, Object>> items = MAPPER.readValue(body, new TypeReference<>() {
+            });
+            datasets.computeIfAbsent(datasetId, key -> Collections.synchronizedList(new ArrayList<>())).addAll(items);
+        }
+        send(exchange, 201, "application/json", "");
+    }
+
+    private void sendItems(HttpExchange exchange, String datasetId, Map<String, String> query) throws IOException {
+        List<Map<String, Object>> items = datasets.get(datasetId);
+        if (items == null) {
+            send(exchange, 404, "application/json", "{\"error\":{\"type\":\"record-not-found\"}}");
+            return;
+        }
+
+        List<Map<String, Object>> page;
+        synchronized (items) {
+            int offset = (int) Math.min(Integer.parseInt(query.getOrDefault("offset", "0")), items.size());
+            int limit = Integer.parseInt(query.getOrDefault("limit", String.valueOf(Integer.MAX_VALUE)));
+            page = List.copyOf(items.subList(offset, (int) Math.min(items.size(), (long) offset + limit)));
+        }
+
+        String format = query.getOrDefault("format", "json");
+        switch (format) {
+            case "jsonl" -> {
+                StringBuilder body = new StringBuilder();
+                for (Map<String, Object> item : page) {
+                    body.append(MAPPER.writeValueAsString(item)).append('\n');
+                }
+                send(exchange, 200, "application/jsonl", body.toString());
+            }
+            case "csv" -> send(exchange, 200, "text/csv", csv(page, query));
+            default -> send(exchange, 200, "application/json", MAPPER.writeValueAsString(page));
+        }
+    }
+
+    private static String csv(List<Map<String, Object>> page, Map<String, String> query) {
+        String delimiter = query.getOrDefault("delimiter", ",");
+        Set<String> columns = new LinkedHashSet<>();
+        page.forEach(item -> columns.addAll(item.keySet()));
+
+        StringBuilder body = new StringBuilder();
+        if (!Boolean.parseBoolean(query.getOrDefault("skipHeaderRow", "false"))) {
+            body.append(String.join(delimiter, columns)).append("\r\n");
+        }
+        for (Map<String, Object> item : page) {
+            body.append(columns.stream()
+                .map(column -> item.get(column) == null ? "" : String.valueOf(item.get(column)))
+                .collect(Collectors.joining(delimiter))
+            ).append("\r\n");
+        }
+        return body.toString();
+    }
+
+    private void sendDataOrNotFound(HttpExchange exchange, Map<String, Object> data) throws IOException {
+        if (data == null) {
+            send(exchange, 404, "application/json", "{\"error\":{\"type\":\"record-not-found\"}}");
+            return;
+        }
+        sendData(exchange, data);
+    }
+
+    private void sendData(HttpExchange exchange, Map<String, Object> data) throws IOException {
+        send(exchange, 200, "application/json", MAPPER.writeValueAsString(Map.of("data", data)));
+    }
+
+    /**
+     * Writes the body in chunks, pausing between them to honour the configured throughput
+     */
+    private void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (compress && bytes.length > 0 && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        leave(exchange);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length == 0) {
+            return;
+        }
+
+        long rate = bytesPerSecond;
+        try (OutputStream output = exchange.getResponseBody()) {
+            int chunk = rate > 0 ? (int) Math.clamp(rate / 10, 1, 64 * 1024) : bytes.length;
+            for (int offset = 0; offset < bytes.length; offset += chunk) {
+                int length = Math.min(chunk, bytes.length - offset);
+                output.write(bytes, offset, length);
+                if (rate > 0) {
+                    sleep(Duration.ofNanos(length * 1_000_000_000L / rate));
+                }
+            }
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+            String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            query.put(key, value);
+        }
+        return query;
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package io.kestra.plugin.apify;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.plugin.apify.actor.ActorJobStatus;
+import io.kestra.plugin.apify.actor.ActorRun;
+import io.kestra.plugin.apify.actor.Run;
+import io.kestra.plugin.apify.dataset.Get;
+import io.kestra.plugin.apify.dataset.GetLastRun;
+import io.kestra.plugin.apify.dataset.Push;
+import io.kestra.plugin.apify.dataset.Save;
+
+import jakarta.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises the tasks over real HTTP against {@link ApifyStandInServer}, including the rate limiter on injected 429 responses
+ */
+@KestraTest
+class ApifyStandInServerTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    ApifyStandInServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = ApifyStandInServer.start().install();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void givenStartedRun_whenItemsArePushedAndFetchedInPartitions_thenItemsRoundTripInOrderDespiteRateLimiting() throws Exception {
+        // a token of its own keeps the worker-wide rate limiter of other tests out of the way
+        Property<String> apiToken = Property.ofValue("stand-in-" + UUID.randomUUID());
+        RunContext runContext = runContextFactory.of();
+
+        ActorRun run = Run.builder()
+            .id("run")
+            .type(Run.class.getName())
+            .apiToken(apiToken)
+            .actorId(Property.ofValue("crawler"))
+            .build()
+            .run(runContext);
+        assertEquals(ActorJobStatus.SUCCEEDED, run.getStatus());
+
+        File items = runContext.workingDir().createTempFile(".jsonl").toFile();
+        Files.writeString(items.toPath(), String.join("\n", IntStream.range(0, 100).mapToObj(i -> "{\"id\":" + i + "}").toList()));
+        Push.Output pushed = Push.builder()
+            .id("push")
+            .type(Push.class.getName())
+            .apiToken(apiToken)
+            .datasetId(Property.ofValue(run.getDefaultDatasetId()))
+            .from(Property.ofValue(runContext.storage().putFile(items).toString()))
+            .maxBatchBytes(Property.ofValue(256L))
+            .build()
+            .run(runContext);
+        assertEquals(100L, pushed.count());
+
+        server.tooManyRequestsEvery(4);
+        Get.Output output = Get.builder()
+            .id("get")
+            .type(Get.class.getName())
+            .apiToken(apiToken)
+            .datasetId(Property.ofValue(run.getDefaultDatasetId()))
+            .parallelism(Property.ofValue(3))
+            .partitionSize(Property.ofValue(30))
+            .build()
+            .run(runContext);
+
+        assertEquals(100L, output.count());
+        assertEquals(IntStream.range(0, 100).boxed().toList(), output.dataset().stream().map(item -> ((Map<?, ?>) item).get("id")).toList());
+        assertTrue(server.tooManyRequests() > 0);
+    }
+
+    @Test
+    void givenStartedRun_whenLastRunIsFetched_thenReturnsThatRun() throws Exception {
+        Property<String> apiToken = Property.ofValue("stand-in-" + UUID.randomUUID());
+        RunContext runContext = runContextFactory.of();
+
+        ActorRun started = Run.builder()
+            .id("run")
+            .type(Run.class.getName())
+            .apiToken(apiToken)
+            .actorId(Property.ofValue("crawler"))
+            .build()
+            .run(runContext);
+
+        ActorRun last = GetLastRun.builder()
+            .id("last")
+            .type(GetLastRun.class.getName())
+            .apiToken(apiToken)
+            .actorId(Property.ofValue("crawler"))
+            .build()
+            .run(runContext);
+
+        assertEquals(started.getId(), last.getId());
+        assertEquals(started.getDefaultDatasetId(), last.getDefaultDatasetId());
+    }
+
+    @Test
+    void givenSeededDataset_whenSavedAsJsonlWithOffsetAndLimit_thenOnlyTheWindowIsDownloaded() throws Exception {
+        server.seedDataset("seeded", IntStream.range(0, 50).mapToObj(i -> Map.<String, Object>of("id", i)).toList());
+        RunContext runContext = runContextFactory.of();
+
+        Save.Output output = Save.builder()
+            .id("save")
+            .type(Save.class.getName())
+            .apiToken(Property.ofValue("stand-in-" + UUID.randomUUID()))
+            .datasetId(Property.ofValue("seeded"))
+            .format(Property.ofValue(DataSetFormat.JSONL))
+            .offset(Property.ofValue(10))
+            .limit(Property.ofValue(5))
+            .build()
+            .run(runContext);
+
+        List<String> lines;
+        try (InputStream input = runContext.storage().getFile(URI.create(output.getPath().toString()))) {
+            lines = new String(input.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+        assertEquals(List.of("{\"id\":10}", "{\"id\":11}", "{\"id\":12}", "{\"id\":13}", "{\"id\":14}"), lines);
+    }
+
+    @Test
+    void givenCompressingServer_whenItemsAreStreamed_thenBodyIsDecompressedOnTheFlyAndSavedBytesAreReported() throws Exception {
+        server.compress(true).seedDataset("compressed", IntStream.range(0, 200).mapToObj(i -> Map.<String, Object>of("url", "https://example.com/page/" + i)).toList());
+        RunContext runContext = runContextFactory.of();
+
+        Get.Output output = Get.builder()
+            .id("get")
+            .type(Get.class.getName())
+            .apiToken(Property.ofValue("stand-in-" + UUID.randomUUID()))
+            .datasetId(Property.ofValue("compressed"))
+            .store(Property.ofValue(true))
+            .build()
+            .run(runContext);
+
+        assertEquals(200L, output.count());
+        double saved = runContext.metrics().stream()
+            .filter(metric -> metric.getName().equals("http.compression.saved.bytes"))
+            .mapToDouble(metric -> ((Number) metric.getValue()).doubleValue())
+            .sum();
+        assertTrue(saved > 0);
+    }
+
+    @Test
+    void givenStoreCompressed_whenSaved_thenGzipBodyIsStoredAsReceivedWithGzExtension() throws Exception {
+        server.compress(true).seedDataset("compressed", IntStream.range(0, 20).mapToObj(i -> Map.<String, Object>of("id", i)).toList());
+        RunContext runContext = runContextFactory.of();
+
+        Save.Output output = Save.builder()
+            .id("save")
+            .type(Save.class.getName())
+            .apiToken(Property.ofValue("stand-in-" + UUID.randomUUID()))
+            .datasetId(Property.ofValue("compressed"))
+            .format(Property.ofValue(DataSetFormat.JSONL))
+            .storeCompressed(Property.ofValue(true))
+            .build()
+            .run(runContext);
+
+        assertTrue(output.getPath().getPath().endsWith(".jsonl.gz"));
+        try (InputStream input = new GZIPInputStream(runContext.storage().getFile(output.getPath()))) {
+            assertEquals(20, new String(input.readAllBytes(), StandardCharsets.UTF_8).lines().count());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.kestra.plugin.apify.actor;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.JacksonMapper;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@KestraTest
+class CreateWebhookTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenActorAndEvents_whenRun_thenPostsIdempotentWebhookForTheActor() throws Exception {
+        CreateWebhook createWebhook = CreateWebhook.builder()
+            .apiToken(Property.ofValue("fake-token"))
+            .actorId(Property.ofValue("actor-id"))
+            .requestUrl(Property.ofValue("http://localhost:8080/api/v1/main/executions/webhook/company.team/flow/key"))
+            .eventTypes(Property.ofValue(List.of(WebhookEventType.ACTOR_RUN_SUCCEEDED)))
+            .build();
+
+        CreateWebhook createWebhookSpy = Mockito.spy(createWebhook);
+        RunContext runContext = runContextFactory.of();
+
+        ActorWebhook webhook = new ActorWebhook();
+        webhook.setId("webhook-id");
+        Mockito.doAnswer(invocation ->
+            {
+                HttpRequest request = invocation.<HttpRequest.HttpRequestBuilder>getArgument(1).build();
+                String body = (String) request.getBody().getContent();
+                assertThat(request.getUri().getPath(), containsString("/webhooks"));
+                assertThat(body, containsString("\"eventTypes\":[\"ACTOR.RUN.SUCCEEDED\"]"));
+                assertThat(body, containsString("\"condition\":{\"actorId\":\"actor-id\"}"));
+                assertThat(body, containsString("\"idempotencyKey\":\"kestra-"));
+                assertThat(body, not(containsString("payloadTemplate")));
+                return new ActorWebhookApiResponseWrapper(webhook);
+            })
+            .when(createWebhookSpy)
+            .makeCall(eq(runContext), any(), eq(ActorWebhookApiResponseWrapper.class));
+
+        assertEquals("webhook-id", createWebhookSpy.run(runContext).getId());
+    }
+
+    @Test
+    void givenBothActorAndActorTask_whenRun_thenRejectsConfiguration() {
+        CreateWebhook createWebhook = CreateWebhook.builder()
+            .apiToken(Property.ofValue("fake-token"))
+            .actorId(Property.ofValue("actor-id"))
+            .actorTaskId(Property.ofValue("task-id"))
+            .requestUrl(Property.ofValue("http://localhost:8080/webhook"))
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> createWebhook.run(runContextFactory.of()));
+    }
+
+    @Test
+    void givenDefaultPayloadTemplateBody_whenDeserialized_thenResourceIsTheActorRun() throws Exception {
+        String body = """
+            {
+              "userId": "user-id",
+              "createdAt": "2025-01-01T10:00:00.000Z",
+              "eventType": "ACTOR.RUN.SUCCEEDED",
+              "eventData": {"actorId": "actor-id", "actorRunId": "run-id"},
+              "resource": {
+                "id": "run-id",
+                "actId": "actor-id",
+                "status": "SUCCEEDED",
+                "startedAt": "2025-01-01T09:58:00.000Z",
+                "finishedAt": "2025-01-01T10:00:00.000Z",
+                "defaultDatasetId": "dataset-id"
+              }
+            }
+            """;
+
+        WebhookPayload payload = JacksonMapper.ofJson().readValue(body, WebhookPayload.class);
+
+        assertEquals("ACTOR.RUN.SUCCEEDED", payload.getEventType());
+        assertEquals(ActorJobStatus.SUCCEEDED, payload.getResource().getStatus());
+        assertEquals("dataset-id", payload.getResource().getDefaultDatasetId());
+    }
+}
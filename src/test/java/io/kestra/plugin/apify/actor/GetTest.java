@@ -1,5 +1,9 @@
 package io.kestra.plugin.apify.actor;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
@@ -8,18 +12,26 @@ import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import io.kestra.core.http.HttpRequest;
 import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.plugin.apify.ApifyConnection;
 import io.kestra.plugin.apify.ApifySortDirection;
+import io.kestra.plugin.apify.dataset.AbstractGetDataset;
+import io.kestra.plugin.apify.dataset.Dataset;
+import io.kestra.plugin.apify.dataset.DatasetApiResponseWrapper;
 import io.kestra.plugin.apify.dataset.Get;
 
 import jakarta.inject.Inject;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -123,4 +135,111 @@ class GetTest {
             )
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenParallelism_whenRun_thenFetchesEveryPageRangeInOrder() throws Exception {
+        Get getDataset = Get.builder()
+            .datasetId(Property.ofValue("dataset-id"))
+            .limit(Property.ofValue(5))
+            .parallelism(Property.ofValue(2))
+            .partitionSize(Property.ofValue(2))
+            .DEFAULT_TIMEOUT_DURATION(Duration.ofMillis(2500))
+            .DEFAULT_MAX_INTERVAL_DURATION(Duration.ofMillis(2500))
+            .build();
+
+        Get getDatasetSpy = Mockito.spy(getDataset);
+        RunContext runContext = runContextFactory.of();
+
+        Dataset dataset = new Dataset();
+        dataset.setItemCount(10L);
+        Mockito.doReturn(new DatasetApiResponseWrapper(dataset))
+            .when(getDatasetSpy)
+            .makeCall(eq(runContext), any(), eq(DatasetApiResponseWrapper.class));
+        Mockito.doAnswer(invocation -> List.of(invocation.<HttpRequest.HttpRequestBuilder>getArgument(1).build().getUri().getQuery()))
+            .when(getDatasetSpy)
+            .makeCall(eq(runContext), any(), eq(List.class));
+
+        List<?> result = getDatasetSpy.run(runContext).dataset();
+        assertEquals(3, result.size());
+        assertThat(result.get(0).toString(), containsString("limit=2&offset=0"));
+        assertThat(result.get(1).toString(), containsString("limit=2&offset=2"));
+        assertThat(result.get(2).toString(), containsString("limit=1&offset=4"));
+    }
+
+    @Test
+    void givenWindowLargerThanPartitionSize_whenSplitting_thenRangesCoverWindowExactly() {
+        assertEquals(
+            List.of(
+                new AbstractGetDataset.PageRange(10, 10),
+                new AbstractGetDataset.PageRange(20, 10),
+                new AbstractGetDataset.PageRange(30, 5)
+            ),
+            AbstractGetDataset.PageRange.split(10, 25, 10)
+        );
+    }
+
+    @Test
+    void givenStoreEnabled_whenRun_thenStreamsItemsToIonFile() throws Exception {
+        Get getDataset = Get.builder()
+            .datasetId(Property.ofValue("dataset-id"))
+            .store(Property.ofValue(true))
+            .DEFAULT_TIMEOUT_DURATION(Duration.ofMillis(2500))
+            .DEFAULT_MAX_INTERVAL_DURATION(Duration.ofMillis(2500))
+            .build();
+
+        Get getDatasetSpy = Mockito.spy(getDataset);
+        RunContext runContext = runContextFactory.of();
+
+        Mockito.doAnswer(invocation -> invocation.<ApifyConnection.ResponseBodyHandler<?>>getArgument(2).handle(
+                new ByteArrayInputStream("[{\"key\": \"a\"}, {\"key\": \"b\"}]".getBytes(StandardCharsets.UTF_8))
+            ))
+            .when(getDatasetSpy)
+            .makeStreamingCall(eq(runContext), any(), any());
+
+        Get.Output output = getDatasetSpy.run(runContext);
+        assertEquals(2L, output.count());
+        assertNull(output.dataset());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.uri())))) {
+            List<Object> items = FileSerde.readAll(reader).collectList().block();
+            assertEquals(List.of(Map.of("key", "a"), Map.of("key", "b")), items);
+        }
+    }
+
+    @Test
+    void givenEmptyDatasetOfFinishedRun_whenRun_thenDownloadsOnceWithoutWaitingForTimeout() throws Exception {
+        Get getDataset = Get.builder()
+            .datasetId(Property.ofValue("dataset-id"))
+            .DEFAULT_TIMEOUT_DURATION(Duration.ofMillis(2500))
+            .DEFAULT_MAX_INTERVAL_DURATION(Duration.ofMillis(2500))
+            .readinessProbe(Property.ofValue(true))
+            .build();
+
+        Get getDatasetSpy = Mockito.spy(getDataset);
+        RunContext runContext = runContextFactory.of();
+
+        DatasetApiResponseWrapper emptyDataset = datasetWithItemCount(0L);
+        emptyDataset.getData().setActRunId("run-id");
+        ActorRun finishedRun = new ActorRun();
+        finishedRun.setStatus(ActorJobStatus.SUCCEEDED);
+
+        Mockito.doReturn(emptyDataset)
+            .when(getDatasetSpy)
+            .makeCall(eq(runContext), any(), eq(DatasetApiResponseWrapper.class));
+        Mockito.doReturn(new ActorRunApiResponseWrapper(finishedRun))
+            .when(getDatasetSpy)
+            .makeCall(eq(runContext), any(), eq(ActorRunApiResponseWrapper.class));
+        Mockito.doReturn(Collections.emptyList())
+            .when(getDatasetSpy)
+            .makeCall(eq(runContext), any(), eq(List.class));
+
+        assertEquals(List.of(), getDatasetSpy.run(runContext).dataset());
+        Mockito.verify(getDatasetSpy, Mockito.times(1)).makeCall(eq(runContext), any(), eq(List.class));
+    }
+
+    private static DatasetApiResponseWrapper datasetWithItemCount(long itemCount) {
+        Dataset dataset = new Dataset();
+        dataset.setItemCount(itemCount);
+        return new DatasetApiResponseWrapper(dataset);
+    }
+}
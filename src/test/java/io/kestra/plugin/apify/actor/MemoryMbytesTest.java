@@ -10,8 +10,8 @@ class MemoryMbytesTest {
     private static final ObjectMapper mapper = new ObjectMapper();
 
     @Test
-    void givenMemoryMbytesEnum_whenCountingValues_thenHasNineConstants() {
-        assertEquals(9, MemoryMbytes.values().length);
+    void givenMemoryMbytesEnum_whenCountingValues_thenHasNineSizesAndAuto() {
+        assertEquals(10, MemoryMbytes.values().length);
     }
 
     @Test
@@ -27,4 +27,11 @@ class MemoryMbytesTest {
         assertEquals("1024", mapper.writeValueAsString(MemoryMbytes.MB_1024));
         assertEquals("32768", mapper.writeValueAsString(MemoryMbytes.MB_32768));
     }
+
+    @Test
+    void givenNameOrMegabytes_whenDeserializingWithJackson_thenResolvesConstant() throws Exception {
+        assertEquals(MemoryMbytes.MB_1024, mapper.readValue("\"MB_1024\"", MemoryMbytes.class));
+        assertEquals(MemoryMbytes.MB_1024, mapper.readValue("1024", MemoryMbytes.class));
+        assertEquals(MemoryMbytes.AUTO, mapper.readValue("\"AUTO\"", MemoryMbytes.class));
+    }
 }
@@ -0,0 +1,156 @@
+package io.kestra.plugin.apify.actor;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.plugin.apify.ApifyStandInServer;
+
+import jakarta.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs batches against {@link ApifyStandInServer}, whose inputs select the outcome and the start latency of every run
+ */
+@KestraTest
+class RunBatchTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    ApifyStandInServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = ApifyStandInServer.start().install().latency(Duration.ofMillis(20));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void givenMoreInputsThanSlots_whenEarlierRunsAreSlower_thenInFlightRunsStayCappedAndRecordsKeepInputOrder() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        List<Map<String, Object>> inputs = IntStream.range(0, 12)
+            .mapToObj(i -> Map.<String, Object>of("standInStatusMessage", "input-" + i, "standInDelayMillis", (12 - i) * 10))
+            .toList();
+
+        RunBatch.Output output = batch().inputs(Property.ofValue(inputs)).build().run(runContext);
+
+        assertEquals(12L, output.count());
+        assertEquals(12L, output.succeeded());
+        assertEquals(0L, output.failed());
+        assertTrue(server.peakConcurrentRequests() <= 3, "peak of " + server.peakConcurrentRequests() + " concurrent requests");
+        assertTrue(server.peakConcurrentRequests() > 1, "runs were not started concurrently");
+        assertEquals(
+            IntStream.range(0, 12).mapToObj(i -> "input-" + i).toList(),
+            records(runContext, output.uri()).stream().map(record -> record.get("statusMessage")).toList()
+        );
+    }
+
+    @Test
+    void givenInputsFile_whenBatchRuns_thenOneRunIsStartedPerLine() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        File file = runContext.workingDir().createTempFile(".jsonl").toFile();
+        Files.writeString(file.toPath(), """
+            {"standInStatusMessage":"first"}
+
+            {"standInStatusMessage":"second"}
+            {"standInStatusMessage":"third"}
+            """);
+        URI from = runContext.storage().putFile(file);
+
+        RunBatch.Output output = batch().from(Property.ofValue(from.toString())).build().run(runContext);
+
+        assertEquals(3L, output.count());
+        assertEquals(3L, output.succeeded());
+        assertEquals(
+            List.of("first", "second", "third"),
+            records(runContext, output.uri()).stream().map(record -> record.get("statusMessage")).toList()
+        );
+    }
+
+    @Test
+    void givenRejectedAndFailedRuns_whenBatchRuns_thenEveryInputIsRecordedAndCounted() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        List<Map<String, Object>> inputs = List.of(
+            Map.of("standInStatusMessage", "ok"),
+            Map.of("standInError", "startUrls is required"),
+            Map.of("standInStatus", "FAILED"),
+            Map.of("standInStatusMessage", "also ok")
+        );
+
+        RunBatch.Output output = batch().inputs(Property.ofValue(inputs)).build().run(runContext);
+
+        assertEquals(4L, output.count());
+        assertEquals(2L, output.succeeded());
+        assertEquals(2L, output.failed());
+
+        List<Map<String, Object>> records = records(runContext, output.uri());
+        assertEquals(4, records.size());
+        assertEquals("SUCCEEDED", records.get(0).get("status"));
+        assertEquals(1, ((Number) records.get(1).get("inputIndex")).intValue());
+        assertNull(records.get(1).get("status"));
+        assertNotNull(records.get(1).get("error"));
+        assertEquals("FAILED", records.get(2).get("status"));
+        assertEquals("also ok", records.get(3).get("statusMessage"));
+    }
+
+    @Test
+    void givenFailOnError_whenAnInputIsRejected_thenTheTaskFailsWithoutStartingTheRemainingInputs() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        List<Map<String, Object>> inputs = IntStream.range(0, 10)
+            .mapToObj(i -> i == 0 ? Map.<String, Object>of("standInError", "invalid") : Map.<String, Object>of("standInDelayMillis", 50))
+            .toList();
+
+        assertThrows(
+            Exception.class,
+            () -> batch().inputs(Property.ofValue(inputs)).maxConcurrentRuns(Property.ofValue(1)).failOnError(Property.ofValue(true)).build().run(runContext)
+        );
+        // the rejected start and at most the start submitted before its failure was seen
+        assertTrue(server.requests() <= 2, server.requests() + " requests");
+    }
+
+    private RunBatch.RunBatchBuilder<?, ?> batch() {
+        // a token of its own keeps the worker-wide rate limiter of other tests out of the way
+        return RunBatch.builder()
+            .id("batch")
+            .type(RunBatch.class.getName())
+            .apiToken(Property.ofValue("stand-in-" + UUID.randomUUID()))
+            .actorId(Property.ofValue("crawler"))
+            .maxConcurrentRuns(Property.ofValue(3));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> records(RunContext runContext, URI uri) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8))) {
+            return FileSerde.readAll(reader)
+                .map(record -> (Map<String, Object>) record)
+                .collectList()
+                .block();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.kestra.plugin.apify.actor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.plugin.apify.ApifyConnection;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@KestraTest
+class RunSyncTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenActorAndProjection_whenRun_thenStreamsItemsFromSingleSyncCall() throws Exception {
+        RunSync runSync = RunSync.builder()
+            .actorId(Property.ofValue("actor-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .maxItems(Property.ofValue(10))
+            .memory(Property.ofValue(MemoryMbytes.MB_1024))
+            .fields(Property.ofValue(List.of("url")))
+            .input(Property.ofValue(Map.of("query", "kestra")))
+            .build();
+
+        RunSync runSyncSpy = Mockito.spy(runSync);
+        RunContext runContext = runContextFactory.of();
+        AtomicReference<HttpRequest> request = new AtomicReference<>();
+
+        Mockito.doAnswer(invocation ->
+            {
+                request.set(invocation.<HttpRequest.HttpRequestBuilder>getArgument(1).build());
+                return invocation.<ApifyConnection.ResponseBodyHandler<?>>getArgument(2).handle(
+                    new ByteArrayInputStream("[{\"url\": \"a\"}, {\"url\": \"b\"}, {\"url\": \"c\"}]".getBytes(StandardCharsets.UTF_8))
+                );
+            })
+            .when(runSyncSpy)
+            .makeStreamingCall(eq(runContext), any(), any());
+
+        RunSync.Output output = runSyncSpy.run(runContext);
+
+        assertEquals(3L, output.count());
+        assertNotNull(output.uri());
+        assertEquals("POST", request.get().getMethod());
+        String uri = request.get().getUri().toString();
+        assertThat(uri, containsString("/acts/actor-id/run-sync-get-dataset-items?"));
+        assertThat(uri, containsString("fields=url"));
+        assertThat(uri, containsString("format=json"));
+        assertThat(uri, containsString("maxItems=10"));
+        assertThat(uri, containsString("memory=1024"));
+    }
+}
@@ -0,0 +1,252 @@
+package io.kestra.plugin.apify.actor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.AbstractMetricEntry;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+import jakarta.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@KestraTest
+class RunTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenWaitEnabled_whenRunIsStillRunning_thenPollsUntilTerminalStatus() throws Exception {
+        Run run = Run.builder()
+            .actorId(Property.ofValue("actor-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .wait(Property.ofValue(true))
+            .build();
+
+        Run runSpy = Mockito.spy(run);
+        RunContext runContext = runContextFactory.of();
+
+        Mockito.doReturn(
+                wrapped(ActorJobStatus.READY),
+                wrapped(ActorJobStatus.RUNNING),
+                wrapped(ActorJobStatus.SUCCEEDED)
+            )
+            .when(runSpy)
+            .makeCall(eq(runContext), any(), eq(ActorRunApiResponseWrapper.class));
+
+        assertEquals(ActorJobStatus.SUCCEEDED, runSpy.run(runContext).getStatus());
+        Mockito.verify(runSpy, Mockito.times(3)).makeCall(eq(runContext), any(), eq(ActorRunApiResponseWrapper.class));
+    }
+
+    @Test
+    void givenWaitDeadlineElapsed_whenAbortOnTimeout_thenAbortsRunAndFails() throws Exception {
+        Run run = Run.builder()
+            .actorId(Property.ofValue("actor-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .wait(Property.ofValue(true))
+            .maxWaitDuration(Property.ofValue(Duration.ZERO))
+            .abortOnTimeout(Property.ofValue(true))
+            .build();
+
+        Run runSpy = Mockito.spy(run);
+        RunContext runContext = runContextFactory.of();
+
+        Mockito.doReturn(wrapped(ActorJobStatus.RUNNING), wrapped(ActorJobStatus.ABORTING))
+            .when(runSpy)
+            .makeCall(eq(runContext), any(), eq(ActorRunApiResponseWrapper.class));
+
+        assertThrows(IllegalStateException.class, () -> runSpy.run(runContext));
+        Mockito.verify(runSpy, Mockito.times(2)).makeCall(eq(runContext), any(), eq(ActorRunApiResponseWrapper.class));
+    }
+
+    @Test
+    void givenTerminalRunWithStats_whenRun_thenRecordsRunMetricsTaggedByActorAndBuild() throws Exception {
+        Run run = Run.builder()
+            .actorId(Property.ofValue("actor-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .build();
+
+        Run runSpy = Mockito.spy(run);
+        RunContext runContext = runContextFactory.of();
+
+        ActorRunApiResponseWrapper finished = wrapped(ActorJobStatus.SUCCEEDED);
+        finished.getData().setActId("actor-id");
+        finished.getData().setBuildNumber("0.1.2");
+        ActorRunStats stats = new ActorRunStats();
+        stats.setComputeUnits(0.25);
+        stats.setMemMaxBytes(512_000_000.0);
+        stats.setDurationMillis(1500.0);
+        finished.getData().setStats(stats);
+        Mockito.doReturn(finished)
+            .when(runSpy)
+            .makeCall(eq(runContext), any(), eq(ActorRunApiResponseWrapper.class));
+
+        runSpy.run(runContext);
+
+        AbstractMetricEntry<?> computeUnits = runContext.metrics().stream()
+            .filter(metric -> metric.getName().equals("run.compute.units"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(0.25, ((Number) computeUnits.getValue()).doubleValue());
+        assertEquals("actor-id", computeUnits.getTags().get("actorId"));
+        assertEquals("0.1.2", computeUnits.getTags().get("build"));
+        assertTrue(runContext.metrics().stream().anyMatch(metric -> metric.getName().equals("run.duration")));
+    }
+
+    @Test
+    void givenAutoMemory_whenRun_thenStartsRunWithSizeFromRecentRuns() throws Exception {
+        Run run = Run.builder()
+            .actorId(Property.ofValue("actor-id"))
+            .apiToken(Property.ofValue("auto-memory-token"))
+            .memory(Property.ofValue(MemoryMbytes.AUTO))
+            .build();
+
+        Run runSpy = Mockito.spy(run);
+        RunContext runContext = runContextFactory.of();
+
+        ActorRun previous = new ActorRun();
+        previous.setId("previous-run");
+        ActorRunList recentRuns = new ActorRunList();
+        recentRuns.setItems(List.of(previous));
+        Mockito.doReturn(new ActorRunListApiResponseWrapper(recentRuns))
+            .when(runSpy)
+            .makeCall(eq(runContext), any(), eq(ActorRunListApiResponseWrapper.class));
+
+        ActorRunStats stats = new ActorRunStats();
+        stats.setMemMaxBytes(1500.0 * 1024 * 1024);
+        List<String> startQueries = new ArrayList<>();
+        Mockito.doAnswer(invocation ->
+            {
+                HttpRequest request = invocation.<HttpRequest.HttpRequestBuilder>getArgument(1).build();
+                ActorRunApiResponseWrapper response = wrapped(ActorJobStatus.SUCCEEDED);
+                if (request.getUri().getPath().contains("actor-runs/previous-run")) {
+                    response.getData().setStats(stats);
+                } else {
+                    startQueries.add(request.getUri().getQuery());
+                }
+                return response;
+            })
+            .when(runSpy)
+            .makeCall(eq(runContext), any(), eq(ActorRunApiResponseWrapper.class));
+
+        runSpy.run(runContext);
+
+        assertEquals(1, startQueries.size());
+        assertTrue(startQueries.getFirst().contains("memory=2048"));
+    }
+
+    @Test
+    void givenCachedSuccessfulRun_whenRunWithSameInput_thenReturnsItWithoutStartingNewRun() throws Exception {
+        Run runSpy = Mockito.spy(cachedRun());
+        RunContext runContext = runContextFactory.of();
+
+        Map<String, Object> kv = mockRunCacheStore(runSpy, runContext);
+        Mockito.doReturn(actorTagging("latest", "0.1.4"))
+            .when(runSpy)
+            .makeCall(eq(runContext), any(), eq(ActorApiResponseWrapper.class));
+        Mockito.doReturn(wrapped(ActorJobStatus.SUCCEEDED))
+            .when(runSpy)
+            .makeCall(eq(runContext), any(), eq(ActorRunApiResponseWrapper.class));
+
+        ActorRun first = runSpy.run(runContext);
+        ActorRun second = runSpy.run(runContext);
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals(1, kv.size());
+        Mockito.verify(runSpy, Mockito.times(1)).makeCall(
+            eq(runContext),
+            Mockito.argThat((HttpRequest.HttpRequestBuilder builder) -> "POST".equals(builder.build().getMethod())),
+            eq(ActorRunApiResponseWrapper.class)
+        );
+        AbstractMetricEntry<?> hits = runContext.metrics().stream()
+            .filter(metric -> metric.getName().equals("run.cache.hits"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals("0.1.4", hits.getTags().get("build"));
+        assertEquals("actor-id", hits.getTags().get("actorId"));
+    }
+
+    @Test
+    void givenLatestTagMovedToANewBuild_whenRunWithSameInput_thenStartsANewRun() throws Exception {
+        Run runSpy = Mockito.spy(cachedRun());
+        RunContext runContext = runContextFactory.of();
+
+        Map<String, Object> kv = mockRunCacheStore(runSpy, runContext);
+        Mockito.doReturn(actorTagging("latest", "0.1.4"), actorTagging("latest", "0.1.5"))
+            .when(runSpy)
+            .makeCall(eq(runContext), any(), eq(ActorApiResponseWrapper.class));
+        Mockito.doReturn(wrapped(ActorJobStatus.SUCCEEDED))
+            .when(runSpy)
+            .makeCall(eq(runContext), any(), eq(ActorRunApiResponseWrapper.class));
+
+        runSpy.run(runContext);
+        runSpy.run(runContext);
+
+        assertEquals(2, kv.size());
+        Mockito.verify(runSpy, Mockito.times(2)).makeCall(
+            eq(runContext),
+            Mockito.argThat((HttpRequest.HttpRequestBuilder builder) -> "POST".equals(builder.build().getMethod())),
+            eq(ActorRunApiResponseWrapper.class)
+        );
+    }
+
+    private static Run cachedRun() {
+        return Run.builder()
+            .actorId(Property.ofValue("actor-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .input(Property.ofValue(Map.of("query", "kestra", "limit", 10)))
+            .cacheTtl(Property.ofValue(Duration.ofMinutes(15)))
+            .build();
+    }
+
+    private static Map<String, Object> mockRunCacheStore(Run runSpy, RunContext runContext) throws Exception {
+        Map<String, Object> kv = new HashMap<>();
+        KVStore kvStore = Mockito.mock(KVStore.class);
+        Mockito.when(kvStore.getValue(Mockito.anyString())).thenAnswer(invocation ->
+            Optional.ofNullable(kv.get(invocation.<String>getArgument(0))).map(KVValue::new)
+        );
+        Mockito.doAnswer(invocation ->
+            {
+                kv.put(invocation.getArgument(0), invocation.<KVValueAndMetadata>getArgument(1).value());
+                return null;
+            })
+            .when(kvStore)
+            .put(Mockito.anyString(), any(KVValueAndMetadata.class));
+        Mockito.doReturn(kvStore).when(runSpy).runCacheStore(runContext);
+        return kv;
+    }
+
+    private static ActorApiResponseWrapper actorTagging(String tag, String buildNumber) {
+        Actor.TaggedBuild taggedBuild = new Actor.TaggedBuild();
+        taggedBuild.setBuildNumber(buildNumber);
+        Actor actor = new Actor();
+        actor.setId("actor-id");
+        actor.setTaggedBuilds(Map.of(tag, taggedBuild));
+        return new ActorApiResponseWrapper(actor);
+    }
+
+    private static ActorRunApiResponseWrapper wrapped(ActorJobStatus status) {
+        ActorRun actorRun = new ActorRun();
+        actorRun.setId("run-id");
+        actorRun.setStatus(status);
+        return new ActorRunApiResponseWrapper(actorRun);
+    }
+}
@@ -0,0 +1,138 @@
+package io.kestra.plugin.apify.actor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+import io.kestra.core.utils.TestsUtils;
+import io.kestra.plugin.apify.ApifyConnection;
+
+import jakarta.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+
+@KestraTest
+class TriggerTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenRunsFinishedWithinOneInterval_whenEvaluated_thenEmitsThemAllInOneExecutionInFinishOrder() throws Exception {
+        Trigger trigger = Trigger.builder()
+            .id("run_finished")
+            .type(Trigger.class.getName())
+            .apiToken(Property.ofValue("fake-token"))
+            .actorId(Property.ofValue("actor-id"))
+            .build();
+
+        Trigger triggerSpy = Mockito.spy(trigger);
+        Map<String, Object> kv = mockCursorStore(triggerSpy);
+        Map.Entry<ConditionContext, io.kestra.core.models.triggers.Trigger> context = TestsUtils.mockTrigger(runContextFactory, triggerSpy);
+        kv.put(
+            cursorKey(context.getValue()),
+            JacksonMapper.ofJson().writeValueAsString(new Trigger.Cursor("2025-01-01T10:00:00Z", "run-0", "2025-01-01T09:00:00Z", null))
+        );
+
+        Mockito.doReturn(page(
+                run("run-3", ActorJobStatus.RUNNING, "2025-01-01T10:05:00Z", null),
+                run("run-2", ActorJobStatus.SUCCEEDED, "2025-01-01T10:03:00Z", "2025-01-01T10:04:00Z"),
+                run("run-1", ActorJobStatus.FAILED, "2025-01-01T09:30:00Z", "2025-01-01T10:02:00Z"),
+                run("run-0", ActorJobStatus.SUCCEEDED, "2025-01-01T09:10:00Z", "2025-01-01T10:00:00Z"),
+                run("run-old", ActorJobStatus.SUCCEEDED, "2025-01-01T08:00:00Z", "2025-01-01T08:30:00Z")
+            ))
+            .when(triggerSpy)
+            .fetchRunsPage(any(), eq("actor-id"), anyInt(), anyInt(), isNull());
+
+        Optional<Execution> first = triggerSpy.evaluate(context.getKey(), context.getValue());
+        Optional<Execution> second = triggerSpy.evaluate(context.getKey(), context.getValue());
+
+        Map<String, Object> variables = first.orElseThrow().getTrigger().getVariables();
+        assertEquals(2, ((Number) variables.get("count")).intValue());
+        assertEquals(
+            List.of("run-1", "run-2"),
+            ((List<Map<String, Object>>) variables.get("runs")).stream().map(run -> run.get("id")).toList()
+        );
+        assertTrue(second.isEmpty());
+    }
+
+    @Test
+    void givenUnchangedRunsPage_whenEvaluated_thenSkipsWithoutFetchingRuns() throws Exception {
+        Trigger trigger = Trigger.builder()
+            .id("run_finished")
+            .type(Trigger.class.getName())
+            .apiToken(Property.ofValue("fake-token"))
+            .actorId(Property.ofValue("actor-id"))
+            .build();
+
+        Trigger triggerSpy = Mockito.spy(trigger);
+        Map<String, Object> kv = mockCursorStore(triggerSpy);
+        Map.Entry<ConditionContext, io.kestra.core.models.triggers.Trigger> context = TestsUtils.mockTrigger(runContextFactory, triggerSpy);
+        kv.put(
+            cursorKey(context.getValue()),
+            JacksonMapper.ofJson().writeValueAsString(new Trigger.Cursor("2025-01-01T10:00:00Z", "run-0", "2025-01-01T09:00:00Z", "\"etag-1\""))
+        );
+
+        Mockito.doReturn(new ApifyConnection.ConditionalResponse<ActorRunListApiResponseWrapper>(null, "\"etag-1\"", true))
+            .when(triggerSpy)
+            .fetchRunsPage(any(), eq("actor-id"), eq(0), anyInt(), eq("\"etag-1\""));
+
+        assertTrue(triggerSpy.evaluate(context.getKey(), context.getValue()).isEmpty());
+        Mockito.verify(triggerSpy, Mockito.times(1)).fetchRunsPage(any(), anyString(), anyInt(), anyInt(), any());
+    }
+
+    private static Map<String, Object> mockCursorStore(Trigger triggerSpy) throws Exception {
+        Map<String, Object> values = new HashMap<>();
+        KVStore kvStore = Mockito.mock(KVStore.class);
+        Mockito.when(kvStore.getValue(anyString())).thenAnswer(invocation ->
+            Optional.ofNullable(values.get(invocation.<String>getArgument(0))).map(KVValue::new)
+        );
+        Mockito.doAnswer(invocation ->
+            {
+                values.put(invocation.getArgument(0), invocation.<KVValueAndMetadata>getArgument(1).value());
+                return null;
+            })
+            .when(kvStore)
+            .put(anyString(), any(KVValueAndMetadata.class));
+        Mockito.doReturn(kvStore).when(triggerSpy).cursorStore(any());
+        return values;
+    }
+
+    private static String cursorKey(io.kestra.core.models.triggers.Trigger context) {
+        return "apify_actor_runs_cursor_" + context.getFlowId() + "_" + context.getTriggerId();
+    }
+
+    private static ApifyConnection.ConditionalResponse<ActorRunListApiResponseWrapper> page(ActorRun... runs) {
+        ActorRunList list = new ActorRunList();
+        list.setItems(List.of(runs));
+        return new ApifyConnection.ConditionalResponse<>(new ActorRunListApiResponseWrapper(list), null, false);
+    }
+
+    private static ActorRun run(String id, ActorJobStatus status, String startedAt, String finishedAt) {
+        ActorRun actorRun = new ActorRun();
+        actorRun.setId(id);
+        actorRun.setStatus(status);
+        actorRun.setStartedAt(startedAt);
+        actorRun.setFinishedAt(finishedAt);
+        return actorRun;
+    }
+}
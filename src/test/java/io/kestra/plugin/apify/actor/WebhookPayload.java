@@ -0,0 +1,20 @@
+package io.kestra.plugin.apify.actor;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+
+/**
+ * Body posted by Apify's default webhook payload template, as received by a flow started through {@link CreateWebhook}
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+class WebhookPayload {
+    private String userId;
+    private String createdAt;
+    private String eventType;
+    private Map<String, Object> eventData;
+    private ActorRun resource;
+}
@@ -0,0 +1,74 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.plugin.apify.ApifyConnection;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@KestraTest
+class AggregateTest {
+    private static final String ITEMS = """
+        [
+          {"domain": "a.com", "offer": {"price": 10}},
+          {"domain": "b.com", "offer": {"price": 4}},
+          {"domain": "a.com", "offer": {"price": 20}}
+        ]
+        """;
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenGroupBy_whenAggregated_thenOnlyReadFieldsAreRequestedAndGroupsAreOutput() throws Exception {
+        Aggregate aggregate = Aggregate.builder()
+            .datasetId(Property.ofValue("dataset-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .readinessProbe(Property.ofValue(false))
+            .groupBy(Property.ofValue(List.of("domain")))
+            .aggregations(Property.ofValue(List.of(
+                Aggregate.Aggregation.builder().function(AggregationFunction.AVG).field("offer.price").build()
+            )))
+            .build();
+
+        Aggregate aggregateSpy = Mockito.spy(aggregate);
+        RunContext runContext = runContextFactory.of();
+
+        Mockito.doAnswer(invocation ->
+            {
+                String query = invocation.<HttpRequest.HttpRequestBuilder>getArgument(1).build().getUri().getQuery();
+                assertThat(query, containsString("fields=domain,offer"));
+                return invocation.<ApifyConnection.ResponseBodyHandler<?>>getArgument(2).handle(
+                    new ByteArrayInputStream(ITEMS.getBytes(StandardCharsets.UTF_8))
+                );
+            })
+            .when(aggregateSpy)
+            .makeStreamingCall(eq(runContext), any(), any());
+
+        Aggregate.Output output = aggregateSpy.run(runContext);
+
+        assertEquals(3L, output.count());
+        assertEquals(2L, output.groupCount());
+        assertEquals(
+            List.of(Map.of("domain", "a.com", "avg_offer_price", 15.0), Map.of("domain", "b.com", "avg_offer_price", 4.0)),
+            output.groups()
+        );
+    }
+}
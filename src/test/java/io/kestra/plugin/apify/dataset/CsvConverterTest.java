@@ -0,0 +1,50 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvConverterTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void givenItemsWithVaryingFields_whenConverted_thenHeaderCoversAllFieldsInFirstSeenOrder() throws Exception {
+        Path jsonl = Files.writeString(
+            tempDir.resolve("items.jsonl"),
+            """
+                {"id":1,"title":"plain"}
+                {"id":2,"title":"with, comma","tags":["a","b"]}
+                {"id":3,"title":"with \\"quotes\\"","meta":{"lang":"en"}}
+                """
+        );
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = CsvConverter.convert(jsonl, output, ",", true, false);
+
+        assertEquals(3, rows);
+        assertEquals(
+            "id,title,tags,meta\r\n" +
+                "1,plain,,\r\n" +
+                "2,\"with, comma\",\"[\"\"a\"\",\"\"b\"\"]\",\r\n" +
+                "3,\"with \"\"quotes\"\"\",,\"{\"\"lang\"\":\"\"en\"\"}\"\r\n",
+            output.toString(StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void givenBomAndNoHeader_whenConverted_thenWritesBomAndRowsOnly() throws Exception {
+        Path jsonl = Files.writeString(tempDir.resolve("items.jsonl"), "{\"a\":1,\"b\":2}\n");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        CsvConverter.convert(jsonl, output, ";", false, true);
+
+        assertEquals("\uFEFF1;2\r\n", output.toString(StandardCharsets.UTF_8));
+    }
+}
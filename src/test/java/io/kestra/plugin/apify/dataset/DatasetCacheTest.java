@@ -0,0 +1,60 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatasetCacheTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void givenStoredEntry_whenLookedUp_thenBodyCountAndExtensionAreServed() throws Exception {
+        DatasetCache cache = new DatasetCache(tempDir);
+        cache.store("key", body("{\"id\":1}\n{\"id\":2}\n"), 2, ".jsonl.gz", Long.MAX_VALUE);
+
+        Optional<DatasetCache.Hit> cached = cache.lookup("key");
+
+        assertTrue(cached.isPresent());
+        try (DatasetCache.Hit hit = cached.get()) {
+            assertEquals(2, hit.count());
+            assertEquals(".jsonl.gz", hit.extension());
+            assertEquals(18, hit.bytes());
+            assertEquals("{\"id\":1}\n{\"id\":2}\n", new String(hit.body().readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertTrue(cache.lookup("other").isEmpty());
+    }
+
+    @Test
+    void givenCacheOverItsBound_whenStored_thenLeastRecentlyUsedEntriesAreEvicted() throws Exception {
+        DatasetCache cache = new DatasetCache(tempDir);
+        String items = "x".repeat(100);
+        cache.store("first", body(items), 1, ".ion", Long.MAX_VALUE);
+        cache.store("second", body(items), 1, ".ion", Long.MAX_VALUE);
+        Files.setLastModifiedTime(tempDir.resolve("first.entry"), FileTime.from(Instant.now().minusSeconds(60)));
+        Files.setLastModifiedTime(tempDir.resolve("second.entry"), FileTime.from(Instant.now().minusSeconds(30)));
+
+        // a hit makes the oldest entry the most recently used
+        cache.lookup("first").orElseThrow().close();
+        cache.store("third", body(items), 1, ".ion", 250);
+
+        assertTrue(Files.exists(tempDir.resolve("first.entry")));
+        assertFalse(Files.exists(tempDir.resolve("second.entry")));
+        assertTrue(Files.exists(tempDir.resolve("third.entry")));
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
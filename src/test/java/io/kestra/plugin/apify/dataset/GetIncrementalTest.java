@@ -0,0 +1,112 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.plugin.apify.ApifySortDirection;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@KestraTest
+class GetIncrementalTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenPersistedWatermark_whenRunIncrementally_thenFetchesOnlyNewItemsAndAdvancesWatermark() throws Exception {
+        Get get = Get.builder()
+            .datasetId(Property.ofValue("dataset-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .incremental(Property.ofValue(true))
+            .watermarkKey(Property.ofValue("my_watermark"))
+            .build();
+
+        Get getSpy = Mockito.spy(get);
+        RunContext runContext = runContextFactory.of();
+
+        KVStore kvStore = Mockito.mock(KVStore.class);
+        Mockito.when(kvStore.getValue("my_watermark")).thenReturn(Optional.of(new KVValue(5)));
+        Mockito.doReturn(kvStore).when(getSpy).watermarkStore(runContext);
+
+        Dataset dataset = new Dataset();
+        dataset.setItemCount(8L);
+        Mockito.doReturn(new DatasetApiResponseWrapper(dataset))
+            .when(getSpy)
+            .makeCall(eq(runContext), any(), eq(DatasetApiResponseWrapper.class));
+        Mockito.doAnswer(invocation ->
+            {
+                String query = invocation.<HttpRequest.HttpRequestBuilder>getArgument(1).build().getUri().getQuery();
+                assertThat(query, containsString("limit=3&offset=5"));
+                return List.of(Map.of("id", 5), Map.of("id", 6), Map.of("id", 7));
+            })
+            .when(getSpy)
+            .makeCall(eq(runContext), any(), eq(List.class));
+
+        Get.Output output = getSpy.run(runContext);
+
+        assertEquals(3L, output.count());
+        assertEquals(3L, output.newItems());
+        assertEquals(8L, output.watermark());
+        Mockito.verify(kvStore).put(eq("my_watermark"), any());
+    }
+
+    @Test
+    void givenNoNewItems_whenRunIncrementally_thenReturnsWithoutFetchingItems() throws Exception {
+        Get get = Get.builder()
+            .datasetId(Property.ofValue("dataset-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .incremental(Property.ofValue(true))
+            .build();
+
+        Get getSpy = Mockito.spy(get);
+        RunContext runContext = runContextFactory.of();
+
+        KVStore kvStore = Mockito.mock(KVStore.class);
+        Mockito.when(kvStore.getValue(anyString())).thenReturn(Optional.of(new KVValue(8)));
+        Mockito.doReturn(kvStore).when(getSpy).watermarkStore(runContext);
+
+        Dataset dataset = new Dataset();
+        dataset.setItemCount(8L);
+        Mockito.doReturn(new DatasetApiResponseWrapper(dataset))
+            .when(getSpy)
+            .makeCall(eq(runContext), any(), eq(DatasetApiResponseWrapper.class));
+
+        Get.Output output = getSpy.run(runContext);
+
+        assertEquals(List.of(), output.dataset());
+        assertEquals(0L, output.newItems());
+        assertEquals(8L, output.watermark());
+        Mockito.verify(getSpy, Mockito.never()).makeCall(eq(runContext), any(), eq(List.class));
+    }
+
+    @Test
+    void givenDescendingSort_whenRunIncrementally_thenRejectsConfiguration() {
+        Get get = Get.builder()
+            .datasetId(Property.ofValue("dataset-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .incremental(Property.ofValue(true))
+            .sort(Property.ofValue(ApifySortDirection.DESC))
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> get.run(runContextFactory.of()));
+    }
+}
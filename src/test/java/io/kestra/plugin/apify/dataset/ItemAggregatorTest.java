@@ -0,0 +1,75 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemAggregatorTest {
+    private static final List<ItemAggregator.Spec> SPECS = List.of(
+        new ItemAggregator.Spec("count", AggregationFunction.COUNT, null),
+        new ItemAggregator.Spec("total", AggregationFunction.SUM, "offer.price"),
+        new ItemAggregator.Spec("cheapest", AggregationFunction.MIN, "offer.price"),
+        new ItemAggregator.Spec("dearest", AggregationFunction.MAX, "offer.price"),
+        new ItemAggregator.Spec("average", AggregationFunction.AVG, "offer.price")
+    );
+
+    @Test
+    void givenItems_whenAggregated_thenGroupsHoldResultsInOrderOfFirstAppearance() throws Exception {
+        ItemAggregator aggregator = new ItemAggregator(List.of("category"), SPECS);
+        aggregator.add(Map.of("category", "books", "offer", Map.of("price", 10)));
+        aggregator.add(Map.of("category", "games", "offer", Map.of("price", 50.5)));
+        aggregator.add(Map.of("category", "books", "offer", Map.of("price", 30L)));
+        aggregator.add(Map.of("category", "books", "offer", Map.of("price", "n/a")));
+        aggregator.add(Map.of("title", "no category"));
+
+        List<Map<String, Object>> rows = aggregator.rows();
+
+        assertEquals(5, aggregator.items());
+        assertEquals(3, rows.size());
+        assertEquals(List.of("category", "count", "total", "cheapest", "dearest", "average"), List.copyOf(rows.getFirst().keySet()));
+        assertEquals(List.of("books", 3L, 40.0, 10.0, 30.0, 20.0), List.copyOf(rows.get(0).values()));
+        assertEquals(List.of("games", 1L, 50.5, 50.5, 50.5, 50.5), List.copyOf(rows.get(1).values()));
+        assertEquals(1L, rows.get(2).get("count"));
+        assertEquals(null, rows.get(2).get("category"));
+        assertEquals(null, rows.get(2).get("average"));
+    }
+
+    @Test
+    void givenPartialAggregators_whenMerged_thenResultsMatchASinglePass() throws Exception {
+        List<Map<String, Object>> items = IntStream.range(0, 1000)
+            .mapToObj(i -> Map.<String, Object>of("category", "c" + (i % 7), "offer", Map.of("price", i)))
+            .toList();
+        ItemAggregator single = new ItemAggregator(List.of("category"), SPECS);
+        ItemAggregator first = new ItemAggregator(List.of("category"), SPECS);
+        ItemAggregator second = new ItemAggregator(List.of("category"), SPECS);
+        for (int i = 0; i < items.size(); i++) {
+            single.add(items.get(i));
+            (i < 400 ? first : second).add(items.get(i));
+        }
+
+        ItemAggregator merged = new ItemAggregator(List.of("category"), SPECS);
+        merged.merge(first);
+        merged.merge(second);
+
+        assertEquals(single.items(), merged.items());
+        assertEquals(single.rows(), merged.rows());
+    }
+
+    @Test
+    void givenManyDistinctValues_whenCountedApproximately_thenEstimateIsWithinAFewPercent() throws Exception {
+        ItemAggregator aggregator = new ItemAggregator(List.of(), List.of(new ItemAggregator.Spec("urls", AggregationFunction.APPROX_DISTINCT, "url")));
+        for (int i = 0; i < 200_000; i++) {
+            // every url is seen twice
+            aggregator.add(Map.of("url", "https://example.com/page/" + (i % 100_000)));
+        }
+
+        long estimate = (long) aggregator.rows().getFirst().get("urls");
+
+        assertTrue(Math.abs(estimate - 100_000) < 5_000, "estimate " + estimate);
+    }
+}
@@ -0,0 +1,86 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@KestraTest
+class ItemDeduplicatorTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenItemsSharingKeyFields_whenDeduplicated_thenOnlyFirstOccurrenceIsKept() throws Exception {
+        try (ItemDeduplicator deduplicator = ItemDeduplicator.exact(runContextFactory.of(), List.of("url", "meta.lang"))) {
+            assertFalse(deduplicator.isDuplicate(Map.of("url", "https://a", "meta", Map.of("lang", "en"), "page", 1)));
+            assertFalse(deduplicator.isDuplicate(Map.of("url", "https://a", "meta", Map.of("lang", "fr"), "page", 1)));
+            assertTrue(deduplicator.isDuplicate(Map.of("url", "https://a", "meta", Map.of("lang", "en"), "page", 2)));
+            assertTrue(deduplicator.isDuplicate(Map.of("url", "https://a", "meta.lang", "en")));
+
+            assertEquals(2, deduplicator.duplicates());
+        }
+    }
+
+    @Test
+    void givenItemsWithoutKeyFields_whenDeduplicated_thenTheyAreAlwaysKept() throws Exception {
+        try (ItemDeduplicator deduplicator = ItemDeduplicator.exact(runContextFactory.of(), List.of("url"))) {
+            assertFalse(deduplicator.isDuplicate(Map.of("title", "a")));
+            assertFalse(deduplicator.isDuplicate(Map.of("title", "a")));
+
+            assertEquals(0, deduplicator.duplicates());
+        }
+    }
+
+    @Test
+    void givenMoreKeysThanFitInMemory_whenDeduplicated_thenKeysSpillToDiskAndStayExact() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        try (ItemDeduplicator deduplicator = ItemDeduplicator.exact(runContext, List.of("id"), 100)) {
+            for (int round = 0; round < 2; round++) {
+                for (int id = 0; id < 1000; id++) {
+                    assertEquals(round == 1, deduplicator.isDuplicate(Map.of("id", id)));
+                }
+            }
+
+            assertEquals(1000, deduplicator.duplicates());
+        }
+    }
+
+    @Test
+    void givenDiskTableSpanningSeveralSegments_whenDeduplicated_thenKeysStayExactAcrossSegments() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        // 64-slot segments split the spilled table, and its doublings, over many mappings
+        try (ItemDeduplicator deduplicator = ItemDeduplicator.exact(runContext, List.of("id"), 10, 64)) {
+            for (int round = 0; round < 2; round++) {
+                for (int id = 0; id < 5000; id++) {
+                    assertEquals(round == 1, deduplicator.isDuplicate(Map.of("id", id)));
+                }
+            }
+
+            assertEquals(5000, deduplicator.duplicates());
+        }
+    }
+
+    @Test
+    void givenBloomFilter_whenManyUniqueItems_thenFalsePositivesStayNearTheConfiguredRate() throws Exception {
+        try (ItemDeduplicator deduplicator = ItemDeduplicator.bloom(List.of("id"), 0.01)) {
+            int items = 200_000;
+            for (int id = 0; id < items; id++) {
+                deduplicator.isDuplicate(Map.of("id", id));
+            }
+            assertTrue(deduplicator.duplicates() < items * 0.01, "false positives: " + deduplicator.duplicates());
+
+            assertTrue(deduplicator.isDuplicate(Map.of("id", 42)));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.storages.Storage;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@KestraTest
+class PushTest {
+    private static final String ITEMS = """
+        {"id":1}
+        {"id":2}
+        {"id":3}
+
+        {"id":4}
+        {"id":5}
+        {"id":6}
+        {"id":7}
+        """;
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenItemsFile_whenPushed_thenItemsArePackedIntoBatchesUnderTheByteLimit() throws Exception {
+        Push push = push(30L);
+        Push pushSpy = Mockito.spy(push);
+        RunContext runContext = runContextWithItems(ITEMS);
+
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        Mockito.doAnswer(invocation ->
+            {
+                HttpRequest request = invocation.<HttpRequest.HttpRequestBuilder>getArgument(1).build();
+                assertThat(request.getUri().getPath(), endsWith("/datasets/DATASET_ID/items"));
+                bodies.add((String) request.getBody().getContent());
+                return null;
+            })
+            .when(pushSpy)
+            .makeCall(eq(runContext), any(), eq(String.class));
+
+        Push.Output output = pushSpy.run(runContext);
+
+        assertEquals(7, output.count());
+        assertEquals(3, output.batches());
+        assertThat(bodies, containsInAnyOrder(
+            "[{\"id\":1},{\"id\":2},{\"id\":3}]",
+            "[{\"id\":4},{\"id\":5},{\"id\":6}]",
+            "[{\"id\":7}]"
+        ));
+    }
+
+    @Test
+    void givenRefusedConnection_whenBatchIsPushed_thenBatchIsRetried() throws Exception {
+        Push pushSpy = Mockito.spy(push(Push.MAX_PAYLOAD_BYTES));
+        RunContext runContext = runContextWithItems(ITEMS);
+
+        AtomicInteger calls = new AtomicInteger();
+        Mockito.doAnswer(invocation ->
+            {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IOException("request failed", new ConnectException("connection refused"));
+                }
+                return null;
+            })
+            .when(pushSpy)
+            .makeCall(eq(runContext), any(), eq(String.class));
+
+        assertEquals(7, pushSpy.run(runContext).count());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void givenErrorAfterTheBatchWasSent_whenBatchIsPushed_thenBatchIsNotResent() throws Exception {
+        Push pushSpy = Mockito.spy(push(Push.MAX_PAYLOAD_BYTES));
+        RunContext runContext = runContextWithItems(ITEMS);
+
+        AtomicInteger calls = new AtomicInteger();
+        Mockito.doAnswer(invocation ->
+            {
+                calls.incrementAndGet();
+                throw new IOException("connection reset");
+            })
+            .when(pushSpy)
+            .makeCall(eq(runContext), any(), eq(String.class));
+
+        assertThrows(IOException.class, () -> pushSpy.run(runContext));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void givenAmbiguousFailuresRetried_whenConnectionIsReset_thenBatchIsResent() throws Exception {
+        Push pushSpy = Mockito.spy(builder(Push.MAX_PAYLOAD_BYTES).retryAmbiguousFailures(Property.ofValue(true)).build());
+        RunContext runContext = runContextWithItems(ITEMS);
+
+        AtomicInteger calls = new AtomicInteger();
+        Mockito.doAnswer(invocation ->
+            {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IOException("connection reset");
+                }
+                return null;
+            })
+            .when(pushSpy)
+            .makeCall(eq(runContext), any(), eq(String.class));
+
+        assertEquals(7, pushSpy.run(runContext).count());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void givenItemLargerThanTheByteLimit_whenPushed_thenTaskFails() {
+        Push.BatchPacker packer = new Push.BatchPacker(10);
+
+        assertThrows(IllegalArgumentException.class, () -> packer.add("{\"id\":\"too long\"}", 0));
+    }
+
+    private static Push push(long maxBatchBytes) {
+        return builder(maxBatchBytes).build();
+    }
+
+    private static Push.PushBuilder<?, ?> builder(long maxBatchBytes) {
+        return Push.builder()
+            .id("TASK_ID")
+            .type(Push.class.getName())
+            .apiToken(Property.ofValue("API_KEY"))
+            .datasetId(Property.ofValue("DATASET_ID"))
+            .from(Property.ofValue("kestra:///items.jsonl"))
+            .maxBatchBytes(Property.ofValue(maxBatchBytes))
+            .concurrency(Property.ofValue(2));
+    }
+
+    private RunContext runContextWithItems(String items) throws Exception {
+        RunContext runContext = Mockito.spy(runContextFactory.of());
+        Storage storage = mock(Storage.class);
+        when(storage.getFile(any())).thenAnswer(invocation -> new ByteArrayInputStream(items.getBytes(StandardCharsets.UTF_8)));
+        when(runContext.storage()).thenReturn(storage);
+        return runContext;
+    }
+}
@@ -0,0 +1,136 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+import io.kestra.plugin.apify.ApifyConnection;
+import io.kestra.plugin.apify.DataSetFormat;
+
+import jakarta.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@KestraTest
+class SaveResumeTest {
+    private static final Pattern OFFSET_AND_LIMIT = Pattern.compile("limit=(\\d+)&offset=(\\d+)");
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenAttemptFailingMidway_whenRetried_thenOnlyTheMissingRangesAreDownloaded() throws Exception {
+        Save save = Save.builder()
+            .datasetId(Property.ofValue("dataset-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .format(Property.ofValue(DataSetFormat.JSONL))
+            .partitionSize(Property.ofValue(2))
+            .resumable(Property.ofValue(true))
+            .checkpointKey(Property.ofValue("save_checkpoint"))
+            .build();
+
+        Save saveSpy = Mockito.spy(save);
+        RunContext runContext = runContextFactory.of();
+        Map<String, Object> kv = new ConcurrentHashMap<>();
+        KVStore kvStore = inMemoryStore(kv);
+        Mockito.doReturn(kvStore).when(saveSpy).checkpointStore(runContext);
+
+        Dataset dataset = new Dataset();
+        dataset.setItemCount(6L);
+        Mockito.doReturn(new DatasetApiResponseWrapper(dataset))
+            .when(saveSpy)
+            .makeCall(eq(runContext), any(), eq(DatasetApiResponseWrapper.class));
+
+        List<Integer> requestedOffsets = new CopyOnWriteArrayList<>();
+        boolean[] connectionDrops = {true};
+        Mockito.doAnswer(invocation ->
+            {
+                Matcher matcher = OFFSET_AND_LIMIT.matcher(invocation.<HttpRequest.HttpRequestBuilder>getArgument(1).build().getUri().getQuery());
+                matcher.find();
+                int limit = Integer.parseInt(matcher.group(1));
+                int offset = Integer.parseInt(matcher.group(2));
+                requestedOffsets.add(offset);
+                if (offset == 4 && connectionDrops[0]) {
+                    throw new IOException("connection reset");
+                }
+                String items = IntStream.range(offset, offset + limit)
+                    .mapToObj(i -> "{\"id\":" + i + "}")
+                    .collect(Collectors.joining("\n", "", "\n"));
+                return invocation.<ApifyConnection.ResponseBodyHandler<?>>getArgument(2).handle(
+                    new ByteArrayInputStream(items.getBytes(StandardCharsets.UTF_8))
+                );
+            })
+            .when(saveSpy)
+            .makeStreamingCall(eq(runContext), any(), any());
+
+        assertThrows(IOException.class, () -> saveSpy.run(runContext));
+        assertEquals(List.of(0, 2, 4), requestedOffsets);
+        assertTrue(kv.containsKey("save_checkpoint"));
+        Collection<String> uploadedRanges = JacksonMapper.ofJson()
+            .readValue(String.valueOf(kv.get("save_checkpoint")), SaveCheckpoint.State.class)
+            .parts()
+            .values();
+        assertEquals(2, uploadedRanges.size());
+
+        connectionDrops[0] = false;
+        requestedOffsets.clear();
+        Save.Output output = saveSpy.run(runContext);
+
+        assertEquals(List.of(4), requestedOffsets);
+        try (InputStream input = runContext.storage().getFile(output.getPath())) {
+            assertEquals(
+                IntStream.range(0, 6).mapToObj(i -> "{\"id\":" + i + "}").toList(),
+                new String(input.readAllBytes(), StandardCharsets.UTF_8).lines().toList()
+            );
+        }
+        assertTrue(kv.isEmpty());
+        for (String uploadedRange : uploadedRanges) {
+            assertThrows(IOException.class, () -> runContext.storage().getFile(URI.create(uploadedRange)).close());
+        }
+    }
+
+    private static KVStore inMemoryStore(Map<String, Object> kv) throws Exception {
+        KVStore kvStore = Mockito.mock(KVStore.class);
+        Mockito.when(kvStore.getValue(anyString())).thenAnswer(invocation ->
+            Optional.ofNullable(kv.get(invocation.<String>getArgument(0))).map(KVValue::new)
+        );
+        Mockito.doAnswer(invocation ->
+            {
+                kv.put(invocation.getArgument(0), invocation.<KVValueAndMetadata>getArgument(1).value());
+                return null;
+            })
+            .when(kvStore)
+            .put(anyString(), any());
+        Mockito.when(kvStore.delete(anyString())).thenAnswer(invocation -> kv.remove(invocation.<String>getArgument(0)) != null);
+        return kvStore;
+    }
+}
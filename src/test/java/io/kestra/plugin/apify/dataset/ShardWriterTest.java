@@ -0,0 +1,66 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@KestraTest
+class ShardWriterTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenJsonlPartsAndRowCap_whenSplit_thenShardsContinueAcrossParts() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        Path first = write(runContext, ".jsonl", "{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n");
+        Path second = write(runContext, ".jsonl", "{\"id\":4}\n{\"id\":5}");
+
+        List<Save.Shard> shards = ShardWriter.split(runContext, List.of(first, second), ".jsonl", false, false, 2L, null);
+
+        assertEquals(3, shards.size());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", read(runContext, shards.get(0)));
+        assertEquals("{\"id\":3}\n{\"id\":4}\n", read(runContext, shards.get(1)));
+        assertEquals("{\"id\":5}\n", read(runContext, shards.get(2)));
+        assertEquals(1, shards.get(2).count());
+        assertFalse(Files.exists(first));
+        assertFalse(Files.exists(second));
+    }
+
+    @Test
+    void givenCsvWithHeaderAndByteCap_whenSplit_thenEveryShardRepeatsHeaderAndKeepsQuotedLineBreaks() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        Path csv = write(runContext, ".csv", "id,text\r\n1,short\r\n2,\"multi\r\nline\"\r\n3,short\r\n");
+
+        List<Save.Shard> shards = ShardWriter.split(runContext, List.of(csv), ".csv", true, true, null, 20L);
+
+        assertEquals(3, shards.size());
+        assertEquals("id,text\r\n1,short\r\n", read(runContext, shards.get(0)));
+        assertEquals("id,text\r\n2,\"multi\r\nline\"\r\n", read(runContext, shards.get(1)));
+        assertEquals("id,text\r\n3,short\r\n", read(runContext, shards.get(2)));
+        assertEquals(18, shards.get(0).bytes());
+    }
+
+    private static Path write(RunContext runContext, String extension, String content) throws Exception {
+        Path path = runContext.workingDir().createTempFile(extension);
+        return Files.writeString(path, content);
+    }
+
+    private static String read(RunContext runContext, Save.Shard shard) throws Exception {
+        try (InputStream input = runContext.storage().getFile(shard.uri())) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.kestra.plugin.apify.dataset;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.plugin.apify.ApifyConnection;
+import io.kestra.plugin.apify.ApifySortDirection;
+import io.kestra.plugin.apify.actor.ActorJobStatus;
+import io.kestra.plugin.apify.actor.ActorRun;
+import io.kestra.plugin.apify.actor.ActorRunApiResponseWrapper;
+
+import jakarta.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@KestraTest
+class TailTest {
+    private static final Pattern OFFSET_AND_LIMIT = Pattern.compile("limit=(\\d+)&offset=(\\d+)");
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void givenRunningActor_whenTailing_thenAppendsNewItemsUntilRunFinishes() throws Exception {
+        Tail tail = Tail.builder()
+            .runId(Property.ofValue("run-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .pollInterval(Property.ofValue(Duration.ofMillis(10)))
+            .build();
+
+        Tail tailSpy = Mockito.spy(tail);
+        RunContext runContext = runContextFactory.of();
+
+        Mockito.doReturn(run(ActorJobStatus.RUNNING), run(ActorJobStatus.RUNNING), run(ActorJobStatus.SUCCEEDED))
+            .when(tailSpy)
+            .makeCall(eq(runContext), any(), eq(ActorRunApiResponseWrapper.class));
+        Mockito.doReturn(dataset(2L), dataset(3L))
+            .when(tailSpy)
+            .makeCall(eq(runContext), any(), eq(DatasetApiResponseWrapper.class));
+        Mockito.doAnswer(invocation ->
+            {
+                String query = invocation.<HttpRequest.HttpRequestBuilder>getArgument(1).build().getUri().getQuery();
+                Matcher matcher = OFFSET_AND_LIMIT.matcher(query);
+                matcher.find();
+                int limit = Integer.parseInt(matcher.group(1));
+                int offset = Integer.parseInt(matcher.group(2));
+                String items = IntStream.range(offset, offset + limit)
+                    .mapToObj(i -> "{\"position\": " + i + "}")
+                    .collect(Collectors.joining(",", "[", "]"));
+                return invocation.<ApifyConnection.ResponseBodyHandler<?>>getArgument(2).handle(
+                    new ByteArrayInputStream(items.getBytes(StandardCharsets.UTF_8))
+                );
+            })
+            .when(tailSpy)
+            .makeStreamingCall(eq(runContext), any(), any());
+
+        Tail.Output output = tailSpy.run(runContext);
+
+        assertEquals(3L, output.count());
+        assertEquals(3L, output.offset());
+        assertEquals("dataset-id", output.datasetId());
+        assertEquals(ActorJobStatus.SUCCEEDED, output.status());
+        Mockito.verify(tailSpy, Mockito.times(2)).makeStreamingCall(eq(runContext), any(), any());
+        // the poll seeing the terminal status still appends an item, a single further poll confirms the count
+        Mockito.verify(tailSpy, Mockito.times(3)).makeCall(eq(runContext), any(), eq(DatasetApiResponseWrapper.class));
+    }
+
+    @Test
+    void givenFinishedRun_whenCountStopsMoving_thenStopsOnTheFirstPollWithoutNewItems() throws Exception {
+        Tail tail = Tail.builder()
+            .runId(Property.ofValue("run-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .pollInterval(Property.ofValue(Duration.ofMillis(10)))
+            .build();
+
+        Tail tailSpy = Mockito.spy(tail);
+        RunContext runContext = runContextFactory.of();
+
+        Mockito.doReturn(run(ActorJobStatus.SUCCEEDED))
+            .when(tailSpy)
+            .makeCall(eq(runContext), any(), eq(ActorRunApiResponseWrapper.class));
+        Mockito.doReturn(dataset(0L))
+            .when(tailSpy)
+            .makeCall(eq(runContext), any(), eq(DatasetApiResponseWrapper.class));
+
+        Tail.Output output = tailSpy.run(runContext);
+
+        assertEquals(0L, output.count());
+        Mockito.verify(tailSpy, Mockito.times(1)).makeCall(eq(runContext), any(), eq(DatasetApiResponseWrapper.class));
+        Mockito.verify(tailSpy, Mockito.never()).makeStreamingCall(eq(runContext), any(), any());
+    }
+
+    @Test
+    void givenDescendingSort_whenTailing_thenFailsBeforeAnyCall() throws Exception {
+        Tail tail = Tail.builder()
+            .runId(Property.ofValue("run-id"))
+            .apiToken(Property.ofValue("fake-token"))
+            .sort(Property.ofValue(ApifySortDirection.DESC))
+            .build();
+
+        Tail tailSpy = Mockito.spy(tail);
+        RunContext runContext = runContextFactory.of();
+
+        assertThrows(IllegalArgumentException.class, () -> tailSpy.run(runContext));
+        Mockito.verify(tailSpy, Mockito.never()).makeCall(any(), any(), any());
+    }
+
+    private static ActorRunApiResponseWrapper run(ActorJobStatus status) {
+        ActorRun actorRun = new ActorRun();
+        actorRun.setId("run-id");
+        actorRun.setDefaultDatasetId("dataset-id");
+        actorRun.setStatus(status);
+        return new ActorRunApiResponseWrapper(actorRun);
+    }
+
+    private static DatasetApiResponseWrapper dataset(long itemCount) {
+        Dataset dataset = new Dataset();
+        dataset.setItemCount(itemCount);
+        return new DatasetApiResponseWrapper(dataset);
+    }
+}